@@ -0,0 +1,77 @@
+package com.kamaths.foodpoint.benchmarks;
+
+import com.kamaths.foodpoint.entity.FoodItem;
+import com.kamaths.foodpoint.service.MenuSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typeahead latency on a large menu: a short prefix (many hits to rank), a
+ * two-word query and a misspelt one (goes through the typo path), plus the
+ * one-off cost of building the index for a new menu version.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MenuSearchBenchmark {
+
+    private static final String[] DISHES = {"Masala Dosa", "Rava Idli", "Medu Vada", "Chicken Biryani", "Veg Pulao",
+        "Paneer Tikka", "Butter Naan", "Sambar Rice", "Filter Coffee", "Gobi Manchurian", "Onion Uttapam", "Kesari Bath"};
+    private static final String[] CATEGORIES = {"South Indian", "North Indian", "Rice", "Tandoor", "Beverages",
+        "Chinese", "Snacks", "Sweets"};
+
+    @Param({"5000"})
+    private int menuSize;
+
+    private List<FoodItem> menu;
+    private MenuSearchIndex index;
+
+    @Setup
+    public void setUp() {
+        menu = new ArrayList<>(menuSize);
+        for (int i = 0; i < menuSize; i++) {
+            FoodItem item = new FoodItem();
+            item.setId((long) i);
+            item.setName(DISHES[i % DISHES.length] + " Special " + i);
+            item.setCategory(CATEGORIES[i % CATEGORIES.length]);
+            menu.add(item);
+        }
+        index = new MenuSearchIndex(menu);
+    }
+
+    @Benchmark
+    public int[] shortPrefix() {
+        return index.search("ma", 10, item -> item.getId());
+    }
+
+    @Benchmark
+    public int[] twoWords() {
+        return index.search("masala dos", 10, item -> item.getId());
+    }
+
+    @Benchmark
+    public int[] typo() {
+        return index.search("biriyanni", 10, item -> item.getId());
+    }
+
+    @Benchmark
+    public MenuSearchIndex build() {
+        return new MenuSearchIndex(menu);
+    }
+}
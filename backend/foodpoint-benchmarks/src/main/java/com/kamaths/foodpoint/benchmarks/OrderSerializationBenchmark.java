@@ -0,0 +1,102 @@
+package com.kamaths.foodpoint.benchmarks;
+
+import com.kamaths.foodpoint.dto.CreateOrderRequest;
+import com.kamaths.foodpoint.dto.OrderResponse;
+import com.kamaths.foodpoint.entity.Order;
+import com.kamaths.foodpoint.entity.OrderItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the pending-orders payload - the Order entities as they used to be
+ * sent, and the OrderResponse DTOs in JSON, CBOR and Smile - and of reading an
+ * incoming CreateOrderRequest. Payload sizes are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderSerializationBenchmark {
+
+    @Param({"1", "50"})
+    private int pendingOrders;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final CBORMapper cborMapper = CBORMapper.builder().build();
+    private final SmileMapper smileMapper = SmileMapper.builder().build();
+    private List<Order> payload;
+    private byte[] requestJson;
+
+    @Setup
+    public void setUp() {
+        payload = new ArrayList<>(pendingOrders);
+        for (int i = 0; i < pendingOrders; i++) {
+            Order order = new Order();
+            order.setId((long) i);
+            order.setCustomerName("Table " + i);
+            order.setCustomerPhone("98450" + String.format("%05d", i));
+            order.setPaymentMethod("cash");
+            order.setStatus("pending");
+            order.setCreatedAt(LocalDateTime.of(2025, 1, 1, 12, 0).plusMinutes(i));
+            List<OrderItem> items = new ArrayList<>();
+            items.add(new OrderItem(1L, "Masala Dosa", 7000, 2));
+            items.add(new OrderItem(2L, "Filter Coffee", 2500, 3));
+            items.add(new OrderItem(3L, "Kesari Bath", 4000, 1));
+            items.add(new OrderItem(null, "Extra chutney", 500, 1));
+            order.setOrderItems(items);
+            order.setTotalAmountPaise(7000 * 2 + 2500 * 3 + 4000 + 500);
+            payload.add(order);
+        }
+        requestJson = ("{\"customerName\":\"Table 4\",\"paymentMethod\":\"cash\",\"orderItems\":["
+            + "{\"foodItemId\":1,\"itemName\":\"Masala Dosa\",\"price\":70.0,\"quantity\":2},"
+            + "{\"foodItemId\":2,\"itemName\":\"Filter Coffee\",\"price\":25.0,\"quantity\":3},"
+            + "{\"itemName\":\"Extra chutney\",\"price\":5.0,\"quantity\":1}]}").getBytes();
+
+        System.out.printf("%n%d orders: entity json %d B, json %d B, cbor %d B, smile %d B%n", pendingOrders,
+            serializeEntities().length, serializeJson().length, serializeCbor().length, serializeSmile().length);
+    }
+
+    @Benchmark
+    public byte[] serializeEntities() {
+        return jsonMapper.writeValueAsBytes(payload);
+    }
+
+    @Benchmark
+    public byte[] serializeJson() {
+        return jsonMapper.writeValueAsBytes(OrderResponse.fromAll(payload));
+    }
+
+    @Benchmark
+    public byte[] serializeCbor() {
+        return cborMapper.writeValueAsBytes(OrderResponse.fromAll(payload));
+    }
+
+    @Benchmark
+    public byte[] serializeSmile() {
+        return smileMapper.writeValueAsBytes(OrderResponse.fromAll(payload));
+    }
+
+    @Benchmark
+    public CreateOrderRequest deserializeRequest() {
+        return jsonMapper.readValue(requestJson, CreateOrderRequest.class);
+    }
+}
@@ -0,0 +1,65 @@
+package com.kamaths.foodpoint.benchmarks;
+
+import com.kamaths.foodpoint.entity.OrderItem;
+import com.kamaths.foodpoint.pricing.Money;
+import com.kamaths.foodpoint.pricing.PricingCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The pricing loop behind OrderService.createOrder/updateOrder.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PricingBenchmark {
+
+    @Param({"3", "20", "200"})
+    private int lines;
+
+    private List<OrderItem> items;
+    private double[] clientPrices;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        items = new ArrayList<>(lines);
+        clientPrices = new double[lines];
+        for (int i = 0; i < lines; i++) {
+            clientPrices[i] = (10 + random.nextInt(490)) + random.nextInt(100) / 100.0;
+            items.add(new OrderItem("item" + i, Money.toPaise(clientPrices[i]), 1 + random.nextInt(4)));
+        }
+    }
+
+    @Benchmark
+    public long orderTotal() {
+        return PricingCalculator.orderTotal(items);
+    }
+
+    // Rupee-to-paise conversion done for every manually priced line
+    @Benchmark
+    public long convertClientPrices() {
+        long sum = 0;
+        for (double price : clientPrices) {
+            sum += Money.toPaise(price);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,100 @@
+package com.kamaths.foodpoint.benchmarks;
+
+import com.kamaths.foodpoint.entity.Order;
+import com.kamaths.foodpoint.entity.OrderItem;
+import com.kamaths.foodpoint.pricing.PricingCalculator;
+import com.kamaths.foodpoint.receipt.EscPos;
+import com.kamaths.foodpoint.receipt.ReceiptLayout;
+import com.kamaths.foodpoint.receipt.ReceiptPdf;
+import com.kamaths.foodpoint.receipt.ReceiptTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-of-day reprint cost: rendering one bill from the compiled template and
+ * encoding it for the printer, against writing a whole day's PDF from pages
+ * that are already cached (what a repeated reprint does).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReceiptBenchmark {
+
+    private static final String[] DISHES = {"Masala Dosa", "Rava Idli", "Medu Vada", "Chicken Biryani", "Veg Pulao",
+        "Paneer Tikka", "Butter Naan", "Sambar Rice", "Filter Coffee", "Gobi Manchurian"};
+
+    @Param({"500"})
+    private int bills;
+
+    private ReceiptTemplate template;
+    private Order order;
+    private ReceiptLayout layout;
+    private List<ReceiptPdf.Page> pages;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (InputStream in = Order.class.getResourceAsStream("/receipts/receipt.txt")) {
+            template = ReceiptTemplate.compile(new String(in.readAllBytes(), StandardCharsets.UTF_8), 42,
+                Map.of("shop", "Kamaths Food Point", "address", "", "footer", "Thank you! Visit again"));
+        }
+        order = new Order();
+        order.setId(4242L);
+        order.setCustomerName("Table 7");
+        order.setPaymentMethod("upi");
+        order.setStatus("paid");
+        order.setCreatedAt(LocalDateTime.of(2026, 10, 18, 20, 15));
+        List<OrderItem> items = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            items.add(new OrderItem((long) i, DISHES[i % DISHES.length], 4000 + 500 * i, 1 + i % 3));
+        }
+        order.setOrderItems(items);
+        order.setTotalAmountPaise(PricingCalculator.orderTotal(items));
+
+        layout = template.render(order);
+        pages = new ArrayList<>(bills);
+        for (int i = 0; i < bills; i++) {
+            pages.add(ReceiptPdf.page(layout));
+        }
+    }
+
+    @Benchmark
+    public ReceiptLayout render() {
+        return template.render(order);
+    }
+
+    @Benchmark
+    public byte[] renderEscPos() {
+        return EscPos.encode(template.render(order));
+    }
+
+    @Benchmark
+    public ReceiptPdf.Page renderPdfPage() {
+        return ReceiptPdf.page(template.render(order));
+    }
+
+    @Benchmark
+    public byte[] cachedDayAsPdf() {
+        return ReceiptPdf.document(pages);
+    }
+}
@@ -0,0 +1,185 @@
+package com.kamaths.foodpoint.benchmarks;
+
+import com.kamaths.foodpoint.FoodpointApplication;
+import com.kamaths.foodpoint.repository.SalesRepository;
+import com.kamaths.foodpoint.service.OrderService;
+import com.kamaths.foodpoint.service.SalesService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sales queries against an embedded H2 seeded with a year of history
+ * (1M sales, 100k orders by default). The application context is started
+ * once per fork; seeding goes straight through JDBC batches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class SalesAggregationBenchmark {
+
+    private static final int BATCH = 5_000;
+    private static final String INSERT_SALE =
+        "INSERT INTO sales (id, amount_paise, created_at) VALUES (NEXT VALUE FOR sales_seq, ?, ?)";
+
+    @Param({"1000000"})
+    private int sales;
+
+    @Param({"100000"})
+    private int orders;
+
+    private ConfigurableApplicationContext context;
+    private SalesRepository salesRepository;
+    private SalesService salesService;
+    private OrderService orderService;
+    private LocalDateTime monthStart;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(FoodpointApplication.class)
+            .web(WebApplicationType.NONE)
+            .run(
+                "--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=validate",
+                "--spring.jpa.show-sql=false",
+                "--spring.devtools.restart.enabled=false",
+                "--logging.level.root=WARN");
+        salesRepository = context.getBean(SalesRepository.class);
+        salesService = context.getBean(SalesService.class);
+        orderService = context.getBean(OrderService.class);
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        seedSales(jdbc);
+        seedOrders(jdbc);
+        salesService.rebuildRollup(); // seeded behind the service's back
+        monthStart = LocalDate.now().withDayOfMonth(1).atStartOfDay();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    // Spread over the last 365 days, lunch and dinner heavy like a real counter.
+    // Ids come from sales_seq like the app's own inserts (the column has no default).
+    private void seedSales(JdbcTemplate jdbc) {
+        Random random = new Random(1);
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < sales; i++) {
+            LocalDateTime at = now.minusDays(random.nextInt(365))
+                .withHour(random.nextBoolean() ? 12 + random.nextInt(3) : 19 + random.nextInt(3))
+                .withMinute(random.nextInt(60));
+            batch.add(new Object[] {5_000L + random.nextInt(95_000), Timestamp.valueOf(at)});
+            if (batch.size() == BATCH) {
+                jdbc.batchUpdate(INSERT_SALE, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbc.batchUpdate(INSERT_SALE, batch);
+        }
+    }
+
+    private void seedOrders(JdbcTemplate jdbc) {
+        Random random = new Random(2);
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> orderRows = new ArrayList<>(BATCH);
+        List<Object[]> itemRows = new ArrayList<>(BATCH * 3);
+        for (long id = 1; id <= orders; id++) {
+            int lines = 1 + random.nextInt(5);
+            long total = 0;
+            for (int line = 0; line < lines; line++) {
+                long price = 2_000L + random.nextInt(30_000);
+                int quantity = 1 + random.nextInt(3);
+                total += price * quantity;
+                itemRows.add(new Object[] {id, line, "Item " + random.nextInt(80), price, quantity});
+            }
+            String status = random.nextInt(50) == 0 ? "pending" : "paid";
+            orderRows.add(new Object[] {id, "Customer " + id, "cash", status, total,
+                Timestamp.valueOf(now.minusMinutes(random.nextInt(525_600)))});
+            if (orderRows.size() == BATCH) {
+                flushOrders(jdbc, orderRows, itemRows);
+            }
+        }
+        if (!orderRows.isEmpty()) {
+            flushOrders(jdbc, orderRows, itemRows);
+        }
+    }
+
+    private void flushOrders(JdbcTemplate jdbc, List<Object[]> orderRows, List<Object[]> itemRows) {
+        jdbc.batchUpdate("INSERT INTO orders (id, customer_name, payment_method, status, total_amount_paise, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?)", orderRows);
+        jdbc.batchUpdate("INSERT INTO order_items (order_id, line_no, item_name, price_paise, quantity) VALUES (?, ?, ?, ?, ?)",
+            itemRows);
+        orderRows.clear();
+        itemRows.clear();
+    }
+
+    // What /api/sales/monthly cost before the running totals
+    @Benchmark
+    public Long monthlySumQuery() {
+        return salesRepository.sumAmountPaiseByCreatedAtBetween(monthStart, monthStart.plusMonths(1));
+    }
+
+    // What /api/sales/total cost before the running totals
+    @Benchmark
+    public Long lifetimeSumQuery() {
+        return salesRepository.sumAllAmountPaise();
+    }
+
+    @Benchmark
+    public double monthlyFromRunningTotals() {
+        return salesService.getMonthlySales() + salesService.getTodaySales() + salesService.getTotalSales();
+    }
+
+    // A year of per-day totals grouped straight from the sales rows
+    @Benchmark
+    public Object yearByDayFromSales() {
+        LocalDate today = LocalDate.now();
+        return salesRepository.sumAmountPaiseGroupedByOutletAndDay(
+            today.minusDays(364).atStartOfDay(), today.plusDays(1).atStartOfDay());
+    }
+
+    // The same year from daily_sales_rollup
+    @Benchmark
+    public Object yearByMonthFromRollup() {
+        LocalDate today = LocalDate.now();
+        return salesService.getReport(today.minusDays(364), today, "month");
+    }
+
+    @Benchmark
+    public Object salesFirstPage() {
+        return salesService.getSalesPage(null, 100);
+    }
+
+    @Benchmark
+    public Object pendingOrders() {
+        return orderService.getPendingOrders();
+    }
+}
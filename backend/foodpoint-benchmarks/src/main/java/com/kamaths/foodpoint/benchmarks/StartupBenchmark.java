@@ -0,0 +1,108 @@
+package com.kamaths.foodpoint.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold start of the packaged backend, the way a till PC boots it: wall time
+ * from launching java until "Started FoodpointApplication", and the resident
+ * memory (VmRSS, Linux only) at that point.
+ *
+ * Compares the plain executable jar with the -Pprod build (Spring AOT + CDS
+ * archive in target/cds); variants whose files aren't built are skipped. All
+ * runs share one H2 file database under target/, migrated by the warm-up run.
+ *
+ *   mvn -f ../foodpoint package -Pprod -DskipTests
+ *   mvn package exec:exec@startup [-Dstartup.runs=10]
+ */
+public class StartupBenchmark {
+
+    private static final String APP = "foodpoint-0.0.1-SNAPSHOT-exec.jar";
+    private static final String STARTED = "Started FoodpointApplication";
+    private static final long TIMEOUT_SECONDS = 120;
+
+    public static void main(String[] args) throws Exception {
+        Path target = Path.of(args.length > 0 ? args[0] : "../foodpoint/target").toAbsolutePath().normalize();
+        int runs = Integer.getInteger("startup.runs", 5);
+        Path database = Files.createDirectories(Path.of("target", "startup-db").toAbsolutePath()).resolve("foodpoint");
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+        List<Variant> variants = List.of(
+            new Variant("jar", target.resolve(APP),
+                List.of(java, "-jar", target.resolve(APP).toString())),
+            new Variant("prod: AOT + CDS", target.resolve("cds").resolve("foodpoint.jsa"),
+                List.of(java, "-XX:SharedArchiveFile=" + target.resolve("cds").resolve("foodpoint.jsa"),
+                    "-Dspring.aot.enabled=true", "-jar", target.resolve("cds").resolve(APP).toString(),
+                    "--spring.profiles.active=prod")));
+
+        System.out.printf("%-18s %12s %12s %12s%n", "variant", "median ms", "min ms", "median RSS MB");
+        for (Variant variant : variants) {
+            if (!Files.exists(variant.requires)) {
+                System.out.printf("%-18s skipped, %s not built%n", variant.name, variant.requires);
+                continue;
+            }
+            List<String> command = new ArrayList<>(variant.command);
+            command.add("--spring.datasource.url=jdbc:h2:file:" + database);
+            command.add("--server.port=0");
+            command.add("--app.upload.dir=target/startup-uploads");
+
+            start(command); // warm-up: OS file cache, first-run migrations
+            long[] millis = new long[runs];
+            long[] rssKb = new long[runs];
+            for (int i = 0; i < runs; i++) {
+                Result result = start(command);
+                millis[i] = result.millis;
+                rssKb[i] = result.rssKb;
+            }
+            Arrays.sort(millis);
+            Arrays.sort(rssKb);
+            System.out.printf("%-18s %12d %12d %12s%n", variant.name, millis[runs / 2], millis[0],
+                rssKb[runs / 2] < 0 ? "n/a" : String.valueOf(rssKb[runs / 2] / 1024));
+        }
+    }
+
+    private static Result start(List<String> command) throws IOException, InterruptedException {
+        long begin = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        try (BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = out.readLine()) != null) {
+                if (line.contains(STARTED)) {
+                    long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+                    return new Result(millis, rssKb(process.pid()));
+                }
+            }
+            throw new IllegalStateException("Exited with " + process.waitFor() + " before starting: " + command);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static long rssKb(long pid) {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", String.valueOf(pid), "status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // not Linux
+        }
+        return -1;
+    }
+
+    private record Variant(String name, Path requires, List<String> command) {}
+
+    private record Result(long millis, long rssKb) {}
+}
@@ -2,19 +2,13 @@ package com.kamaths.foodpoint;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
-import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
-public class FoodpointApplication implements WebMvcConfigurer {
+@EnableScheduling
+public class FoodpointApplication {
     
     public static void main(String[] args) {
         SpringApplication.run(FoodpointApplication.class, args);
     }
-    
-    @Override
-    public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:uploads/");
-    }
 }
@@ -0,0 +1,69 @@
+package com.kamaths.foodpoint.controller;
+
+import com.kamaths.foodpoint.dto.BasketStats;
+import com.kamaths.foodpoint.dto.CategorySales;
+import com.kamaths.foodpoint.dto.HeatmapCell;
+import com.kamaths.foodpoint.dto.ItemSales;
+import com.kamaths.foodpoint.service.SalesAnalyticsService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Supplier;
+
+// ✅ Sales analytics over any date range (inclusive), e.g. ?from=2025-04-01&to=2026-03-31, for the X-Outlet outlet
+@RestController
+@RequestMapping("/api/analytics")
+@CrossOrigin(origins = "http://localhost:5173")
+public class AnalyticsController {
+    
+    private static final int MAX_LIMIT = 100;
+    
+    private final SalesAnalyticsService analyticsService;
+    
+    public AnalyticsController(SalesAnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+    
+    // by=quantity (default) or by=revenue
+    @GetMapping("/best-sellers")
+    public ResponseEntity<List<ItemSales>> getBestSellers(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                          @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                          @RequestParam(defaultValue = "quantity") String by,
+                                                          @RequestParam(defaultValue = "10") int limit,
+                                                          @RequestAttribute(OutletScope.ATTRIBUTE) String outlet) {
+        int size = Math.max(1, Math.min(limit, MAX_LIMIT));
+        return answer(() -> analyticsService.getBestSellers(from, to, by, size, outlet));
+    }
+    
+    @GetMapping("/categories")
+    public ResponseEntity<List<CategorySales>> getCategoryBreakdown(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                                    @RequestAttribute(OutletScope.ATTRIBUTE) String outlet) {
+        return answer(() -> analyticsService.getCategoryBreakdown(from, to, outlet));
+    }
+    
+    @GetMapping("/heatmap")
+    public ResponseEntity<List<HeatmapCell>> getHourlyHeatmap(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                              @RequestAttribute(OutletScope.ATTRIBUTE) String outlet) {
+        return answer(() -> analyticsService.getHourlyHeatmap(from, to, outlet));
+    }
+    
+    @GetMapping("/basket")
+    public ResponseEntity<BasketStats> getBasketStats(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                      @RequestAttribute(OutletScope.ATTRIBUTE) String outlet) {
+        return answer(() -> analyticsService.getBasketStats(from, to, outlet));
+    }
+    
+    private static <T> ResponseEntity<T> answer(Supplier<T> report) {
+        try {
+            return ResponseEntity.ok(report.get());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.kamaths.foodpoint.controller;
+
+import com.kamaths.foodpoint.service.ExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+
+// Headers and optional gzip for the CSV/NDJSON download endpoints
+final class ExportResponses {
+    
+    private static final int GZIP_BUFFER = 64 * 1024;
+    
+    interface Export {
+        void writeTo(OutputStream out) throws IOException;
+    }
+    
+    private ExportResponses() {}
+    
+    static void send(HttpServletResponse response, String name, LocalDate from, LocalDate to,
+                     String format, boolean gzip, Export export) throws IOException {
+        try {
+            ExportService.checkFormat(format);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        
+        String fileName = name
+            + (from != null ? "-from-" + from : "")
+            + (to != null ? "-to-" + to : "")
+            + "." + format + (gzip ? ".gz" : "");
+        response.setContentType(gzip ? "application/gzip"
+            : ExportService.CSV.equals(format) ? "text/csv;charset=UTF-8"
+            : "application/x-ndjson;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment().filename(fileName).build().toString());
+        
+        if (gzip) {
+            GZIPOutputStream out = new GZIPOutputStream(response.getOutputStream(), GZIP_BUFFER);
+            export.writeTo(out);
+            out.finish();
+        } else {
+            export.writeTo(response.getOutputStream());
+        }
+    }
+}
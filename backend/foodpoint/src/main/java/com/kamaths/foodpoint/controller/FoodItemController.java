@@ -1,10 +1,20 @@
 package com.kamaths.foodpoint.controller;
 
 import com.kamaths.foodpoint.dto.FoodItemRequestDto;
+import com.kamaths.foodpoint.dto.FoodItemResponse;
 import com.kamaths.foodpoint.entity.FoodItem;
 import com.kamaths.foodpoint.service.FoodItemService;
+import com.kamaths.foodpoint.service.MenuCatalog;
+import com.kamaths.foodpoint.service.MenuSearchService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 
@@ -13,32 +23,88 @@ import java.util.List;
 @CrossOrigin(origins = "http://localhost:5173")
 public class FoodItemController {
     
+    private static final int MAX_SEARCH_RESULTS = 50;
+    
+    // Menu encodings in preference order: JSON unless the till asks for a binary one
+    private static final List<MediaType> MENU_FORMATS = List.of(
+        MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, new MediaType("application", "x-jackson-smile"));
+    
     private final FoodItemService foodItemService;
+    private final MenuSearchService menuSearchService;
+    private final ContentNegotiationManager contentNegotiationManager;
     
-    public FoodItemController(FoodItemService foodItemService) {
+    public FoodItemController(FoodItemService foodItemService, MenuSearchService menuSearchService,
+                              ContentNegotiationManager contentNegotiationManager) {
         this.foodItemService = foodItemService;
+        this.menuSearchService = menuSearchService;
+        this.contentNegotiationManager = contentNegotiationManager;
     }
     
     @PostMapping(consumes = "multipart/form-data")
-    public ResponseEntity<FoodItem> createFoodItem(@ModelAttribute FoodItemRequestDto dto) throws Exception {
-        FoodItem saved = foodItemService.createFoodItem(dto);
-        return ResponseEntity.ok(saved);
+    public ResponseEntity<FoodItemResponse> createFoodItem(@ModelAttribute FoodItemRequestDto dto, @RequestAttribute(OutletScope.ATTRIBUTE) String outlet) throws Exception {
+        FoodItem saved = foodItemService.createFoodItem(dto, outlet);
+        return ResponseEntity.ok(new FoodItemResponse(saved));
     }
     
     @GetMapping
-    public ResponseEntity<List<FoodItem>> getAllFoodItems() {
-        return ResponseEntity.ok(foodItemService.getAllFoodItems());
+    public ResponseEntity<List<FoodItemResponse>> getAllFoodItems(@RequestAttribute(OutletScope.ATTRIBUTE) String outlet,
+                                                                  HttpServletRequest request) throws HttpMediaTypeNotAcceptableException {
+        return menuResponse(outlet, request);
     }
 
+    // ✅ Served from the cached catalog; a matching If-None-Match gets 304 Not Modified.
+    // JSON by default, CBOR or Smile when the till sends that Accept header. Each outlet has its own menu.
     @GetMapping("/menu")
-public ResponseEntity<List<FoodItem>> getMenuItems() {
-    return ResponseEntity.ok(foodItemService.getAllFoodItems());
-}
+    public ResponseEntity<List<FoodItemResponse>> getMenuItems(@RequestAttribute(OutletScope.ATTRIBUTE) String outlet,
+                                                               HttpServletRequest request) throws HttpMediaTypeNotAcceptableException {
+        return menuResponse(outlet, request);
+    }
+    
+    // ✅ Typeahead for order entry: ?q=masala do - prefix, typo and spelling-variant
+    // matches (dosa/dosai, idli/idly) over name and category, best sellers first
+    @GetMapping("/search")
+    public ResponseEntity<List<FoodItemResponse>> searchFoodItems(@RequestParam("q") String query,
+                                                                  @RequestParam(defaultValue = "10") int limit,
+                                                                  @RequestAttribute(OutletScope.ATTRIBUTE) String outlet) {
+        int size = Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+        return ResponseEntity.ok(menuSearchService.search(query, size, outlet));
+    }
+    
+    // Each encoding is a different body, so each gets its own strong ETag: the format is
+    // negotiated here and set as the Content-Type, so the body written matches its ETag
+    private ResponseEntity<List<FoodItemResponse>> menuResponse(String outlet, HttpServletRequest request)
+            throws HttpMediaTypeNotAcceptableException {
+        MediaType format = menuFormat(request);
+        MenuCatalog catalog = foodItemService.getMenuCatalog(outlet);
+        String etag = catalog.getEtag();
+        if (!MediaType.APPLICATION_JSON.equals(format)) {
+            etag = etag.substring(0, etag.length() - 1) + "-" + format.getSubtype() + "\"";
+        }
+        return ResponseEntity.ok()
+            .contentType(format)
+            .eTag(etag)
+            .cacheControl(CacheControl.noCache())
+            .varyBy(HttpHeaders.ACCEPT)
+            .body(catalog.getResponses());
+    }
+    
+    private MediaType menuFormat(HttpServletRequest request) throws HttpMediaTypeNotAcceptableException {
+        // Most preferred first, by quality and then specificity
+        for (MediaType accepted : contentNegotiationManager.resolveMediaTypes(new ServletWebRequest(request))) {
+            for (MediaType format : MENU_FORMATS) {
+                if (accepted.isCompatibleWith(format)) {
+                    return format;
+                }
+            }
+        }
+        throw new HttpMediaTypeNotAcceptableException(MENU_FORMATS);
+    }
+    
     // ✅ NEW DELETE ENDPOINT
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteFoodItem(@PathVariable Long id) {
+    public ResponseEntity<?> deleteFoodItem(@PathVariable Long id, @RequestAttribute(OutletScope.ATTRIBUTE) String outlet) {
         try {
-            boolean deleted = foodItemService.deleteFoodItem(id);
+            boolean deleted = foodItemService.deleteFoodItem(id, outlet);
             if (deleted) {
                 return ResponseEntity.ok().build();
             } else {
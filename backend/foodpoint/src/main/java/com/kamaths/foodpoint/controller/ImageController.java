@@ -1,36 +1,85 @@
 package com.kamaths.foodpoint.controller;
 
+import com.kamaths.foodpoint.service.UploadedImageStore;
+import com.kamaths.foodpoint.service.UploadedImageStore.StoredImage;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
+// ✅ The only path that serves /uploads/** - menu photos and their variants
 @RestController
 public class ImageController {
     
+    // Tomcat's sendfile hand-off: the connector writes the file straight from the page cache
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    
+    // File names are UUIDs and never reused, so the content behind a URL never changes
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+    
+    private final UploadedImageStore images;
+    
+    public ImageController(UploadedImageStore images) {
+        this.images = images;
+    }
+    
     @GetMapping("/uploads/{filename:.+}")
-    public ResponseEntity<Resource> serveImage(@PathVariable String filename) {
-        try {
-            Path filePath = Paths.get("uploads").resolve(filename).normalize();
-            Resource resource = new UrlResource(filePath.toUri());
-            
-            if (resource.exists()) {
-                return ResponseEntity.ok()
-                    .contentType(MediaType.IMAGE_JPEG) // or IMAGE_PNG
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "inline")
-                    .body(resource);
-            } else {
-                return ResponseEntity.notFound().build();
-            }
-        } catch (Exception e) {
+    public ResponseEntity<Resource> serveImage(@PathVariable String filename,
+                                               HttpServletRequest request,
+                                               HttpServletResponse response) throws IOException {
+        Optional<StoredImage> found = images.find(filename);
+        if (found.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
+        StoredImage image = found.get();
+        
+        if (new ServletWebRequest(request, response).checkNotModified(image.etag(), image.lastModified())) {
+            return null; // 304 already written
+        }
+        
+        // Anything that isn't an image is a download, never rendered in our origin
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+            .contentType(image.isImage() ? image.contentType() : MediaType.APPLICATION_OCTET_STREAM)
+            .header(HttpHeaders.CONTENT_DISPOSITION, image.isImage()
+                ? "inline"
+                : ContentDisposition.attachment().filename(filename).build().toString())
+            .header("X-Content-Type-Options", "nosniff")
+            .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+            .eTag(image.etag())
+            .lastModified(image.lastModified())
+            .cacheControl(IMMUTABLE);
+        
+        // Range requests (including If-Range) are answered by Spring from the resource
+        boolean ranged = request.getHeader(HttpHeaders.RANGE) != null;
+        
+        byte[] cached = images.cachedBytes(image);
+        if (cached != null) {
+            return ok.body(new ByteArrayResource(cached));
+        }
+        if (!ranged && "GET".equals(request.getMethod())
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, image.path().toRealPath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, image.size());
+            return ok.contentLength(image.size()).build();
+        }
+        return ok.body(new FileSystemResource(image.path()));
     }
 }
@@ -0,0 +1,75 @@
+package com.kamaths.foodpoint.controller;
+
+import com.kamaths.foodpoint.dto.KitchenQueueSnapshot;
+import com.kamaths.foodpoint.dto.KitchenStation;
+import com.kamaths.foodpoint.dto.KitchenTicket;
+import com.kamaths.foodpoint.service.KitchenQueue;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/kitchen")
+@CrossOrigin(origins = "http://localhost:5173")
+public class KitchenController {
+
+    private final KitchenQueue kitchenQueue;
+
+    public KitchenController(KitchenQueue kitchenQueue) {
+        this.kitchenQueue = kitchenQueue;
+    }
+
+    // ✅ Kitchen display board, served from memory - no database query per refresh.
+    // One board per outlet; ?station=Grill narrows it to one station's screen.
+    @GetMapping("/queue")
+    public ResponseEntity<KitchenQueueSnapshot> getQueue(@RequestParam(required = false) String station,
+                                                         @RequestAttribute(OutletScope.ATTRIBUTE) String outlet) {
+        KitchenQueueSnapshot snapshot = kitchenQueue.getSnapshot(outlet);
+        if (station == null) {
+            return ResponseEntity.ok(snapshot);
+        }
+        List<KitchenStation> stations = snapshot.getStations().stream()
+            .filter(s -> s.getName().equalsIgnoreCase(station))
+            .toList();
+        return ResponseEntity.ok(new KitchenQueueSnapshot(snapshot.getVersion(), snapshot.getGeneratedAt(), stations));
+    }
+
+    // Another outlet's ticket is a 404, the same as one that isn't on the board
+    @PutMapping("/tickets/{orderId}/{station}/start")
+    public ResponseEntity<KitchenTicket> start(@PathVariable Long orderId, @PathVariable String station,
+                                               @RequestAttribute(OutletScope.ATTRIBUTE) String outlet) {
+        try {
+            return ResponseEntity.ok(kitchenQueue.start(orderId, station, outlet));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PutMapping("/tickets/{orderId}/{station}/ready")
+    public ResponseEntity<KitchenTicket> markReady(@PathVariable Long orderId, @PathVariable String station,
+                                                   @RequestAttribute(OutletScope.ATTRIBUTE) String outlet) {
+        try {
+            return ResponseEntity.ok(kitchenQueue.markReady(orderId, station, outlet));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // Served / picked up - removes the ticket from the board
+    @DeleteMapping("/tickets/{orderId}/{station}")
+    public ResponseEntity<Void> bump(@PathVariable Long orderId, @PathVariable String station,
+                                     @RequestAttribute(OutletScope.ATTRIBUTE) String outlet) {
+        try {
+            kitchenQueue.bump(orderId, station, outlet);
+            return ResponseEntity.ok().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
@@ -1,11 +1,26 @@
 package com.kamaths.foodpoint.controller;
 
 import com.kamaths.foodpoint.dto.CreateOrderRequest;
+import com.kamaths.foodpoint.dto.CursorPage;
+import com.kamaths.foodpoint.dto.OrderPatchRequest;
+import com.kamaths.foodpoint.dto.OrderResponse;
 import com.kamaths.foodpoint.entity.Order;
+import com.kamaths.foodpoint.service.BulkOrderImportService;
+import com.kamaths.foodpoint.service.ExportService;
+import com.kamaths.foodpoint.service.OrderEventBroadcaster;
 import com.kamaths.foodpoint.service.OrderService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -13,39 +28,95 @@ import java.util.List;
 @CrossOrigin(origins = "http://localhost:5173")
 public class OrderController {
     
+    private static final int MAX_PAGE_SIZE = 200;
+    
     private final OrderService orderService;
+    private final OrderEventBroadcaster orderEvents;
+    private final BulkOrderImportService bulkOrderImportService;
+    private final ExportService exportService;
     
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, OrderEventBroadcaster orderEvents,
+                           BulkOrderImportService bulkOrderImportService, ExportService exportService) {
         this.orderService = orderService;
+        this.orderEvents = orderEvents;
+        this.bulkOrderImportService = bulkOrderImportService;
+        this.exportService = exportService;
     }
     
     // ✅ AddOrders WORKS
     @PostMapping
-    public ResponseEntity<Order> createOrder(@RequestBody CreateOrderRequest request) {
+    public ResponseEntity<OrderResponse> createOrder(@RequestBody CreateOrderRequest request, @RequestAttribute(OutletScope.ATTRIBUTE) String outlet) {
         try {
-            Order order = orderService.createOrder(request);
-            return ResponseEntity.ok(order);
+            Order order = orderService.createOrder(request, outlet);
+            return ResponseEntity.ok(new OrderResponse(order));
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.badRequest().body(null);
         }
     }
     
+    // ✅ Offline till replay: one CreateOrderRequest per line in, one result per line out.
+    // Results are written as each chunk commits, so the response streams while the upload is read.
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importOrders(HttpServletRequest request, HttpServletResponse response, @RequestAttribute(OutletScope.ATTRIBUTE) String outlet) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        bulkOrderImportService.importOrders(request.getInputStream(), response.getOutputStream(), outlet);
+    }
+    
+    // ✅ Order history - keyset paged, pass nextCursor back to get the following page
     @GetMapping
-    public ResponseEntity<List<Order>> getAllOrders() {
-        return ResponseEntity.ok(orderService.getAllOrders());
+    public ResponseEntity<CursorPage<OrderResponse>> getAllOrders(@RequestParam(required = false) String cursor,
+                                                          @RequestParam(defaultValue = "50") int size,
+                                                          @RequestAttribute(OutletScope.ATTRIBUTE) String outlet) {
+        try {
+            int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+            CursorPage<Order> page = orderService.getOrdersPage(cursor, pageSize, outlet);
+            return ResponseEntity.ok(new CursorPage<>(OrderResponse.fromAll(page.getItems()), page.getNextCursor()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
+    // ✅ Accounting export - one CSV row per order line, or one NDJSON object per order
+    @GetMapping("/export")
+    public void exportOrders(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                             @RequestParam(defaultValue = "csv") String format,
+                             @RequestParam(defaultValue = "false") boolean gzip,
+                             @RequestAttribute(OutletScope.ATTRIBUTE) String outlet,
+                             HttpServletResponse response) throws IOException {
+        ExportResponses.send(response, "orders", from, to, format, gzip,
+            out -> exportService.exportOrders(from, to, outlet, format, out));
+    }
+    
+    // ✅ Polled by every till: lean DTOs, and CBOR/Smile for clients that send Accept: application/cbor
+    // or application/x-jackson-smile (JSON stays the default). Large responses are gzipped.
     @GetMapping("/pending")
-    public ResponseEntity<List<Order>> getPendingOrders() {
-        return ResponseEntity.ok(orderService.getPendingOrders());
+    public ResponseEntity<List<OrderResponse>> getPendingOrders(@RequestAttribute(OutletScope.ATTRIBUTE) String outlet) {
+        return ResponseEntity.ok(OrderResponse.fromAll(orderService.getPendingOrders(outlet)));
+    }
+    
+    // ✅ Live feed: created/updated/paid/deleted events instead of re-polling /pending.
+    // Browsers resend Last-Event-ID on reconnect; the query param covers the first connect.
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrders(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+                                   @RequestParam(required = false) Long lastEventId,
+                                   @RequestAttribute(OutletScope.ATTRIBUTE) String outlet) {
+        return orderEvents.subscribe(lastEventIdHeader != null ? lastEventIdHeader : lastEventId, outlet);
     }
     
     @PutMapping("/{id}")
-    public ResponseEntity<Order> updateOrder(@PathVariable Long id, @RequestBody CreateOrderRequest request) {
+    public ResponseEntity<OrderResponse> updateOrder(@PathVariable Long id, @RequestBody CreateOrderRequest request,
+                                                     @RequestAttribute(OutletScope.ATTRIBUTE) String outlet) {
         try {
-            Order updatedOrder = orderService.updateOrder(id, request);
-            return ResponseEntity.ok(updatedOrder);
+            Order updatedOrder = orderService.updateOrder(id, request, outlet);
+            return ResponseEntity.ok(new OrderResponse(updatedOrder));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        } catch (IllegalStateException | OptimisticLockingFailureException e) {
+            // paid meanwhile, or saved by another till since this one loaded it - reload and retry
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             e.printStackTrace();
             return ResponseEntity.notFound().build();
@@ -55,23 +126,47 @@ public class OrderController {
         }
     }
     
+    // ✅ Delta edit: {"change":[{"line":0,"quantity":3}],"remove":[2],"add":[...]}
+    @PatchMapping("/{id}")
+    public ResponseEntity<OrderResponse> patchOrder(@PathVariable Long id, @RequestBody OrderPatchRequest patch,
+                                                    @RequestAttribute(OutletScope.ATTRIBUTE) String outlet) {
+        try {
+            return ResponseEntity.ok(new OrderResponse(orderService.patchOrder(id, patch, outlet)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        } catch (IllegalStateException | OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    // Another outlet's order is a 404, the same as one that doesn't exist
     @DeleteMapping("/{id}")
-    public ResponseEntity<String> deleteOrder(@PathVariable Long id) {
+    public ResponseEntity<String> deleteOrder(@PathVariable Long id, @RequestAttribute(OutletScope.ATTRIBUTE) String outlet) {
         try {
-            orderService.deleteOrder(id);
+            orderService.deleteOrder(id, outlet);
             return ResponseEntity.ok("Order deleted successfully");
-        } catch (Exception e) {
+        } catch (RuntimeException e) {
             e.printStackTrace();
-            return ResponseEntity.badRequest().body("Failed to delete order");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Order not found");
         }
     }
     
-    // ✅ Mark Payment Done - WORKS PERFECTLY
+    // ✅ Mark Payment Done - safe to retry: the sale is recorded once, repeats return the paid order.
+    // With an Idempotency-Key, a second till paying the same order gets 409 instead.
     @PutMapping("/{id}/payment-done")
-    public ResponseEntity<Order> markPaymentDone(@PathVariable Long id) {
+    public ResponseEntity<OrderResponse> markPaymentDone(@PathVariable Long id,
+                                                 @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                                 @RequestAttribute(OutletScope.ATTRIBUTE) String outlet) {
         try {
-            Order order = orderService.markPaymentDone(id);
-            return ResponseEntity.ok(order);
+            Order order = orderService.markPaymentDone(id, idempotencyKey, outlet);
+            return ResponseEntity.ok(new OrderResponse(order));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             e.printStackTrace();
             return ResponseEntity.notFound().build();
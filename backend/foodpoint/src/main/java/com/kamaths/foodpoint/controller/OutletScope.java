@@ -0,0 +1,44 @@
+package com.kamaths.foodpoint.controller;
+
+import com.kamaths.foodpoint.service.Outlets;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+
+// ✅ Resolves the X-Outlet header once per API request; handlers read it with
+// @RequestAttribute(OutletScope.ATTRIBUTE). An unknown outlet is a 400 before any handler runs,
+// and every scoped response varies by the header so caches keep outlets apart.
+@Component
+public class OutletScope implements HandlerInterceptor, WebMvcConfigurer {
+
+    public static final String ATTRIBUTE = "foodpoint.outlet";
+
+    private final Outlets outlets;
+
+    public OutletScope(Outlets outlets) {
+        this.outlets = outlets;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this).addPathPatterns("/api/**");
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        try {
+            request.setAttribute(ATTRIBUTE, outlets.resolve(request.getHeader(Outlets.HEADER)));
+            response.addHeader(HttpHeaders.VARY, Outlets.HEADER);
+            return true;
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.kamaths.foodpoint.controller;
+
+import com.kamaths.foodpoint.dto.ReceiptBatchRequest;
+import com.kamaths.foodpoint.service.ReceiptService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequestMapping("/api/orders")
+@CrossOrigin(origins = "http://localhost:5173")
+public class ReceiptController {
+
+    private final ReceiptService receiptService;
+
+    public ReceiptController(ReceiptService receiptService) {
+        this.receiptService = receiptService;
+    }
+
+    // ✅ Customer bill: ?format=pdf (default, for the browser), escpos (raw bytes for a thermal printer) or text
+    @GetMapping("/{id}/receipt")
+    public ResponseEntity<byte[]> getReceipt(@PathVariable Long id, @RequestParam(defaultValue = "pdf") String format,
+                                             @RequestAttribute(OutletScope.ATTRIBUTE) String outlet) {
+        return send(id, outlet, ReceiptService.RECEIPT, format);
+    }
+
+    // ✅ Kitchen order ticket - same formats, no prices
+    @GetMapping("/{id}/kot")
+    public ResponseEntity<byte[]> getKot(@PathVariable Long id, @RequestParam(defaultValue = "pdf") String format,
+                                         @RequestAttribute(OutletScope.ATTRIBUTE) String outlet) {
+        return send(id, outlet, ReceiptService.KOT, format);
+    }
+
+    // ✅ Batch reprint: {"date":"2026-10-18"} for a day's paid bills, or {"orderIds":[...]}.
+    // One PDF with a page per bill, or one ESC/POS stream with a cut after each.
+    @PostMapping("/receipts/batch")
+    public void reprint(@RequestBody ReceiptBatchRequest request, @RequestAttribute(OutletScope.ATTRIBUTE) String outlet,
+                        HttpServletResponse response) throws IOException {
+        try {
+            ReceiptService.checkKind(request.getKind());
+            ReceiptService.checkFormat(request.getFormat());
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return;
+        }
+        String fileName = request.getKind() + "s" + (request.getDate() != null ? "-" + request.getDate() : "")
+            + "." + extension(request.getFormat());
+        response.setContentType(contentType(request.getFormat()).toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment().filename(fileName).build().toString());
+        try {
+            receiptService.writeBatch(request, outlet, response.getOutputStream());
+        } catch (IllegalArgumentException e) {
+            // thrown before anything is written
+            response.reset();
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    private ResponseEntity<byte[]> send(Long id, String outlet, String kind, String format) {
+        try {
+            byte[] body = receiptService.render(id, outlet, kind, format);
+            return ResponseEntity.ok()
+                .contentType(contentType(format))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                    ContentDisposition.inline().filename(kind + "-" + id + "." + extension(format)).build().toString())
+                .body(body);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    private static MediaType contentType(String format) {
+        return switch (format) {
+            case ReceiptService.PDF -> MediaType.APPLICATION_PDF;
+            case ReceiptService.TEXT -> new MediaType("text", "plain", StandardCharsets.US_ASCII);
+            default -> MediaType.APPLICATION_OCTET_STREAM;
+        };
+    }
+
+    private static String extension(String format) {
+        return switch (format) {
+            case ReceiptService.PDF -> "pdf";
+            case ReceiptService.TEXT -> "txt";
+            default -> "bin";
+        };
+    }
+}
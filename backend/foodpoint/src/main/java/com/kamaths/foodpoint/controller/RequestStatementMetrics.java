@@ -0,0 +1,54 @@
+package com.kamaths.foodpoint.controller;
+
+import com.kamaths.foodpoint.repository.JdbcStatementMetrics;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// ✅ JDBC statements per API request, by endpoint - catches N+1 regressions on a dashboard
+@Component
+public class RequestStatementMetrics implements AsyncHandlerInterceptor, WebMvcConfigurer {
+    
+    private final JdbcStatementMetrics statementMetrics;
+    private final MeterRegistry meterRegistry;
+    
+    public RequestStatementMetrics(JdbcStatementMetrics statementMetrics, MeterRegistry meterRegistry) {
+        this.statementMetrics = statementMetrics;
+        this.meterRegistry = meterRegistry;
+    }
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this).addPathPatterns("/api/**");
+    }
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        statementMetrics.startCounting();
+        return true;
+    }
+    
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        int statements = statementMetrics.stopCounting();
+        Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder("http.server.requests.jdbc.statements")
+            .description("JDBC statements run while handling a request")
+            .tag("method", request.getMethod())
+            .tag("uri", uri != null ? uri.toString() : "UNKNOWN")
+            .register(meterRegistry)
+            .record(statements);
+    }
+    
+    // Streaming responses (SSE) finish on other threads; stop counting on this one
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        statementMetrics.stopCounting();
+    }
+}
@@ -1,57 +1,127 @@
 package com.kamaths.foodpoint.controller;
 
+import com.kamaths.foodpoint.dto.CursorPage;
+import com.kamaths.foodpoint.dto.OutletSalesReport;
+import com.kamaths.foodpoint.dto.SalesBucket;
+import com.kamaths.foodpoint.dto.SalesReport;
 import com.kamaths.foodpoint.entity.Sale;
+import com.kamaths.foodpoint.service.ExportService;
 import com.kamaths.foodpoint.service.SalesService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDateTime;
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/sales")
 @CrossOrigin(origins = "http://localhost:5173")
 public class SalesController {
     
+    private static final int MAX_PAGE_SIZE = 500;
+    
     private final SalesService salesService;
+    private final ExportService exportService;
     
-    public SalesController(SalesService salesService) {
+    public SalesController(SalesService salesService, ExportService exportService) {
         this.salesService = salesService;
+        this.exportService = exportService;
     }
     
     // ✅ Today's sales
     @GetMapping("/today")
-    public ResponseEntity<Double> getTodaySales() {
-        return ResponseEntity.ok(salesService.getTodaySales());
+    public ResponseEntity<Double> getTodaySales(@RequestAttribute(OutletScope.ATTRIBUTE) String outlet) {
+        return ResponseEntity.ok(salesService.getTodaySales(outlet));
     }
     
     // ✅ Total lifetime sales
     @GetMapping("/total")
-    public ResponseEntity<Double> getTotalSales() {
-        return ResponseEntity.ok(salesService.getTotalSales());
+    public ResponseEntity<Double> getTotalSales(@RequestAttribute(OutletScope.ATTRIBUTE) String outlet) {
+        return ResponseEntity.ok(salesService.getTotalSales(outlet));
     }
     
     // ✅ Monthly sales
     @GetMapping("/monthly")
-    public ResponseEntity<Double> getMonthlySales() {
-        return ResponseEntity.ok(salesService.getMonthlySales());
+    public ResponseEntity<Double> getMonthlySales(@RequestAttribute(OutletScope.ATTRIBUTE) String outlet) {
+        return ResponseEntity.ok(salesService.getMonthlySales(outlet));
     }
     
     // ✅ Recent sales (last 50 for charts)
     @GetMapping("/recent")
-    public ResponseEntity<List<Sale>> getRecentSales() {
-        return ResponseEntity.ok(salesService.getRecentSales(50));
+    public ResponseEntity<List<Sale>> getRecentSales(@RequestAttribute(OutletScope.ATTRIBUTE) String outlet) {
+        return ResponseEntity.ok(salesService.getRecentSales(50, outlet));
     }
     
-    // ✅ All sales
+    // ✅ All sales - keyset paged, pass nextCursor back to get the following page
     @GetMapping
-    public ResponseEntity<List<Sale>> getAllSales() {
-        return ResponseEntity.ok(salesService.getRecentSales(100));
+    public ResponseEntity<CursorPage<Sale>> getAllSales(@RequestParam(required = false) String cursor,
+                                                        @RequestParam(defaultValue = "100") int size,
+                                                        @RequestAttribute(OutletScope.ATTRIBUTE) String outlet) {
+        try {
+            int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+            return ResponseEntity.ok(salesService.getSalesPage(cursor, pageSize, outlet));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // ✅ Accounting export - streamed row by row, e.g. ?from=2025-04-01&to=2026-03-31&format=csv&gzip=true
+    @GetMapping("/export")
+    public void exportSales(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                            @RequestParam(defaultValue = "csv") String format,
+                            @RequestParam(defaultValue = "false") boolean gzip,
+                            @RequestAttribute(OutletScope.ATTRIBUTE) String outlet,
+                            HttpServletResponse response) throws IOException {
+        ExportResponses.send(response, "sales", from, to, format, gzip,
+            out -> exportService.exportSales(from, to, outlet, format, out));
     }
     
-    // ✅ Weekly trend data
+    // ✅ In-memory totals (all outlets) vs database - read-only
+    @GetMapping("/consistency")
+    public ResponseEntity<Map<String, Object>> checkConsistency() {
+        return ResponseEntity.ok(salesService.checkConsistency());
+    }
+    
+    // ✅ Rebuilds the rollup and totals from the sales rows (blocks sales while it runs), then re-checks
+    @PostMapping("/rollup/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildRollup() {
+        salesService.rebuildRollup();
+        return ResponseEntity.ok(salesService.checkConsistency());
+    }
+    
+    // ✅ Weekly trend data - last 7 days, newest first
     @GetMapping("/trend")
-    public ResponseEntity<List<Object[]>> getWeeklyTrend() {
-        return ResponseEntity.ok(salesService.getWeeklySalesTrend());
+    public ResponseEntity<List<SalesBucket>> getWeeklyTrend(@RequestAttribute(OutletScope.ATTRIBUTE) String outlet) {
+        return ResponseEntity.ok(salesService.getWeeklySalesTrend(outlet));
+    }
+    
+    // ✅ Date-range report (inclusive), per day or per month, e.g. ?from=2025-04-01&to=2026-03-31&period=month
+    @GetMapping("/report")
+    public ResponseEntity<SalesReport> getReport(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                 @RequestParam(defaultValue = "day") String period,
+                                                 @RequestAttribute(OutletScope.ATTRIBUTE) String outlet) {
+        try {
+            return ResponseEntity.ok(salesService.getReport(from, to, period, outlet));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // ✅ Every outlet side by side plus the combined total - same parameters as /report, no X-Outlet
+    @GetMapping("/outlets/report")
+    public ResponseEntity<OutletSalesReport> getOutletReport(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                             @RequestParam(defaultValue = "day") String period) {
+        try {
+            return ResponseEntity.ok(salesService.getOutletReport(from, to, period));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 }
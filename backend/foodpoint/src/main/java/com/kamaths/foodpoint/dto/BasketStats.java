@@ -0,0 +1,35 @@
+package com.kamaths.foodpoint.dto;
+
+import com.kamaths.foodpoint.pricing.Money;
+
+// Average basket over a date range
+public class BasketStats {
+    private long orders;
+    private long items;
+    private long revenuePaise;
+    
+    public BasketStats() {}
+    
+    public BasketStats(long orders, long items, long revenuePaise) {
+        this.orders = orders;
+        this.items = items;
+        this.revenuePaise = revenuePaise;
+    }
+    
+    public long getOrders() { return orders; }
+    public void setOrders(long orders) { this.orders = orders; }
+    
+    public long getItems() { return items; }
+    public void setItems(long items) { this.items = items; }
+    
+    public long getRevenuePaise() { return revenuePaise; }
+    public void setRevenuePaise(long revenuePaise) { this.revenuePaise = revenuePaise; }
+    
+    public double getRevenue() { return Money.toRupees(revenuePaise); }
+    
+    public long getAverageBasketPaise() { return orders > 0 ? Math.round((double) revenuePaise / orders) : 0; }
+    
+    public double getAverageBasket() { return Money.toRupees(getAverageBasketPaise()); }
+    
+    public double getAverageItems() { return orders > 0 ? (double) items / orders : 0; }
+}
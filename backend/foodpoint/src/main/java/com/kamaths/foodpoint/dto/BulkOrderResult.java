@@ -0,0 +1,42 @@
+package com.kamaths.foodpoint.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// One line of the bulk import response, in the same order as the request lines
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkOrderResult {
+    public static final String CREATED = "created";
+    public static final String DUPLICATE = "duplicate";
+    public static final String INVALID = "invalid";
+    
+    private int line;
+    private String idempotencyKey;
+    private String status;
+    private Long orderId;
+    private String error;
+    
+    public BulkOrderResult() {}
+    
+    public BulkOrderResult(int line, String idempotencyKey, String status, Long orderId, String error) {
+        this.line = line;
+        this.idempotencyKey = idempotencyKey;
+        this.status = status;
+        this.orderId = orderId;
+        this.error = error;
+    }
+    
+    public int getLine() { return line; }
+    public void setLine(int line) { this.line = line; }
+    
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public void setIdempotencyKey(String idempotencyKey) { this.idempotencyKey = idempotencyKey; }
+    
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+    
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
@@ -0,0 +1,28 @@
+package com.kamaths.foodpoint.dto;
+
+import com.kamaths.foodpoint.pricing.Money;
+
+public class CategorySales {
+    private String category;
+    private long quantity;
+    private long revenuePaise;
+    
+    public CategorySales() {}
+    
+    public CategorySales(String category, long quantity, long revenuePaise) {
+        this.category = category;
+        this.quantity = quantity;
+        this.revenuePaise = revenuePaise;
+    }
+    
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+    
+    public long getQuantity() { return quantity; }
+    public void setQuantity(long quantity) { this.quantity = quantity; }
+    
+    public long getRevenuePaise() { return revenuePaise; }
+    public void setRevenuePaise(long revenuePaise) { this.revenuePaise = revenuePaise; }
+    
+    public double getRevenue() { return Money.toRupees(revenuePaise); }
+}
@@ -3,10 +3,13 @@ package com.kamaths.foodpoint.dto;
 import java.util.List;
 
 public class CreateOrderRequest {
+    private String idempotencyKey; // optional, set by tills replaying queued orders
+    private Long version; // optional on update: the version the till last saw
     private String customerName;
     private String customerPhone;
     private String paymentMethod;
     private String notes;
+    private String orderType; // dine-in (default) or takeaway
     private Double totalAmount;
     private List<OrderItemDto> orderItems;
     
@@ -14,6 +17,12 @@ public class CreateOrderRequest {
     public CreateOrderRequest() {}
     
     // Getters & Setters
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public void setIdempotencyKey(String idempotencyKey) { this.idempotencyKey = idempotencyKey; }
+    
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    
     public String getCustomerName() { return customerName; }
     public void setCustomerName(String customerName) { this.customerName = customerName; }
     
@@ -26,6 +35,9 @@ public class CreateOrderRequest {
     public String getNotes() { return notes; }
     public void setNotes(String notes) { this.notes = notes; }
     
+    public String getOrderType() { return orderType; }
+    public void setOrderType(String orderType) { this.orderType = orderType; }
+    
     public Double getTotalAmount() { return totalAmount; }
     public void setTotalAmount(Double totalAmount) { this.totalAmount = totalAmount; }
     
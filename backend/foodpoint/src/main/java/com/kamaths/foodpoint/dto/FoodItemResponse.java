@@ -0,0 +1,35 @@
+package com.kamaths.foodpoint.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.kamaths.foodpoint.entity.FoodItem;
+import com.kamaths.foodpoint.pricing.Money;
+
+// Menu entry as the tills see it; image variants are left out until they exist
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FoodItemResponse {
+    private final Long id;
+    private final String name;
+    private final String category;
+    private final double price;
+    private final String imageUrl;
+    private final String thumbnailUrl;
+    private final String mediumUrl;
+    
+    public FoodItemResponse(FoodItem item) {
+        this.id = item.getId();
+        this.name = item.getName();
+        this.category = item.getCategory();
+        this.price = Money.toRupees(item.getPricePaise());
+        this.imageUrl = item.getImageUrl();
+        this.thumbnailUrl = item.getThumbnailUrl();
+        this.mediumUrl = item.getMediumUrl();
+    }
+    
+    public Long getId() { return id; }
+    public String getName() { return name; }
+    public String getCategory() { return category; }
+    public double getPrice() { return price; }
+    public String getImageUrl() { return imageUrl; }
+    public String getThumbnailUrl() { return thumbnailUrl; }
+    public String getMediumUrl() { return mediumUrl; }
+}
@@ -0,0 +1,39 @@
+package com.kamaths.foodpoint.dto;
+
+import com.kamaths.foodpoint.pricing.Money;
+
+import java.time.DayOfWeek;
+
+// Orders and revenue for one weekday/hour slot, summed over the report range
+public class HeatmapCell {
+    private DayOfWeek dayOfWeek;
+    private int hour;
+    private long orders;
+    private long revenuePaise;
+    
+    public HeatmapCell() {}
+    
+    public HeatmapCell(DayOfWeek dayOfWeek, int hour) {
+        this.dayOfWeek = dayOfWeek;
+        this.hour = hour;
+    }
+    
+    public void add(long orders, long revenuePaise) {
+        this.orders += orders;
+        this.revenuePaise += revenuePaise;
+    }
+    
+    public DayOfWeek getDayOfWeek() { return dayOfWeek; }
+    public void setDayOfWeek(DayOfWeek dayOfWeek) { this.dayOfWeek = dayOfWeek; }
+    
+    public int getHour() { return hour; }
+    public void setHour(int hour) { this.hour = hour; }
+    
+    public long getOrders() { return orders; }
+    public void setOrders(long orders) { this.orders = orders; }
+    
+    public long getRevenuePaise() { return revenuePaise; }
+    public void setRevenuePaise(long revenuePaise) { this.revenuePaise = revenuePaise; }
+    
+    public double getRevenue() { return Money.toRupees(revenuePaise); }
+}
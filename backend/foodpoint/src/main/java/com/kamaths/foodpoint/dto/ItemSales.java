@@ -0,0 +1,39 @@
+package com.kamaths.foodpoint.dto;
+
+import com.kamaths.foodpoint.pricing.Money;
+
+// One row of the best sellers list
+public class ItemSales {
+    private Long foodItemId;
+    private String itemName;
+    private String category;
+    private long quantity;
+    private long revenuePaise;
+    
+    public ItemSales() {}
+    
+    public ItemSales(Long foodItemId, String itemName, String category, long quantity, long revenuePaise) {
+        this.foodItemId = foodItemId;
+        this.itemName = itemName;
+        this.category = category;
+        this.quantity = quantity;
+        this.revenuePaise = revenuePaise;
+    }
+    
+    public Long getFoodItemId() { return foodItemId; }
+    public void setFoodItemId(Long foodItemId) { this.foodItemId = foodItemId; }
+    
+    public String getItemName() { return itemName; }
+    public void setItemName(String itemName) { this.itemName = itemName; }
+    
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+    
+    public long getQuantity() { return quantity; }
+    public void setQuantity(long quantity) { this.quantity = quantity; }
+    
+    public long getRevenuePaise() { return revenuePaise; }
+    public void setRevenuePaise(long revenuePaise) { this.revenuePaise = revenuePaise; }
+    
+    public double getRevenue() { return Money.toRupees(revenuePaise); }
+}
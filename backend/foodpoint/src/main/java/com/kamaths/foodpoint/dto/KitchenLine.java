@@ -0,0 +1,15 @@
+package com.kamaths.foodpoint.dto;
+
+// One item on a kitchen ticket - no prices, the kitchen only needs what to cook
+public class KitchenLine {
+    private final String itemName;
+    private final int quantity;
+    
+    public KitchenLine(String itemName, int quantity) {
+        this.itemName = itemName;
+        this.quantity = quantity;
+    }
+    
+    public String getItemName() { return itemName; }
+    public int getQuantity() { return quantity; }
+}
@@ -0,0 +1,21 @@
+package com.kamaths.foodpoint.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// The whole kitchen board at one point in time; version goes up with every change
+public class KitchenQueueSnapshot {
+    private final long version;
+    private final LocalDateTime generatedAt;
+    private final List<KitchenStation> stations;
+    
+    public KitchenQueueSnapshot(long version, LocalDateTime generatedAt, List<KitchenStation> stations) {
+        this.version = version;
+        this.generatedAt = generatedAt;
+        this.stations = stations;
+    }
+    
+    public long getVersion() { return version; }
+    public LocalDateTime getGeneratedAt() { return generatedAt; }
+    public List<KitchenStation> getStations() { return stations; }
+}
@@ -0,0 +1,17 @@
+package com.kamaths.foodpoint.dto;
+
+import java.util.List;
+
+// One station's board: preparing first, then queued in priority order, then ready for pickup
+public class KitchenStation {
+    private final String name;
+    private final List<KitchenTicket> tickets;
+    
+    public KitchenStation(String name, List<KitchenTicket> tickets) {
+        this.name = name;
+        this.tickets = tickets;
+    }
+    
+    public String getName() { return name; }
+    public List<KitchenTicket> getTickets() { return tickets; }
+}
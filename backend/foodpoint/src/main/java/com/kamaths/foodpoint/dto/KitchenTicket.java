@@ -0,0 +1,57 @@
+package com.kamaths.foodpoint.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// The part of an order one station has to cook, with where it stands and when it should be done
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class KitchenTicket {
+    public static final String QUEUED = "queued";
+    public static final String PREPARING = "preparing";
+    public static final String READY = "ready";
+    
+    private final Long orderId;
+    private final String station;
+    private final String status;
+    private final String orderType;
+    private final String customerName;
+    private final String notes;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime startedAt;
+    private final LocalDateTime readyAt;
+    private final long estimatedPrepSeconds;
+    private final LocalDateTime estimatedReadyAt;
+    private final List<KitchenLine> lines;
+    
+    public KitchenTicket(Long orderId, String station, String status, String orderType, String customerName,
+                         String notes, LocalDateTime createdAt, LocalDateTime startedAt, LocalDateTime readyAt,
+                         long estimatedPrepSeconds, LocalDateTime estimatedReadyAt, List<KitchenLine> lines) {
+        this.orderId = orderId;
+        this.station = station;
+        this.status = status;
+        this.orderType = orderType;
+        this.customerName = customerName;
+        this.notes = notes;
+        this.createdAt = createdAt;
+        this.startedAt = startedAt;
+        this.readyAt = readyAt;
+        this.estimatedPrepSeconds = estimatedPrepSeconds;
+        this.estimatedReadyAt = estimatedReadyAt;
+        this.lines = lines;
+    }
+    
+    public Long getOrderId() { return orderId; }
+    public String getStation() { return station; }
+    public String getStatus() { return status; }
+    public String getOrderType() { return orderType; }
+    public String getCustomerName() { return customerName; }
+    public String getNotes() { return notes; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public LocalDateTime getReadyAt() { return readyAt; }
+    public long getEstimatedPrepSeconds() { return estimatedPrepSeconds; }
+    public LocalDateTime getEstimatedReadyAt() { return estimatedReadyAt; }
+    public List<KitchenLine> getLines() { return lines; }
+}
@@ -1,8 +1,10 @@
 package com.kamaths.foodpoint.dto;
 
 public class OrderItemDto {
+    private Long foodItemId; // menu item, priced server-side
     private String itemName;
     private Double price;
+    private Long pricePaise; // optional, wins over price when sent
     private Integer quantity;
     
     // Default constructor
@@ -16,12 +18,18 @@ public class OrderItemDto {
     }
     
     // Getters & Setters
+    public Long getFoodItemId() { return foodItemId; }
+    public void setFoodItemId(Long foodItemId) { this.foodItemId = foodItemId; }
+    
     public String getItemName() { return itemName; }
     public void setItemName(String itemName) { this.itemName = itemName; }
     
     public Double getPrice() { return price; }
     public void setPrice(Double price) { this.price = price; }
     
+    public Long getPricePaise() { return pricePaise; }
+    public void setPricePaise(Long pricePaise) { this.pricePaise = pricePaise; }
+    
     public Integer getQuantity() { return quantity; }
     public void setQuantity(Integer quantity) { this.quantity = quantity; }
 }
@@ -0,0 +1,21 @@
+package com.kamaths.foodpoint.dto;
+
+public class OrderLineChange {
+    private Integer line; // 0-based position in orderItems
+    private Integer quantity; // 0 removes the line
+    
+    // Default constructor
+    public OrderLineChange() {}
+    
+    public OrderLineChange(Integer line, Integer quantity) {
+        this.line = line;
+        this.quantity = quantity;
+    }
+    
+    // Getters & Setters
+    public Integer getLine() { return line; }
+    public void setLine(Integer line) { this.line = line; }
+    
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+}
@@ -0,0 +1,31 @@
+package com.kamaths.foodpoint.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.kamaths.foodpoint.entity.OrderItem;
+import com.kamaths.foodpoint.pricing.Money;
+
+// One line of an order as the tills see it; foodItemId is left out for manually entered items
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderLineResponse {
+    private final Long foodItemId;
+    private final String itemName;
+    private final double price;
+    private final int quantity;
+    
+    public OrderLineResponse(Long foodItemId, String itemName, double price, int quantity) {
+        this.foodItemId = foodItemId;
+        this.itemName = itemName;
+        this.price = price;
+        this.quantity = quantity;
+    }
+    
+    public static OrderLineResponse from(OrderItem item) {
+        return new OrderLineResponse(item.getFoodItemId(), item.getItemName(),
+            Money.toRupees(item.getPricePaise()), item.getQuantity());
+    }
+    
+    public Long getFoodItemId() { return foodItemId; }
+    public String getItemName() { return itemName; }
+    public double getPrice() { return price; }
+    public int getQuantity() { return quantity; }
+}
@@ -0,0 +1,49 @@
+package com.kamaths.foodpoint.dto;
+
+import java.util.List;
+
+// ✅ PATCH /api/orders/{id} - only what changed. Null fields are left as they are.
+// Lines are addressed by their position as last returned; changes and removals
+// refer to those positions, added lines go on the end.
+public class OrderPatchRequest {
+    private Long version; // optional: the version the till last saw
+    private String customerName;
+    private String customerPhone;
+    private String paymentMethod;
+    private String notes;
+    private String orderType;
+    private List<OrderLineChange> change;
+    private List<Integer> remove;
+    private List<OrderItemDto> add;
+    
+    // Default constructor
+    public OrderPatchRequest() {}
+    
+    // Getters & Setters
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    
+    public String getCustomerName() { return customerName; }
+    public void setCustomerName(String customerName) { this.customerName = customerName; }
+    
+    public String getCustomerPhone() { return customerPhone; }
+    public void setCustomerPhone(String customerPhone) { this.customerPhone = customerPhone; }
+    
+    public String getPaymentMethod() { return paymentMethod; }
+    public void setPaymentMethod(String paymentMethod) { this.paymentMethod = paymentMethod; }
+    
+    public String getNotes() { return notes; }
+    public void setNotes(String notes) { this.notes = notes; }
+    
+    public String getOrderType() { return orderType; }
+    public void setOrderType(String orderType) { this.orderType = orderType; }
+    
+    public List<OrderLineChange> getChange() { return change; }
+    public void setChange(List<OrderLineChange> change) { this.change = change; }
+    
+    public List<Integer> getRemove() { return remove; }
+    public void setRemove(List<Integer> remove) { this.remove = remove; }
+    
+    public List<OrderItemDto> getAdd() { return add; }
+    public void setAdd(List<OrderItemDto> add) { this.add = add; }
+}
@@ -0,0 +1,63 @@
+package com.kamaths.foodpoint.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.kamaths.foodpoint.entity.Order;
+import com.kamaths.foodpoint.pricing.Money;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// What the order endpoints send back instead of the JPA entity: only the fields the
+// tills read, empty ones left out. Field names match the old entity JSON.
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class OrderResponse {
+    private final Long id;
+    private final long version;
+    private final String status;
+    private final String customerName;
+    private final String customerPhone;
+    private final String paymentMethod;
+    private final String notes;
+    private final String orderType;
+    private final LocalDateTime createdAt;
+    private final double totalAmount;
+    private final List<OrderLineResponse> orderItems;
+    
+    public OrderResponse(Order order) {
+        this.id = order.getId();
+        this.version = order.getVersion();
+        this.status = order.getStatus();
+        this.customerName = order.getCustomerName();
+        this.customerPhone = emptyToNull(order.getCustomerPhone());
+        this.paymentMethod = order.getPaymentMethod();
+        this.notes = emptyToNull(order.getNotes());
+        this.orderType = order.getOrderType();
+        this.createdAt = order.getCreatedAt();
+        this.totalAmount = Money.toRupees(order.getTotalAmountPaise());
+        this.orderItems = new ArrayList<>(order.getOrderItems().size());
+        order.getOrderItems().forEach(item -> orderItems.add(OrderLineResponse.from(item)));
+    }
+    
+    public static List<OrderResponse> fromAll(List<Order> orders) {
+        List<OrderResponse> responses = new ArrayList<>(orders.size());
+        orders.forEach(order -> responses.add(new OrderResponse(order)));
+        return responses;
+    }
+    
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+    
+    public Long getId() { return id; }
+    public long getVersion() { return version; }
+    public String getStatus() { return status; }
+    public String getCustomerName() { return customerName; }
+    public String getCustomerPhone() { return customerPhone; }
+    public String getPaymentMethod() { return paymentMethod; }
+    public String getNotes() { return notes; }
+    public String getOrderType() { return orderType; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public double getTotalAmount() { return totalAmount; }
+    public List<OrderLineResponse> getOrderItems() { return orderItems; }
+}
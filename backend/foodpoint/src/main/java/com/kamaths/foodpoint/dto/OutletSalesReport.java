@@ -0,0 +1,22 @@
+package com.kamaths.foodpoint.dto;
+
+import java.util.Map;
+
+// All outlets' sales over one range: their sum, and each outlet's report (in app.outlets order)
+public class OutletSalesReport {
+    private SalesReport combined;
+    private Map<String, SalesReport> outlets;
+    
+    public OutletSalesReport() {}
+    
+    public OutletSalesReport(SalesReport combined, Map<String, SalesReport> outlets) {
+        this.combined = combined;
+        this.outlets = outlets;
+    }
+    
+    public SalesReport getCombined() { return combined; }
+    public void setCombined(SalesReport combined) { this.combined = combined; }
+    
+    public Map<String, SalesReport> getOutlets() { return outlets; }
+    public void setOutlets(Map<String, SalesReport> outlets) { this.outlets = outlets; }
+}
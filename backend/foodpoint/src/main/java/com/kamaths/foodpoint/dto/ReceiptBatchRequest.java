@@ -0,0 +1,29 @@
+package com.kamaths.foodpoint.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// ✅ POST /api/orders/receipts/batch - either orderIds (printed in that order)
+// or a date (that day's paid orders, oldest first)
+public class ReceiptBatchRequest {
+    private List<Long> orderIds;
+    private LocalDate date;
+    private String kind = "receipt"; // receipt or kot
+    private String format = "pdf"; // pdf, escpos or text
+
+    // Default constructor
+    public ReceiptBatchRequest() {}
+
+    // Getters & Setters
+    public List<Long> getOrderIds() { return orderIds; }
+    public void setOrderIds(List<Long> orderIds) { this.orderIds = orderIds; }
+
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+
+    public String getKind() { return kind; }
+    public void setKind(String kind) { this.kind = kind; }
+
+    public String getFormat() { return format; }
+    public void setFormat(String format) { this.format = format; }
+}
@@ -0,0 +1,31 @@
+package com.kamaths.foodpoint.dto;
+
+import com.kamaths.foodpoint.pricing.Money;
+
+import java.time.LocalDate;
+
+// Sales for one day or one month of a report
+public class SalesBucket {
+    private LocalDate start;
+    private long amountPaise;
+    private long saleCount;
+    
+    public SalesBucket() {}
+    
+    public SalesBucket(LocalDate start, long amountPaise, long saleCount) {
+        this.start = start;
+        this.amountPaise = amountPaise;
+        this.saleCount = saleCount;
+    }
+    
+    public LocalDate getStart() { return start; }
+    public void setStart(LocalDate start) { this.start = start; }
+    
+    public long getAmountPaise() { return amountPaise; }
+    public void setAmountPaise(long amountPaise) { this.amountPaise = amountPaise; }
+    
+    public double getAmount() { return Money.toRupees(amountPaise); }
+    
+    public long getSaleCount() { return saleCount; }
+    public void setSaleCount(long saleCount) { this.saleCount = saleCount; }
+}
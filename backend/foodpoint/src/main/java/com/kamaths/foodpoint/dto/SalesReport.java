@@ -0,0 +1,49 @@
+package com.kamaths.foodpoint.dto;
+
+import com.kamaths.foodpoint.pricing.Money;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Sales between two dates (inclusive), with one bucket per day or month - empty ones included
+public class SalesReport {
+    private LocalDate from;
+    private LocalDate to;
+    private String period;
+    private long amountPaise;
+    private long saleCount;
+    private List<SalesBucket> buckets;
+    
+    public SalesReport() {}
+    
+    public SalesReport(LocalDate from, LocalDate to, String period, List<SalesBucket> buckets) {
+        this.from = from;
+        this.to = to;
+        this.period = period;
+        this.buckets = buckets;
+        for (SalesBucket bucket : buckets) {
+            amountPaise += bucket.getAmountPaise();
+            saleCount += bucket.getSaleCount();
+        }
+    }
+    
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+    
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+    
+    public String getPeriod() { return period; }
+    public void setPeriod(String period) { this.period = period; }
+    
+    public long getAmountPaise() { return amountPaise; }
+    public void setAmountPaise(long amountPaise) { this.amountPaise = amountPaise; }
+    
+    public double getAmount() { return Money.toRupees(amountPaise); }
+    
+    public long getSaleCount() { return saleCount; }
+    public void setSaleCount(long saleCount) { this.saleCount = saleCount; }
+    
+    public List<SalesBucket> getBuckets() { return buckets; }
+    public void setBuckets(List<SalesBucket> buckets) { this.buckets = buckets; }
+}
@@ -0,0 +1,43 @@
+package com.kamaths.foodpoint.entity;
+
+import com.kamaths.foodpoint.pricing.Money;
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+// ✅ One row per outlet per trading day - reports read this instead of scanning sales
+@Entity
+@Table(name = "daily_sales_rollup")
+public class DailySalesRollup {
+    @EmbeddedId
+    private DailySalesRollupId id;
+    
+    @Column(name = "amount_paise", nullable = false)
+    private long amountPaise;
+    
+    @Column(name = "sale_count", nullable = false)
+    private long saleCount;
+    
+    // Constructors
+    public DailySalesRollup() {}
+    
+    public DailySalesRollup(String outlet, LocalDate salesDate, long amountPaise, long saleCount) {
+        this.id = new DailySalesRollupId(outlet, salesDate);
+        this.amountPaise = amountPaise;
+        this.saleCount = saleCount;
+    }
+    
+    // Getters & Setters
+    public DailySalesRollupId getId() { return id; }
+    public void setId(DailySalesRollupId id) { this.id = id; }
+    
+    public String getOutlet() { return id.getOutlet(); }
+    public LocalDate getSalesDate() { return id.getSalesDate(); }
+    
+    public long getAmountPaise() { return amountPaise; }
+    public void setAmountPaise(long amountPaise) { this.amountPaise = amountPaise; }
+    
+    public double getAmount() { return Money.toRupees(amountPaise); }
+    
+    public long getSaleCount() { return saleCount; }
+    public void setSaleCount(long saleCount) { this.saleCount = saleCount; }
+}
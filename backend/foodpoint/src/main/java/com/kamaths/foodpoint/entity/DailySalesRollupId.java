@@ -0,0 +1,39 @@
+package com.kamaths.foodpoint.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+@Embeddable
+public class DailySalesRollupId implements Serializable {
+    @Column(length = 40)
+    private String outlet;
+    
+    @Column(name = "sales_date")
+    private LocalDate salesDate;
+    
+    public DailySalesRollupId() {}
+    
+    public DailySalesRollupId(String outlet, LocalDate salesDate) {
+        this.outlet = outlet;
+        this.salesDate = salesDate;
+    }
+    
+    public String getOutlet() { return outlet; }
+    public LocalDate getSalesDate() { return salesDate; }
+    
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof DailySalesRollupId other
+            && Objects.equals(outlet, other.outlet)
+            && Objects.equals(salesDate, other.salesDate);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(outlet, salesDate);
+    }
+}
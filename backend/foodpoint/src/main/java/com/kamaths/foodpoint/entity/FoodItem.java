@@ -1,5 +1,6 @@
 package com.kamaths.foodpoint.entity;
 
+import com.kamaths.foodpoint.pricing.Money;
 import jakarta.persistence.*;
 import lombok.Data;
 import java.time.LocalDateTime;
@@ -12,17 +13,33 @@ public class FoodItem {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     
+    // Each outlet has its own menu and prices
+    @Column(nullable = false, length = 40)
+    private String outlet = Order.DEFAULT_OUTLET;
+    
     @Column(nullable = false)
     private String name;
     
     @Column(nullable = false)
     private String category;
     
-    @Column(nullable = false)
-    private Double price;
+    // ✅ Stored as paise - exact, no boxing
+    @Column(name = "price_paise", nullable = false, columnDefinition = "bigint default 0")
+    private long pricePaise;
     
     private String imageUrl;
     
+    // ✅ Resized copies for the menu grid / detail view; null until processing finishes,
+    // clients fall back to imageUrl
+    private String thumbnailUrl;
+    
+    private String mediumUrl;
+    
     @Column(nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
+    
+    // Rupees for the JSON clients
+    public double getPrice() {
+        return Money.toRupees(pricePaise);
+    }
 }
@@ -0,0 +1,61 @@
+package com.kamaths.foodpoint.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+// ✅ Orders, items and revenue per hour of each day - heatmap and basket size
+@Entity
+@Table(name = "hourly_sales_fact")
+public class HourlySalesFact implements Persistable<HourlySalesFactId> {
+    @EmbeddedId
+    private HourlySalesFactId id;
+    
+    @Column(name = "order_count", nullable = false)
+    private long orderCount;
+    
+    @Column(name = "item_count", nullable = false)
+    private long itemCount;
+    
+    @Column(name = "revenue_paise", nullable = false)
+    private long revenuePaise;
+    
+    // Assigned ids: tells save() to INSERT new rows instead of SELECT-then-merge
+    @Transient
+    private boolean isNew = true;
+    
+    // Constructors
+    public HourlySalesFact() {}
+    
+    public HourlySalesFact(HourlySalesFactId id) {
+        this.id = id;
+    }
+    
+    public void add(long orderCount, long itemCount, long revenuePaise) {
+        this.orderCount += orderCount;
+        this.itemCount += itemCount;
+        this.revenuePaise += revenuePaise;
+    }
+    
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+    
+    @Override
+    public boolean isNew() { return isNew; }
+    
+    // Getters & Setters
+    @Override
+    public HourlySalesFactId getId() { return id; }
+    public void setId(HourlySalesFactId id) { this.id = id; }
+    
+    public long getOrderCount() { return orderCount; }
+    public void setOrderCount(long orderCount) { this.orderCount = orderCount; }
+    
+    public long getItemCount() { return itemCount; }
+    public void setItemCount(long itemCount) { this.itemCount = itemCount; }
+    
+    public long getRevenuePaise() { return revenuePaise; }
+    public void setRevenuePaise(long revenuePaise) { this.revenuePaise = revenuePaise; }
+}
@@ -0,0 +1,45 @@
+package com.kamaths.foodpoint.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+@Embeddable
+public class HourlySalesFactId implements Serializable {
+    @Column(length = 40)
+    private String outlet;
+    
+    @Column(name = "sales_date")
+    private LocalDate salesDate;
+    
+    @Column(name = "sales_hour")
+    private int salesHour; // 0-23
+    
+    public HourlySalesFactId() {}
+    
+    public HourlySalesFactId(String outlet, LocalDate salesDate, int salesHour) {
+        this.outlet = outlet;
+        this.salesDate = salesDate;
+        this.salesHour = salesHour;
+    }
+    
+    public String getOutlet() { return outlet; }
+    public LocalDate getSalesDate() { return salesDate; }
+    public int getSalesHour() { return salesHour; }
+    
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof HourlySalesFactId other
+            && Objects.equals(outlet, other.outlet)
+            && salesHour == other.salesHour
+            && Objects.equals(salesDate, other.salesDate);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(outlet, salesDate, salesHour);
+    }
+}
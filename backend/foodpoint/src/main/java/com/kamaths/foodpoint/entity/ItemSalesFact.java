@@ -0,0 +1,74 @@
+package com.kamaths.foodpoint.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+// ✅ Units and revenue per item per day - analytics never re-read orders
+@Entity
+@Table(name = "item_sales_fact")
+public class ItemSalesFact implements Persistable<ItemSalesFactId> {
+    @EmbeddedId
+    private ItemSalesFactId id;
+    
+    private Long foodItemId; // null for manually entered items
+    
+    @Column(nullable = false)
+    private String itemName;
+    
+    @Column(nullable = false)
+    private String category;
+    
+    @Column(nullable = false)
+    private long quantity;
+    
+    @Column(name = "revenue_paise", nullable = false)
+    private long revenuePaise;
+    
+    // Assigned ids: tells save() to INSERT new rows instead of SELECT-then-merge
+    @Transient
+    private boolean isNew = true;
+    
+    // Constructors
+    public ItemSalesFact() {}
+    
+    public ItemSalesFact(ItemSalesFactId id, Long foodItemId, String itemName, String category) {
+        this.id = id;
+        this.foodItemId = foodItemId;
+        this.itemName = itemName;
+        this.category = category;
+    }
+    
+    public void add(long quantity, long revenuePaise) {
+        this.quantity += quantity;
+        this.revenuePaise += revenuePaise;
+    }
+    
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+    
+    @Override
+    public boolean isNew() { return isNew; }
+    
+    // Getters & Setters
+    @Override
+    public ItemSalesFactId getId() { return id; }
+    public void setId(ItemSalesFactId id) { this.id = id; }
+    
+    public Long getFoodItemId() { return foodItemId; }
+    public void setFoodItemId(Long foodItemId) { this.foodItemId = foodItemId; }
+    
+    public String getItemName() { return itemName; }
+    public void setItemName(String itemName) { this.itemName = itemName; }
+    
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+    
+    public long getQuantity() { return quantity; }
+    public void setQuantity(long quantity) { this.quantity = quantity; }
+    
+    public long getRevenuePaise() { return revenuePaise; }
+    public void setRevenuePaise(long revenuePaise) { this.revenuePaise = revenuePaise; }
+}
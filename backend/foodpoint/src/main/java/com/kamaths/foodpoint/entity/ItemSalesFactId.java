@@ -0,0 +1,46 @@
+package com.kamaths.foodpoint.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+@Embeddable
+public class ItemSalesFactId implements Serializable {
+    @Column(length = 40)
+    private String outlet;
+    
+    @Column(name = "sales_date")
+    private LocalDate salesDate;
+    
+    // "id:<foodItemId>" for menu items, "name:<lower-case name>" for manually entered ones
+    @Column(name = "item_key", length = 120)
+    private String itemKey;
+    
+    public ItemSalesFactId() {}
+    
+    public ItemSalesFactId(String outlet, LocalDate salesDate, String itemKey) {
+        this.outlet = outlet;
+        this.salesDate = salesDate;
+        this.itemKey = itemKey;
+    }
+    
+    public String getOutlet() { return outlet; }
+    public LocalDate getSalesDate() { return salesDate; }
+    public String getItemKey() { return itemKey; }
+    
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ItemSalesFactId other
+            && Objects.equals(outlet, other.outlet)
+            && Objects.equals(salesDate, other.salesDate)
+            && Objects.equals(itemKey, other.itemKey);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(outlet, salesDate, itemKey);
+    }
+}
@@ -1,31 +1,79 @@
 package com.kamaths.foodpoint.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.kamaths.foodpoint.pricing.Money;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", uniqueConstraints = @UniqueConstraint(
+        name = "ux_orders_outlet_idempotency_key", columnNames = {"outlet", "idempotency_key"}))
 public class Order {
+    public static final int ID_ALLOCATION_SIZE = 50;
+    public static final String DINE_IN = "dine-in";
+    public static final String TAKEAWAY = "takeaway";
+    // Outlet of rows recorded before outlets existed (V6 column default)
+    public static final String DEFAULT_OUTLET = "main";
+    
+    // ✅ Sequence ids (not IDENTITY) so bulk imports can batch their inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
     
+    // Client-supplied key so a till replaying its offline queue can't create an order twice.
+    // Unique per outlet (see the table constraint): each outlet's tills pick their own keys.
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+    
+    // ✅ Optimistic lock: an edit based on a stale read fails instead of overwriting another till
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private long version;
+    
+    // Outlet the order was taken at - leads the orders indexes
+    @Column(nullable = false, length = 40)
+    private String outlet = DEFAULT_OUTLET;
+    
     private String customerName;
     private String customerPhone;
     private String paymentMethod;
     private String notes;
-    private Double totalAmount;
+    
+    // dine-in or takeaway; null (older orders) counts as dine-in
+    @Column(name = "order_type", length = 20)
+    private String orderType;
+    
+    // ✅ Stored as paise - exact, no boxing
+    @Column(name = "total_amount_paise", columnDefinition = "bigint default 0")
+    private long totalAmountPaise;
     
     // ✅ FIXED: Initialize with ArrayList + ElementCollection
+    // ✅ Lazy collections of up to 50 orders are loaded in one IN (...) query instead of one each
+    // ✅ Indexed by line_no: changing, adding or removing one line writes one row, not the whole list.
+    // Mutate the list in place - replacing it with a new one deletes and re-inserts every line.
     @ElementCollection
+    @BatchSize(size = 50)
+    @OrderColumn(name = "line_no")
     @CollectionTable(name = "order_items", joinColumns = @JoinColumn(name = "order_id"))
     private List<OrderItem> orderItems = new ArrayList<>(); // ✅ INITIALIZED
     
     private LocalDateTime createdAt = LocalDateTime.now();
     private String status = "pending"; // pending, completed, cancelled
     
+    // ✅ Outbox flag: paid but its Sale row not written yet. Rows that predate it count as recorded.
+    @JsonIgnore
+    @Column(name = "sale_recorded", columnDefinition = "boolean default true")
+    private boolean saleRecorded;
+    
+    // Idempotency-Key of the payment call that moved it to paid, so that till's retries succeed
+    @JsonIgnore
+    @Column(name = "payment_key", length = 100)
+    private String paymentKey;
+    
     // ✅ SAFE Getter
     public List<OrderItem> getOrderItems() {
         if (orderItems == null) {
@@ -42,6 +90,15 @@ public class Order {
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
     
+    public String getIdempotencyKey() { return idempotencyKey; }
+    public void setIdempotencyKey(String idempotencyKey) { this.idempotencyKey = idempotencyKey; }
+    
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+    
+    public String getOutlet() { return outlet; }
+    public void setOutlet(String outlet) { this.outlet = outlet; }
+    
     public String getCustomerName() { return customerName; }
     public void setCustomerName(String customerName) { this.customerName = customerName; }
     
@@ -54,12 +111,26 @@ public class Order {
     public String getNotes() { return notes; }
     public void setNotes(String notes) { this.notes = notes; }
     
-    public Double getTotalAmount() { return totalAmount; }
-    public void setTotalAmount(Double totalAmount) { this.totalAmount = totalAmount; }
+    public String getOrderType() { return orderType; }
+    public void setOrderType(String orderType) { this.orderType = orderType; }
+    
+    public boolean isTakeaway() { return TAKEAWAY.equals(orderType); }
+    
+    public long getTotalAmountPaise() { return totalAmountPaise; }
+    public void setTotalAmountPaise(long totalAmountPaise) { this.totalAmountPaise = totalAmountPaise; }
+    
+    // Rupees for the JSON clients
+    public double getTotalAmount() { return Money.toRupees(totalAmountPaise); }
     
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
+    
+    public boolean isSaleRecorded() { return saleRecorded; }
+    
+    public String getPaymentKey() { return paymentKey; }
+    public void setPaymentKey(String paymentKey) { this.paymentKey = paymentKey; }
+    public void setSaleRecorded(boolean saleRecorded) { this.saleRecorded = saleRecorded; }
 }
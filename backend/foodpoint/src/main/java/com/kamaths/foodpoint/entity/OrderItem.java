@@ -1,20 +1,31 @@
 package com.kamaths.foodpoint.entity;
 
+import com.kamaths.foodpoint.pricing.Money;
 import jakarta.persistence.Embeddable;
 import jakarta.persistence.Column;
 
 @Embeddable
 public class OrderItem {
     private String itemName;
-    private Double price;
-    private Integer quantity;
+    private Long foodItemId; // null for manually entered items
+    
+    // ✅ Stored as paise - exact, no boxing
+    @Column(name = "price_paise", columnDefinition = "bigint default 0")
+    private long pricePaise;
+    
+    private int quantity;
     
     // Constructors
     public OrderItem() {}
     
-    public OrderItem(String itemName, Double price, Integer quantity) {
+    public OrderItem(String itemName, long pricePaise, int quantity) {
+        this(null, itemName, pricePaise, quantity);
+    }
+    
+    public OrderItem(Long foodItemId, String itemName, long pricePaise, int quantity) {
+        this.foodItemId = foodItemId;
         this.itemName = itemName;
-        this.price = price;
+        this.pricePaise = pricePaise;
         this.quantity = quantity;
     }
     
@@ -22,9 +33,15 @@ public class OrderItem {
     public String getItemName() { return itemName; }
     public void setItemName(String itemName) { this.itemName = itemName; }
     
-    public Double getPrice() { return price; }
-    public void setPrice(Double price) { this.price = price; }
+    public Long getFoodItemId() { return foodItemId; }
+    public void setFoodItemId(Long foodItemId) { this.foodItemId = foodItemId; }
+    
+    public long getPricePaise() { return pricePaise; }
+    public void setPricePaise(long pricePaise) { this.pricePaise = pricePaise; }
+    
+    // Rupees for the JSON clients
+    public double getPrice() { return Money.toRupees(pricePaise); }
     
-    public Integer getQuantity() { return quantity; }
-    public void setQuantity(Integer quantity) { this.quantity = quantity; }
-}
\ No newline at end of file
+    public int getQuantity() { return quantity; }
+    public void setQuantity(int quantity) { this.quantity = quantity; }
+}
@@ -1,17 +1,32 @@
 package com.kamaths.foodpoint.entity;
 
+import com.kamaths.foodpoint.pricing.Money;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "sales")
 public class Sale {
+    public static final int ID_ALLOCATION_SIZE = 50;
+    
+    // ✅ Sequence ids (not IDENTITY) so Hibernate can batch the inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sales_seq")
+    @SequenceGenerator(name = "sales_seq", sequenceName = "sales_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
     
-    @Column(nullable = false)
-    private Double amount;
+    // Order this sale was recorded for (null for sales recorded before orders were linked).
+    // Unique: an order is paid for once, however many times the till retried.
+    @Column(unique = true)
+    private Long orderId;
+    
+    // Copied from the order: per-outlet totals and pages never join orders
+    @Column(nullable = false, length = 40)
+    private String outlet = Order.DEFAULT_OUTLET;
+    
+    // ✅ Stored as paise - exact, no boxing
+    @Column(name = "amount_paise", nullable = false, columnDefinition = "bigint default 0")
+    private long amountPaise;
     
     @Column(nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
@@ -19,16 +34,31 @@ public class Sale {
     // Constructors
     public Sale() {}
     
-    public Sale(Double amount) {
-        this.amount = amount;
+    public Sale(long amountPaise) {
+        this.amountPaise = amountPaise;
+    }
+    
+    public Sale(Long orderId, long amountPaise, LocalDateTime createdAt) {
+        this.orderId = orderId;
+        this.amountPaise = amountPaise;
+        this.createdAt = createdAt;
     }
     
     // Getters & Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
     
-    public Double getAmount() { return amount; }
-    public void setAmount(Double amount) { this.amount = amount; }
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+    
+    public String getOutlet() { return outlet; }
+    public void setOutlet(String outlet) { this.outlet = outlet; }
+    
+    public long getAmountPaise() { return amountPaise; }
+    public void setAmountPaise(long amountPaise) { this.amountPaise = amountPaise; }
+    
+    // Rupees for the JSON clients
+    public double getAmount() { return Money.toRupees(amountPaise); }
     
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
@@ -0,0 +1,29 @@
+package com.kamaths.foodpoint.pricing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Amounts are stored and summed as whole paise in a {@code long}, so totals
+ * are exact and never boxed. Rupee doubles only exist at the JSON edge.
+ */
+public final class Money {
+
+    private Money() {}
+
+    // BigDecimal.valueOf uses the shortest decimal form, so 19.99 becomes 1999 and not 1998
+    public static long toPaise(double rupees) {
+        return BigDecimal.valueOf(rupees)
+            .setScale(2, RoundingMode.HALF_UP)
+            .movePointRight(2)
+            .longValueExact();
+    }
+
+    public static long toPaise(Double rupees) {
+        return rupees != null ? toPaise(rupees.doubleValue()) : 0L;
+    }
+
+    public static double toRupees(long paise) {
+        return paise / 100.0;
+    }
+}
@@ -0,0 +1,27 @@
+package com.kamaths.foodpoint.pricing;
+
+import com.kamaths.foodpoint.entity.OrderItem;
+
+import java.util.List;
+
+/**
+ * Order pricing on primitive paise. Overflow throws instead of wrapping.
+ */
+public final class PricingCalculator {
+
+    private PricingCalculator() {}
+
+    public static long lineTotal(long unitPricePaise, int quantity) {
+        return Math.multiplyExact(unitPricePaise, quantity);
+    }
+
+    // Indexed loop - no iterator, no stream, no boxing
+    public static long orderTotal(List<OrderItem> items) {
+        long total = 0L;
+        for (int i = 0, n = items.size(); i < n; i++) {
+            OrderItem item = items.get(i);
+            total = Math.addExact(total, lineTotal(item.getPricePaise(), item.getQuantity()));
+        }
+        return total;
+    }
+}
@@ -0,0 +1,54 @@
+package com.kamaths.foodpoint.receipt;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * ESC/POS bytes for a thermal receipt printer: reset, the lines with bold and
+ * double-height switched on and off as needed, then feed and partial cut. The
+ * result can be sent to the printer as it is, and several can be sent back to
+ * back.
+ */
+public final class EscPos {
+
+    private static final byte ESC = 0x1b;
+    private static final byte GS = 0x1d;
+    private static final byte LF = 0x0a;
+
+    private EscPos() {}
+
+    public static byte[] encode(ReceiptLayout layout) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(layout.size() * (layout.getWidth() + 4) + 16);
+        out.write(ESC);
+        out.write('@'); // initialize
+        int current = ReceiptLayout.PLAIN;
+        for (int i = 0; i < layout.size(); i++) {
+            int style = layout.style(i);
+            current = switchStyle(out, current, style);
+            String line = layout.line(i);
+            for (int c = 0; c < line.length(); c++) {
+                out.write(line.charAt(c)); // already plain ASCII
+            }
+            out.write(LF);
+        }
+        switchStyle(out, current, ReceiptLayout.PLAIN);
+        out.write(GS);
+        out.write('V');
+        out.write(66); // feed to the cutter, then partial cut
+        out.write(0);
+        return out.toByteArray();
+    }
+
+    private static int switchStyle(ByteArrayOutputStream out, int current, int style) {
+        if ((current & ReceiptLayout.BOLD) != (style & ReceiptLayout.BOLD)) {
+            out.write(ESC);
+            out.write('E');
+            out.write((style & ReceiptLayout.BOLD) != 0 ? 1 : 0);
+        }
+        if ((current & ReceiptLayout.BIG) != (style & ReceiptLayout.BIG)) {
+            out.write(GS);
+            out.write('!');
+            out.write((style & ReceiptLayout.BIG) != 0 ? 0x01 : 0x00); // height x2, width x1
+        }
+        return style;
+    }
+}
@@ -0,0 +1,58 @@
+package com.kamaths.foodpoint.receipt;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A rendered receipt: fixed-width ASCII lines, already aligned and wrapped,
+ * each with its style. The printer encodings only have to copy them out.
+ * Immutable.
+ */
+public final class ReceiptLayout {
+
+    public static final int PLAIN = 0;
+    public static final int BOLD = 1;
+    public static final int BIG = 2; // double height, same width
+
+    private final int width;
+    private final String[] lines;
+    private final int[] styles;
+
+    private ReceiptLayout(int width, List<String> lines, List<Integer> styles) {
+        this.width = width;
+        this.lines = lines.toArray(new String[0]);
+        this.styles = styles.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    public int getWidth() { return width; }
+    public int size() { return lines.length; }
+    public String line(int index) { return lines[index]; }
+    public int style(int index) { return styles[index]; }
+
+    public String toText() {
+        StringBuilder text = new StringBuilder(lines.length * (width + 1));
+        for (String line : lines) {
+            text.append(line).append('\n');
+        }
+        return text.toString();
+    }
+
+    static final class Builder {
+        private final int width;
+        private final List<String> lines = new ArrayList<>();
+        private final List<Integer> styles = new ArrayList<>();
+
+        Builder(int width) {
+            this.width = width;
+        }
+
+        void add(String line, int style) {
+            lines.add(line);
+            styles.add(style);
+        }
+
+        ReceiptLayout build() {
+            return new ReceiptLayout(width, lines, styles);
+        }
+    }
+}
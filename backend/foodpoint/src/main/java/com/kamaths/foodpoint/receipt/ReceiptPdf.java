@@ -0,0 +1,184 @@
+package com.kamaths.foodpoint.receipt;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * Receipts as PDF pages the width of an 80 mm roll, one page per receipt and
+ * as long as its lines, set in the standard Courier fonts (nothing embedded).
+ *
+ * A page's content stream is built and compressed once ({@link #page}); a
+ * document is just those streams wrapped in the page, font and cross-reference
+ * objects, so a batch of cached pages is written without re-rendering any.
+ */
+public final class ReceiptPdf {
+
+    private static final double FONT_SIZE = 8;
+    private static final double CHAR_WIDTH = 0.6 * FONT_SIZE; // Courier is 600/1000 em
+    private static final double LEADING = 10;
+    private static final double MARGIN = 12;
+    private static final int WRITE_BUFFER = 64 * 1024;
+
+    private ReceiptPdf() {}
+
+    public static final class Page {
+        private final double width;
+        private final double height;
+        private final byte[] content; // deflated
+
+        private Page(double width, double height, byte[] content) {
+            this.width = width;
+            this.height = height;
+            this.content = content;
+        }
+    }
+
+    public static Page page(ReceiptLayout layout) {
+        double width = 2 * MARGIN + layout.getWidth() * CHAR_WIDTH;
+        double height = 2 * MARGIN;
+        for (int i = 0; i < layout.size(); i++) {
+            height += lineHeight(layout.style(i));
+        }
+
+        StringBuilder content = new StringBuilder(layout.size() * (layout.getWidth() + 40));
+        content.append("BT\n");
+        double y = height - MARGIN;
+        int font = -1;
+        for (int i = 0; i < layout.size(); i++) {
+            int style = layout.style(i);
+            double lineHeight = lineHeight(style);
+            y -= lineHeight;
+            String line = layout.line(i);
+            if (line.isBlank()) {
+                continue;
+            }
+            if (style != font) {
+                boolean big = (style & ReceiptLayout.BIG) != 0;
+                // Double height is a double-size font squeezed back to half width
+                content.append((style & ReceiptLayout.BOLD) != 0 ? "/F2 " : "/F1 ")
+                    .append(number(big ? 2 * FONT_SIZE : FONT_SIZE)).append(" Tf ")
+                    .append(big ? "50" : "100").append(" Tz\n");
+                font = style;
+            }
+            content.append("1 0 0 1 ").append(number(MARGIN)).append(' ')
+                .append(number(y + lineHeight / 4)).append(" Tm (");
+            for (int c = 0; c < line.length(); c++) {
+                char ch = line.charAt(c);
+                if (ch == '(' || ch == ')' || ch == '\\') {
+                    content.append('\\');
+                }
+                content.append(ch);
+            }
+            content.append(") Tj\n");
+        }
+        content.append("ET\n");
+        return new Page(width, height, deflate(content.toString().getBytes(StandardCharsets.ISO_8859_1)));
+    }
+
+    public static byte[] document(List<Page> pages) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1024 + pages.size() * 1024);
+        try {
+            write(pages, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    public static void write(List<Page> pages, OutputStream target) throws IOException {
+        Writer out = new Writer(new BufferedOutputStream(target, WRITE_BUFFER));
+        int objects = 5 + 2 * pages.size(); // object 0 is the free-list head
+        long[] offsets = new long[objects];
+
+        out.text("%PDF-1.4\n%âãÏÓ\n");
+        offsets[1] = out.position;
+        out.text("1 0 obj\n<< /Type /Catalog /Pages 2 0 R >>\nendobj\n");
+        offsets[2] = out.position;
+        StringBuilder kids = new StringBuilder(pages.size() * 8);
+        for (int i = 0; i < pages.size(); i++) {
+            kids.append(5 + 2 * i).append(" 0 R ");
+        }
+        out.text("2 0 obj\n<< /Type /Pages /Kids [" + kids + "] /Count " + pages.size() + " >>\nendobj\n");
+        offsets[3] = out.position;
+        out.text("3 0 obj\n<< /Type /Font /Subtype /Type1 /BaseFont /Courier /Encoding /WinAnsiEncoding >>\nendobj\n");
+        offsets[4] = out.position;
+        out.text("4 0 obj\n<< /Type /Font /Subtype /Type1 /BaseFont /Courier-Bold /Encoding /WinAnsiEncoding >>\nendobj\n");
+
+        for (int i = 0; i < pages.size(); i++) {
+            Page page = pages.get(i);
+            int pageObject = 5 + 2 * i;
+            offsets[pageObject] = out.position;
+            out.text(pageObject + " 0 obj\n<< /Type /Page /Parent 2 0 R /MediaBox [0 0 " + number(page.width) + " "
+                + number(page.height) + "] /Resources << /Font << /F1 3 0 R /F2 4 0 R >> >> /Contents "
+                + (pageObject + 1) + " 0 R >>\nendobj\n");
+            offsets[pageObject + 1] = out.position;
+            out.text((pageObject + 1) + " 0 obj\n<< /Length " + page.content.length + " /Filter /FlateDecode >>\nstream\n");
+            out.bytes(page.content);
+            out.text("\nendstream\nendobj\n");
+        }
+
+        long xref = out.position;
+        StringBuilder table = new StringBuilder(objects * 20 + 64);
+        table.append("xref\n0 ").append(objects).append("\n0000000000 65535 f \n");
+        for (int i = 1; i < objects; i++) {
+            String offset = Long.toString(offsets[i]);
+            table.append("0000000000", offset.length(), 10).append(offset).append(" 00000 n \n");
+        }
+        table.append("trailer\n<< /Size ").append(objects).append(" /Root 1 0 R >>\nstartxref\n")
+            .append(xref).append("\n%%EOF\n");
+        out.text(table.toString());
+        out.flush();
+    }
+
+    private static double lineHeight(int style) {
+        return (style & ReceiptLayout.BIG) != 0 ? 2 * LEADING : LEADING;
+    }
+
+    // Points to one decimal place, locale-independent
+    private static String number(double value) {
+        long tenths = Math.round(value * 10);
+        return tenths % 10 == 0 ? Long.toString(tenths / 10) : tenths / 10 + "." + Math.abs(tenths % 10);
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater();
+        deflater.setInput(raw);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 3 + 64);
+        byte[] buffer = new byte[4096];
+        while (!deflater.finished()) {
+            out.write(buffer, 0, deflater.deflate(buffer));
+        }
+        deflater.end();
+        return out.toByteArray();
+    }
+
+    // Counts bytes for the cross-reference table
+    private static final class Writer {
+        private final OutputStream out;
+        private long position;
+
+        Writer(OutputStream out) {
+            this.out = out;
+        }
+
+        void text(String text) throws IOException {
+            bytes(text.getBytes(StandardCharsets.ISO_8859_1));
+        }
+
+        void bytes(byte[] bytes) throws IOException {
+            out.write(bytes);
+            position += bytes.length;
+        }
+
+        void flush() throws IOException {
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.kamaths.foodpoint.receipt;
+
+import com.kamaths.foodpoint.entity.Order;
+import com.kamaths.foodpoint.entity.OrderItem;
+import com.kamaths.foodpoint.pricing.PricingCalculator;
+
+import java.text.Normalizer;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A receipt or KOT template, parsed once into lines of literal text and field
+ * references so rendering an order is just string appends.
+ *
+ * One template line is one printed line (wrapped if too long). A line may
+ * start with directives: {@code @center}, {@code @right}, {@code @bold},
+ * {@code @big}, {@code @rule} (a full-width line of its first character, "-"
+ * by default) and {@code @items} (repeat the line for every order line). Text
+ * after a {@code |} is right-aligned on the same line. {@code {{name}}} is a
+ * field of the order or, on an @items line, of the order line; names given as
+ * constants (shop name, footer) are filled in at compile time. A line whose
+ * fields all come out empty is left out, and lines starting with # are
+ * comments. Unknown directives and fields fail at compile time.
+ */
+public final class ReceiptTemplate {
+
+    private static final Pattern FIELD = Pattern.compile("\\{\\{\\s*([A-Za-z]+)\\s*}}");
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm");
+    private static final int LEFT = 0;
+    private static final int CENTER = 1;
+    private static final int RIGHT = 2;
+
+    // Order fields first; QTY onwards are per order line
+    enum Field {
+        ORDER_ID("orderId"), DATE("date"), TIME("time"), CUSTOMER("customer"), PHONE("phone"), TYPE("type"),
+        PAYMENT("payment"), STATUS("status"), NOTES("notes"), TOTAL("total"), ITEM_COUNT("itemCount"),
+        QTY("qty"), NAME("name"), PRICE("price"), AMOUNT("amount");
+
+        final String key;
+
+        Field(String key) {
+            this.key = key;
+        }
+
+        boolean isLineField() {
+            return ordinal() >= QTY.ordinal();
+        }
+    }
+
+    private record Segment(String literal, Field field, boolean placeholder) {}
+
+    private record Line(int align, int style, boolean items, char rule, Segment[] left, Segment[] right) {
+        boolean hasFields() {
+            for (Segment segment : left) if (segment.placeholder) return true;
+            if (right != null) for (Segment segment : right) if (segment.placeholder) return true;
+            return false;
+        }
+    }
+
+    private final int width;
+    private final Line[] lines;
+
+    private ReceiptTemplate(int width, List<Line> lines) {
+        this.width = width;
+        this.lines = lines.toArray(new Line[0]);
+    }
+
+    public static ReceiptTemplate compile(String source, int width, Map<String, String> constants) {
+        if (width < 16) {
+            throw new IllegalArgumentException("Receipt width must be at least 16 characters");
+        }
+        List<Line> lines = new ArrayList<>();
+        String[] rows = source.split("\r?\n");
+        for (int n = 0; n < rows.length; n++) {
+            String row = rows[n];
+            if (row.startsWith("#")) {
+                continue;
+            }
+            int align = LEFT;
+            int style = ReceiptLayout.PLAIN;
+            boolean items = false;
+            boolean rule = false;
+            while (row.startsWith("@")) {
+                int end = row.indexOf(' ');
+                String directive = end < 0 ? row : row.substring(0, end);
+                row = end < 0 ? "" : row.substring(end + 1).stripLeading();
+                switch (directive) {
+                    case "@center" -> align = CENTER;
+                    case "@right" -> align = RIGHT;
+                    case "@bold" -> style |= ReceiptLayout.BOLD;
+                    case "@big" -> style |= ReceiptLayout.BIG;
+                    case "@items" -> items = true;
+                    case "@rule" -> rule = true;
+                    default -> throw new IllegalArgumentException("Unknown directive " + directive + " on template line " + (n + 1));
+                }
+            }
+            if (rule) {
+                lines.add(new Line(LEFT, style, false, row.isEmpty() ? '-' : row.charAt(0), new Segment[0], null));
+                continue;
+            }
+            int bar = row.indexOf('|');
+            Segment[] left = segments(bar < 0 ? row : row.substring(0, bar), items, constants, n + 1);
+            Segment[] right = bar < 0 ? null : segments(row.substring(bar + 1), items, constants, n + 1);
+            lines.add(new Line(align, style, items, (char) 0, left, right));
+        }
+        return new ReceiptTemplate(width, lines);
+    }
+
+    private static Segment[] segments(String text, boolean items, Map<String, String> constants, int lineNumber) {
+        List<Segment> segments = new ArrayList<>();
+        Matcher matcher = FIELD.matcher(text);
+        int from = 0;
+        while (matcher.find()) {
+            if (matcher.start() > from) {
+                segments.add(new Segment(printable(text.substring(from, matcher.start())), null, false));
+            }
+            String name = matcher.group(1);
+            if (constants.containsKey(name)) {
+                segments.add(new Segment(printable(constants.get(name)), null, true));
+            } else {
+                Field field = field(name, lineNumber);
+                if (field.isLineField() && !items) {
+                    throw new IllegalArgumentException("{{" + name + "}} is only allowed on an @items line (template line " + lineNumber + ")");
+                }
+                segments.add(new Segment(null, field, true));
+            }
+            from = matcher.end();
+        }
+        if (from < text.length()) {
+            segments.add(new Segment(printable(text.substring(from)), null, false));
+        }
+        return segments.toArray(new Segment[0]);
+    }
+
+    private static Field field(String name, int lineNumber) {
+        for (Field field : Field.values()) {
+            if (field.key.equals(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown field {{" + name + "}} on template line " + lineNumber);
+    }
+
+    public int getWidth() { return width; }
+
+    public ReceiptLayout render(Order order) {
+        String[] values = new String[Field.values().length];
+        values[Field.ORDER_ID.ordinal()] = String.valueOf(order.getId());
+        values[Field.DATE.ordinal()] = order.getCreatedAt() != null ? DATE.format(order.getCreatedAt()) : "";
+        values[Field.TIME.ordinal()] = order.getCreatedAt() != null ? TIME.format(order.getCreatedAt()) : "";
+        values[Field.CUSTOMER.ordinal()] = printable(order.getCustomerName()).strip();
+        values[Field.PHONE.ordinal()] = printable(order.getCustomerPhone()).strip();
+        values[Field.TYPE.ordinal()] = order.isTakeaway() ? "Takeaway" : "Dine-in";
+        values[Field.PAYMENT.ordinal()] = printable(order.getPaymentMethod()).strip().toUpperCase(Locale.ROOT);
+        values[Field.STATUS.ordinal()] = printable(order.getStatus()).toUpperCase(Locale.ROOT);
+        values[Field.NOTES.ordinal()] = printable(order.getNotes()).strip();
+        values[Field.TOTAL.ordinal()] = rupees(order.getTotalAmountPaise());
+        long count = 0;
+        for (OrderItem item : order.getOrderItems()) {
+            count += item.getQuantity();
+        }
+        values[Field.ITEM_COUNT.ordinal()] = String.valueOf(count);
+
+        ReceiptLayout.Builder out = new ReceiptLayout.Builder(width);
+        StringBuilder left = new StringBuilder(width);
+        StringBuilder right = new StringBuilder(width);
+        for (Line line : lines) {
+            if (line.rule != 0) {
+                out.add(String.valueOf(line.rule).repeat(width), line.style);
+            } else if (line.items) {
+                for (OrderItem item : order.getOrderItems()) {
+                    values[Field.QTY.ordinal()] = String.valueOf(item.getQuantity());
+                    values[Field.NAME.ordinal()] = printable(item.getItemName()).strip();
+                    values[Field.PRICE.ordinal()] = rupees(item.getPricePaise());
+                    values[Field.AMOUNT.ordinal()] = rupees(PricingCalculator.lineTotal(item.getPricePaise(), item.getQuantity()));
+                    emit(out, line, values, left, right);
+                }
+            } else {
+                emit(out, line, values, left, right);
+            }
+        }
+        return out.build();
+    }
+
+    private void emit(ReceiptLayout.Builder out, Line line, String[] values, StringBuilder left, StringBuilder right) {
+        left.setLength(0);
+        right.setLength(0);
+        boolean filled = append(left, line.left, values);
+        if (line.right != null) {
+            filled |= append(right, line.right, values);
+        }
+        if (!filled && line.hasFields()) {
+            return;
+        }
+
+        if (right.isEmpty()) {
+            for (String chunk : wrap(left.toString(), width)) {
+                out.add(align(chunk, line.align), line.style);
+            }
+            return;
+        }
+        // Left column wraps short of the right-hand text, which goes on its first line
+        int room = width - right.length() - 1;
+        if (room < width / 2) {
+            for (String chunk : wrap(left.toString(), width)) {
+                out.add(chunk, line.style);
+            }
+            out.add(align(right.toString(), RIGHT), line.style);
+            return;
+        }
+        List<String> chunks = wrap(left.toString(), room);
+        String first = chunks.get(0);
+        out.add(first + " ".repeat(width - first.length() - right.length()) + right, line.style);
+        for (int i = 1; i < chunks.size(); i++) {
+            out.add(chunks.get(i), line.style);
+        }
+    }
+
+    // True when any field of the line came out non-empty
+    private static boolean append(StringBuilder text, Segment[] segments, String[] values) {
+        boolean filled = false;
+        for (Segment segment : segments) {
+            String value = segment.field != null ? values[segment.field.ordinal()] : segment.literal;
+            text.append(value);
+            filled |= segment.placeholder && !value.isEmpty();
+        }
+        return filled;
+    }
+
+    private String align(String text, int align) {
+        int pad = width - text.length();
+        if (align == LEFT || pad <= 0) {
+            return text;
+        }
+        return " ".repeat(align == CENTER ? pad / 2 : pad) + text;
+    }
+
+    // Greedy word wrap; words longer than a line are split
+    static List<String> wrap(String text, int max) {
+        List<String> chunks = new ArrayList<>(1);
+        if (text.length() <= max) {
+            chunks.add(text);
+            return chunks;
+        }
+        int start = 0;
+        while (start < text.length()) {
+            while (start < text.length() && text.charAt(start) == ' ') {
+                start++;
+            }
+            if (text.length() - start <= max) {
+                if (start < text.length()) {
+                    chunks.add(text.substring(start));
+                }
+                break;
+            }
+            int end = text.lastIndexOf(' ', start + max);
+            if (end <= start) {
+                end = start + max;
+            }
+            chunks.add(text.substring(start, end).stripTrailing());
+            start = end;
+        }
+        if (chunks.isEmpty()) {
+            chunks.add("");
+        }
+        return chunks;
+    }
+
+    /**
+     * Plain ASCII for the printer's built-in font: accents are stripped, the
+     * rupee sign becomes "Rs.", line breaks become spaces and anything else
+     * outside ASCII becomes "?".
+     */
+    static String printable(String text) {
+        if (text == null) {
+            return "";
+        }
+        boolean plain = true;
+        for (int i = 0; i < text.length() && plain; i++) {
+            char c = text.charAt(i);
+            plain = c >= 0x20 && c < 0x7f;
+        }
+        if (plain) {
+            return text;
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder out = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (c >= 0x20 && c < 0x7f) {
+                out.append(c);
+            } else if (c == '₹') {
+                out.append("Rs.");
+            } else if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                // accent stripped by NFD
+            } else if (Character.isWhitespace(c) || Character.isISOControl(c)) {
+                out.append(' ');
+            } else if (!Character.isLowSurrogate(c)) {
+                out.append('?');
+            }
+        }
+        return out.toString();
+    }
+
+    static String rupees(long paise) {
+        long abs = Math.abs(paise);
+        long fraction = abs % 100;
+        return (paise < 0 ? "-" : "") + abs / 100 + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+}
@@ -0,0 +1,32 @@
+package com.kamaths.foodpoint.repository;
+
+import com.kamaths.foodpoint.entity.DailySalesRollup;
+import com.kamaths.foodpoint.entity.DailySalesRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Plain JPQL only - the same queries run on H2 and PostgreSQL
+@Repository
+public interface DailySalesRollupRepository extends JpaRepository<DailySalesRollup, DailySalesRollupId> {
+    
+    // One outlet's days - a range of the (outlet, sales_date) primary key
+    List<DailySalesRollup> findByIdOutletAndIdSalesDateBetweenOrderByIdSalesDateAsc(String outlet, LocalDate from, LocalDate to);
+    
+    // Every outlet's days - nightly reconcile only (one row per outlet per day)
+    List<DailySalesRollup> findByIdSalesDateBetween(LocalDate from, LocalDate to);
+    
+    // ✅ Incremental update, in the same transaction as the sales it counts
+    @Modifying
+    @Query("UPDATE DailySalesRollup r SET r.amountPaise = r.amountPaise + :amountPaise, " +
+           "r.saleCount = r.saleCount + :saleCount WHERE r.id.outlet = :outlet AND r.id.salesDate = :salesDate")
+    int addToDay(@Param("outlet") String outlet,
+                 @Param("salesDate") LocalDate salesDate,
+                 @Param("amountPaise") long amountPaise,
+                 @Param("saleCount") long saleCount);
+}
@@ -1,12 +1,31 @@
 package com.kamaths.foodpoint.repository;
 
 import com.kamaths.foodpoint.entity.FoodItem;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface FoodItemRepository extends JpaRepository<FoodItem, Long> {
     List<FoodItem> findByCategory(String category);
-}
\ No newline at end of file
+    
+    // One outlet's menu (ix_food_item_outlet_id)
+    List<FoodItem> findByOutlet(String outlet, Sort sort);
+    
+    // By id within one outlet: another outlet's item is simply not found
+    Optional<FoodItem> findByIdAndOutlet(Long id, String outlet);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE FoodItem f SET f.thumbnailUrl = :thumbnailUrl, f.mediumUrl = :mediumUrl WHERE f.id = :id")
+    int updateImageVariants(@Param("id") Long id,
+                            @Param("thumbnailUrl") String thumbnailUrl,
+                            @Param("mediumUrl") String mediumUrl);
+}
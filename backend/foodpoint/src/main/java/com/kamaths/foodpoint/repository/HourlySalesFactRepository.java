@@ -0,0 +1,19 @@
+package com.kamaths.foodpoint.repository;
+
+import com.kamaths.foodpoint.entity.HourlySalesFact;
+import com.kamaths.foodpoint.entity.HourlySalesFactId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface HourlySalesFactRepository extends JpaRepository<HourlySalesFact, HourlySalesFactId> {
+    
+    List<HourlySalesFact> findByIdOutletInAndIdSalesDateIn(Collection<String> outlets, Collection<LocalDate> salesDates);
+    
+    // At most 24 rows a day - a year is under 9k rows per outlet
+    List<HourlySalesFact> findByIdOutletAndIdSalesDateBetween(String outlet, LocalDate from, LocalDate to);
+}
@@ -0,0 +1,35 @@
+package com.kamaths.foodpoint.repository;
+
+import com.kamaths.foodpoint.entity.ItemSalesFact;
+import com.kamaths.foodpoint.entity.ItemSalesFactId;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ItemSalesFactRepository extends JpaRepository<ItemSalesFact, ItemSalesFactId> {
+    
+    List<ItemSalesFact> findByIdOutletInAndIdSalesDateIn(Collection<String> outlets, Collection<LocalDate> salesDates);
+    
+    // itemKey, name, category, quantity, revenue - one row per item over one outlet's range
+    @Query("SELECT f.id.itemKey, MAX(f.foodItemId), MAX(f.itemName), MAX(f.category), SUM(f.quantity), SUM(f.revenuePaise) " +
+           "FROM ItemSalesFact f WHERE f.id.outlet = :outlet AND f.id.salesDate >= :from AND f.id.salesDate <= :to " +
+           "GROUP BY f.id.itemKey ORDER BY SUM(f.quantity) DESC, SUM(f.revenuePaise) DESC")
+    List<Object[]> sumByItemOrderByQuantity(@Param("outlet") String outlet, @Param("from") LocalDate from, @Param("to") LocalDate to, Limit limit);
+    
+    @Query("SELECT f.id.itemKey, MAX(f.foodItemId), MAX(f.itemName), MAX(f.category), SUM(f.quantity), SUM(f.revenuePaise) " +
+           "FROM ItemSalesFact f WHERE f.id.outlet = :outlet AND f.id.salesDate >= :from AND f.id.salesDate <= :to " +
+           "GROUP BY f.id.itemKey ORDER BY SUM(f.revenuePaise) DESC, SUM(f.quantity) DESC")
+    List<Object[]> sumByItemOrderByRevenue(@Param("outlet") String outlet, @Param("from") LocalDate from, @Param("to") LocalDate to, Limit limit);
+    
+    @Query("SELECT f.category, SUM(f.quantity), SUM(f.revenuePaise) " +
+           "FROM ItemSalesFact f WHERE f.id.outlet = :outlet AND f.id.salesDate >= :from AND f.id.salesDate <= :to " +
+           "GROUP BY f.category ORDER BY SUM(f.revenuePaise) DESC")
+    List<Object[]> sumByCategory(@Param("outlet") String outlet, @Param("from") LocalDate from, @Param("to") LocalDate to);
+}
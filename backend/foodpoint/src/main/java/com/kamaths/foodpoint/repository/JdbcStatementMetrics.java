@@ -0,0 +1,243 @@
+package com.kamaths.foodpoint.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Times every JDBC statement the app runs (JPA and JdbcTemplate alike) by wrapping
+ * the DataSource bean in a thin proxy.
+ *
+ * Replaces show-sql: statements are counted and timed into jdbc.statements, and only
+ * the ones slower than app.jdbc.slow-query-ms are printed - at most
+ * app.jdbc.slow-query-log-per-minute of them, the rest are just counted in
+ * jdbc.statements.slow. A request thread can also ask how many statements it ran.
+ */
+@Component
+public class JdbcStatementMetrics implements BeanPostProcessor {
+
+    private static final long MINUTE_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final int MAX_LOGGED_SQL = 1000;
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final long slowNanos;
+    private final int slowLogPerMinute;
+
+    // Per-thread statement count while a request is being measured
+    private final ThreadLocal<int[]> requestCount = new ThreadLocal<>();
+
+    private final AtomicLong slowLogWindow = new AtomicLong(System.nanoTime());
+    private final AtomicInteger slowLoggedInWindow = new AtomicInteger();
+
+    private volatile Meters meters;
+
+    // MeterRegistry is looked up on first use: post-processors are created before it exists
+    public JdbcStatementMetrics(ObjectProvider<MeterRegistry> meterRegistry,
+                                @Value("${app.jdbc.slow-query-ms:200}") long slowQueryMs,
+                                @Value("${app.jdbc.slow-query-log-per-minute:20}") int slowLogPerMinute) {
+        this.meterRegistry = meterRegistry;
+        this.slowNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryMs);
+        this.slowLogPerMinute = slowLogPerMinute;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !Proxy.isProxyClass(bean.getClass())) {
+            return proxy(DataSource.class, dataSource, new DataSourceHandler(dataSource));
+        }
+        return bean;
+    }
+
+    // ✅ Per-request counting - the caller must always stop what it started
+    public void startCounting() {
+        requestCount.set(new int[1]);
+    }
+
+    public int stopCounting() {
+        int[] count = requestCount.get();
+        requestCount.remove();
+        return count != null ? count[0] : 0;
+    }
+
+    private void recordStatement(String type, String sql, long nanos) {
+        int[] count = requestCount.get();
+        if (count != null) {
+            count[0]++;
+        }
+
+        Meters meters = meters();
+        if (meters != null) {
+            meters.timer(type).record(nanos, TimeUnit.NANOSECONDS);
+        }
+        if (nanos >= slowNanos) {
+            if (meters != null) {
+                meters.slow.increment();
+            }
+            if (takeSlowLogSlot()) {
+                String text = sql == null ? "(batch)" : sql.length() > MAX_LOGGED_SQL ? sql.substring(0, MAX_LOGGED_SQL) + "..." : sql;
+                System.err.println("Slow SQL (" + TimeUnit.NANOSECONDS.toMillis(nanos) + " ms, " + type + "): " + text);
+            }
+        }
+    }
+
+    private boolean takeSlowLogSlot() {
+        long now = System.nanoTime();
+        long window = slowLogWindow.get();
+        if (now - window >= MINUTE_NANOS && slowLogWindow.compareAndSet(window, now)) {
+            slowLoggedInWindow.set(0);
+        }
+        return slowLoggedInWindow.incrementAndGet() <= slowLogPerMinute;
+    }
+
+    private Meters meters() {
+        Meters current = meters;
+        if (current == null) {
+            try {
+                MeterRegistry registry = meterRegistry.getIfAvailable();
+                if (registry != null) {
+                    current = meters = new Meters(registry);
+                }
+            } catch (BeansException e) {
+                // statements run while the context is still starting up (migrations) go untimed
+            }
+        }
+        return current;
+    }
+
+    private static final class Meters {
+        final Timer query;
+        final Timer update;
+        final Timer batch;
+        final Counter slow;
+
+        Meters(MeterRegistry registry) {
+            query = timer(registry, "query");
+            update = timer(registry, "update");
+            batch = timer(registry, "batch");
+            slow = Counter.builder("jdbc.statements.slow")
+                .description("Statements slower than app.jdbc.slow-query-ms")
+                .register(registry);
+        }
+
+        Timer timer(String type) {
+            return switch (type) {
+                case "query" -> query;
+                case "batch" -> batch;
+                default -> update;
+            };
+        }
+
+        private static Timer timer(MeterRegistry registry, String type) {
+            return Timer.builder("jdbc.statements")
+                .description("JDBC statement execution time")
+                .tag("type", type)
+                .publishPercentileHistogram()
+                .register(registry);
+        }
+    }
+
+    private static boolean isQuery(String sql) {
+        if (sql == null) {
+            return false;
+        }
+        String start = sql.stripLeading();
+        return start.regionMatches(true, 0, "select", 0, 6) || start.regionMatches(true, 0, "with", 0, 4);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(JdbcStatementMetrics.class.getClassLoader(), new Class<?>[] {type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    // unwrap/isWrapperFor go to the real object so pool metrics can still find Hikari
+    private final class DataSourceHandler implements InvocationHandler {
+        private final DataSource target;
+
+        DataSourceHandler(DataSource target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = JdbcStatementMetrics.invoke(target, method, args);
+            if (result instanceof Connection connection) {
+                return proxy(Connection.class, connection, new ConnectionHandler(connection));
+            }
+            return result;
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = JdbcStatementMetrics.invoke(target, method, args);
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+            return switch (result) {
+                case CallableStatement statement -> proxy(CallableStatement.class, statement, new StatementHandler(statement, sql));
+                case PreparedStatement statement -> proxy(PreparedStatement.class, statement, new StatementHandler(statement, sql));
+                case Statement statement -> proxy(Statement.class, statement, new StatementHandler(statement, null));
+                case null, default -> result;
+            };
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String sql;
+
+        StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                return JdbcStatementMetrics.invoke(target, method, args);
+            }
+            String text = args != null && args.length > 0 && args[0] instanceof String given ? given : sql;
+            String type = name.contains("Batch") ? "batch"
+                : name.equals("executeQuery") || (name.equals("execute") && isQuery(text)) ? "query"
+                : "update";
+            long start = System.nanoTime();
+            try {
+                return JdbcStatementMetrics.invoke(target, method, args);
+            } finally {
+                recordStatement(type, text, System.nanoTime() - start);
+            }
+        }
+    }
+}
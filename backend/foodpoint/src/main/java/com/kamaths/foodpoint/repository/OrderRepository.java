@@ -1,12 +1,81 @@
 package com.kamaths.foodpoint.repository;
 
 import com.kamaths.foodpoint.entity.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
-    List<Order> findByStatusOrderByCreatedAtDesc(String status);
-    List<Order> findAllByOrderByCreatedAtDesc();
-}
\ No newline at end of file
+    // Items are join-fetched: the kitchen poll is a single query (ix_orders_outlet_status_created_at)
+    @EntityGraph(attributePaths = "orderItems")
+    List<Order> findByOutletAndStatusOrderByCreatedAtDesc(String outlet, String status);
+    
+    // Kitchen board reload at startup (ix_orders_status_created_at)
+    @EntityGraph(attributePaths = "orderItems")
+    List<Order> findByStatusAndCreatedAtAfterOrderByCreatedAtDesc(String status, LocalDateTime createdAt);
+    
+    @EntityGraph(attributePaths = "orderItems")
+    Optional<Order> findWithItemsById(Long id);
+    
+    // By id within one outlet: another outlet's order is simply not found
+    Optional<Order> findByIdAndOutlet(Long id, String outlet);
+    
+    @EntityGraph(attributePaths = "orderItems")
+    Optional<Order> findWithItemsByIdAndOutlet(Long id, String outlet);
+    
+    // Idempotency keys are unique per outlet: the same key from another outlet is another order
+    Optional<Order> findByOutletAndIdempotencyKey(String outlet, String idempotencyKey);
+    
+    @Query("SELECT o.idempotencyKey, o.id FROM Order o WHERE o.outlet = :outlet AND o.idempotencyKey IN :keys")
+    List<Object[]> findIdsByOutletAndIdempotencyKeys(@Param("outlet") String outlet, @Param("keys") Collection<String> keys);
+    
+    List<Order> findByOutletOrderByCreatedAtDescIdDesc(String outlet, Limit limit);
+    
+    // Keyset page: the outlet's rows strictly after the (createdAt, id) cursor
+    @Query("SELECT o FROM Order o WHERE o.outlet = :outlet " +
+           "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Order> findPageAfter(@Param("outlet") String outlet, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+    
+    // Outbox: paid orders whose Sale row hasn't been written yet (items feed the sales facts)
+    @EntityGraph(attributePaths = "orderItems")
+    List<Order> findByStatusAndSaleRecordedFalse(String status);
+    
+    @EntityGraph(attributePaths = "orderItems")
+    List<Order> findWithItemsByIdIn(Collection<Long> ids);
+    
+    // Receipt cache: (id, version) says whether a rendered copy is still current without loading lines.
+    // Ids from another outlet are left out.
+    @Query("SELECT o.id, o.version FROM Order o WHERE o.outlet = :outlet AND o.id IN :ids")
+    List<Object[]> findVersionsByOutletAndIdIn(@Param("outlet") String outlet, @Param("ids") Collection<Long> ids);
+    
+    // End-of-day reprint: one outlet's day in bill order (ix_orders_outlet_status_created_at)
+    @Query("SELECT o.id, o.version FROM Order o WHERE o.outlet = :outlet AND o.status = :status " +
+           "AND o.createdAt >= :from AND o.createdAt < :to ORDER BY o.createdAt, o.id")
+    List<Object[]> findVersionsByOutletStatusCreatedBetween(@Param("outlet") String outlet,
+                                                            @Param("status") String status,
+                                                            @Param("from") LocalDateTime from,
+                                                            @Param("to") LocalDateTime to);
+    
+    // ✅ Compare-and-set pending -> paid: of any number of concurrent calls exactly one gets 1
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Order o SET o.status = 'paid', o.saleRecorded = false, o.paymentKey = :paymentKey, " +
+           "o.version = o.version + 1 WHERE o.id = :id AND o.outlet = :outlet AND o.status = 'pending'")
+    int markPaidIfPending(@Param("id") Long id, @Param("outlet") String outlet, @Param("paymentKey") String paymentKey);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE Order o SET o.saleRecorded = true WHERE o.id IN :ids")
+    int markSalesRecorded(@Param("ids") Collection<Long> ids);
+}
@@ -1,31 +1,50 @@
 package com.kamaths.foodpoint.repository;
 
 import com.kamaths.foodpoint.entity.Sale;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface SalesRepository extends JpaRepository<Sale, Long> {
     
-    // ✅ Sum sales by date range - UNCHANGED
-    @Query("SELECT COALESCE(SUM(s.amount), 0) FROM Sale s WHERE s.createdAt >= :start AND s.createdAt < :end")
-    Double sumAmountByCreatedAtBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+    // ✅ Sum sales by date range - in paise
+    @Query("SELECT COALESCE(SUM(s.amountPaise), 0) FROM Sale s WHERE s.createdAt >= :start AND s.createdAt < :end")
+    Long sumAmountPaiseByCreatedAtBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
     
-    // ✅ Total lifetime sales - UNCHANGED
-    @Query("SELECT COALESCE(SUM(s.amount), 0) FROM Sale s")
-    Double sumAllAmount();
+    // ✅ Total lifetime sales - in paise
+    @Query("SELECT COALESCE(SUM(s.amountPaise), 0) FROM Sale s")
+    Long sumAllAmountPaise();
     
-    // ✅ All sales ordered by date - UNCHANGED
-    List<Sale> findAllByOrderByCreatedAtDesc();
+    // Per-outlet, per-day totals straight from the sales rows - used to reconcile the daily rollup
+    @Query("SELECT s.outlet, YEAR(s.createdAt), MONTH(s.createdAt), DAY(s.createdAt), SUM(s.amountPaise), COUNT(s) " +
+           "FROM Sale s WHERE s.createdAt >= :start AND s.createdAt < :end " +
+           "GROUP BY s.outlet, YEAR(s.createdAt), MONTH(s.createdAt), DAY(s.createdAt)")
+    List<Object[]> sumAmountPaiseGroupedByOutletAndDay(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
     
-    // ✅ FIXED: H2 Compatible - Last 7 days using native query
-    @Query(value = "SELECT DATE(created_at), COALESCE(SUM(amount), 0) FROM sale " +
-           "WHERE created_at >= DATE_SUB(CURRENT_DATE(), INTERVAL 7 DAY) " +
-           "GROUP BY DATE(created_at) ORDER BY DATE(created_at) DESC", nativeQuery = true)
-    List<Object[]> getWeeklySalesTrend();
+    @Query("SELECT MIN(s.createdAt) FROM Sale s")
+    LocalDateTime findFirstCreatedAt();
+    
+    long countByOrderId(Long orderId);
+    
+    @Query("SELECT s.orderId FROM Sale s WHERE s.orderId IN :orderIds")
+    List<Long> findOrderIdsWithSales(@Param("orderIds") Collection<Long> orderIds);
+    
+    // Sales linked to an order, by id - pages through history to backfill the sales facts
+    List<Sale> findByOrderIdNotNullAndIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+    
+    // ✅ One outlet's newest sales first - LIMIT pushed into SQL
+    List<Sale> findByOutletOrderByCreatedAtDescIdDesc(String outlet, Limit limit);
+    
+    // ✅ Keyset page: the outlet's rows strictly after the (createdAt, id) cursor
+    @Query("SELECT s FROM Sale s WHERE s.outlet = :outlet " +
+           "AND (s.createdAt < :createdAt OR (s.createdAt = :createdAt AND s.id < :id)) " +
+           "ORDER BY s.createdAt DESC, s.id DESC")
+    List<Sale> findPageAfter(@Param("outlet") String outlet, @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
 }
@@ -0,0 +1,276 @@
+package com.kamaths.foodpoint.service;
+
+import com.kamaths.foodpoint.dto.BulkOrderResult;
+import com.kamaths.foodpoint.dto.CreateOrderRequest;
+import com.kamaths.foodpoint.dto.OrderItemDto;
+import com.kamaths.foodpoint.entity.Order;
+import com.kamaths.foodpoint.repository.OrderRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk import for tills replaying their offline queue: one CreateOrderRequest
+ * per NDJSON line, one result per line back.
+ *
+ * Lines are handled in chunks of {@value #CHUNK_SIZE}. A chunk is parsed and
+ * priced in parallel, deduplicated by idempotency key (against the database and
+ * against earlier lines), saved in one transaction with batched inserts, and
+ * its results are flushed before the next chunk is read - so neither the
+ * request nor the response is ever held in memory whole.
+ */
+@Service
+public class BulkOrderImportService {
+    
+    static final int CHUNK_SIZE = 500;
+    private static final int MAX_KEY_LENGTH = 100; // orders.idempotency_key
+    
+    private final OrderService orderService;
+    private final OrderRepository orderRepository;
+    private final OrderEventBroadcaster orderEvents;
+    private final KitchenQueue kitchenQueue;
+    private final TransactionTemplate transactionTemplate;
+    private final JsonMapper jsonMapper;
+    private final OrderMetrics orderMetrics;
+    private final Outlets outlets;
+    
+    public BulkOrderImportService(OrderService orderService, OrderRepository orderRepository,
+                                  OrderEventBroadcaster orderEvents, TransactionTemplate transactionTemplate,
+                                  JsonMapper jsonMapper, OrderMetrics orderMetrics, KitchenQueue kitchenQueue,
+                                  Outlets outlets) {
+        this.orderService = orderService;
+        this.orderRepository = orderRepository;
+        this.orderEvents = orderEvents;
+        this.transactionTemplate = transactionTemplate;
+        this.jsonMapper = jsonMapper;
+        this.orderMetrics = orderMetrics;
+        this.kitchenQueue = kitchenQueue;
+        this.outlets = outlets;
+    }
+    
+    public void importOrders(InputStream in, OutputStream out) throws IOException {
+        importOrders(in, out, outlets.getDefault());
+    }
+    
+    // Every order in the stream belongs to one outlet - the till's
+    public void importOrders(InputStream in, OutputStream out, String outlet) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        Map<String, Long> importedKeys = new HashMap<>(); // keys created earlier in this stream
+        List<Line> chunk = new ArrayList<>(CHUNK_SIZE);
+        int lineNumber = 0;
+        String text;
+        while ((text = reader.readLine()) != null) {
+            lineNumber++;
+            if (text.isBlank()) {
+                continue;
+            }
+            chunk.add(new Line(lineNumber, text));
+            if (chunk.size() == CHUNK_SIZE) {
+                write(importChunk(chunk, importedKeys, outlet), out);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            write(importChunk(chunk, importedKeys, outlet), out);
+        }
+    }
+    
+    private List<BulkOrderResult> importChunk(List<Line> chunk, Map<String, Long> importedKeys, String outlet) {
+        // Parse, validate and price in parallel - the menu catalog is an immutable snapshot
+        List<Prepared> prepared = chunk.parallelStream().map(line -> prepare(line, outlet)).toList();
+        
+        List<String> keys = new ArrayList<>();
+        for (Prepared p : prepared) {
+            if (p.order != null && p.key != null && !importedKeys.containsKey(p.key)) {
+                keys.add(p.key);
+            }
+        }
+        Map<String, Long> existingKeys = new HashMap<>();
+        if (!keys.isEmpty()) {
+            for (Object[] row : orderRepository.findIdsByOutletAndIdempotencyKeys(outlet, keys)) {
+                existingKeys.put((String) row[0], (Long) row[1]);
+            }
+        }
+        
+        // First line with a new key wins; later lines with the same key are duplicates of it
+        Map<String, Prepared> firstByKey = new LinkedHashMap<>();
+        List<Order> toSave = new ArrayList<>();
+        for (Prepared p : prepared) {
+            if (p.order == null) {
+                continue;
+            }
+            if (p.key == null) {
+                toSave.add(p.order);
+                continue;
+            }
+            Long existingId = importedKeys.containsKey(p.key) ? importedKeys.get(p.key) : existingKeys.get(p.key);
+            if (existingId != null) {
+                p.duplicateOf(existingId);
+            } else if (firstByKey.containsKey(p.key)) {
+                p.duplicateOf(firstByKey.get(p.key));
+            } else {
+                firstByKey.put(p.key, p);
+                toSave.add(p.order);
+            }
+        }
+        
+        save(prepared, toSave, outlet);
+        
+        List<BulkOrderResult> results = new ArrayList<>(prepared.size());
+        int created = 0;
+        for (Prepared p : prepared) {
+            BulkOrderResult result = p.result();
+            if (BulkOrderResult.CREATED.equals(result.getStatus())) {
+                if (p.key != null) {
+                    importedKeys.put(p.key, result.getOrderId());
+                }
+                orderEvents.orderCreated(p.order);
+                kitchenQueue.orderCreated(p.order);
+                created++;
+            }
+            results.add(result);
+        }
+        orderMetrics.ordersImported(created);
+        return results;
+    }
+    
+    // One transaction and batched inserts for the chunk. If a till is replaying the same
+    // keys through POST /api/orders at the same time, fall back to one order at a time.
+    private void save(List<Prepared> prepared, List<Order> toSave, String outlet) {
+        if (toSave.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> orderRepository.saveAll(toSave));
+            return;
+        } catch (DataIntegrityViolationException e) {
+            // fall through: the batch's entities carry ids and item collections from the
+            // rolled-back session, so each order is rebuilt from its request below
+        }
+        for (Prepared p : prepared) {
+            if (p.order == null || p.duplicateOf != null || p.duplicateOfId != null) {
+                continue;
+            }
+            try {
+                p.rebuild(orderService.buildOrder(p.request, outlet));
+            } catch (IllegalArgumentException e) {
+                p.invalid(e.getMessage());
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> orderRepository.save(p.order));
+            } catch (DataIntegrityViolationException e) {
+                Long existingId = p.key == null ? null : orderRepository.findByOutletAndIdempotencyKey(outlet, p.key)
+                    .map(Order::getId)
+                    .orElse(null);
+                if (existingId == null) {
+                    p.invalid("Could not save order");
+                } else {
+                    p.duplicateOf(existingId);
+                }
+            }
+        }
+    }
+    
+    private Prepared prepare(Line line, String outlet) {
+        CreateOrderRequest request;
+        try {
+            request = jsonMapper.readValue(line.text, CreateOrderRequest.class);
+        } catch (JacksonException e) {
+            return new Prepared(line.number, null, null, null, "Malformed JSON");
+        }
+        
+        String key = request.getIdempotencyKey();
+        String error = validate(request);
+        if (error != null) {
+            return new Prepared(line.number, key, request, null, error);
+        }
+        try {
+            return new Prepared(line.number, key, request, orderService.buildOrder(request, outlet), null);
+        } catch (IllegalArgumentException e) {
+            return new Prepared(line.number, key, request, null, e.getMessage());
+        }
+    }
+    
+    private String validate(CreateOrderRequest request) {
+        if (request.getIdempotencyKey() != null
+            && (request.getIdempotencyKey().isBlank() || request.getIdempotencyKey().length() > MAX_KEY_LENGTH)) {
+            return "idempotencyKey must be 1-" + MAX_KEY_LENGTH + " characters";
+        }
+        if (request.getOrderItems() == null || request.getOrderItems().isEmpty()) {
+            return "Order has no items";
+        }
+        for (OrderItemDto item : request.getOrderItems()) {
+            if (item.getQuantity() == null || item.getQuantity() <= 0) {
+                return "Quantity must be positive";
+            }
+            if (item.getFoodItemId() == null && (item.getItemName() == null || item.getItemName().isBlank())) {
+                return "Item needs a foodItemId or itemName";
+            }
+        }
+        return null;
+    }
+    
+    private void write(List<BulkOrderResult> results, OutputStream out) throws IOException {
+        for (BulkOrderResult result : results) {
+            out.write(jsonMapper.writeValueAsBytes(result));
+            out.write('\n');
+        }
+        out.flush();
+    }
+    
+    private record Line(int number, String text) {}
+    
+    private static final class Prepared {
+        final int line;
+        final String key;
+        final CreateOrderRequest request;
+        Order order;
+        String error;
+        Prepared duplicateOf;
+        Long duplicateOfId;
+        
+        Prepared(int line, String key, CreateOrderRequest request, Order order, String error) {
+            this.line = line;
+            this.key = key;
+            this.request = request;
+            this.order = order;
+            this.error = error;
+        }
+        
+        void rebuild(Order order) { this.order = order; }
+        void duplicateOf(Long orderId) { this.duplicateOfId = orderId; }
+        void duplicateOf(Prepared first) { this.duplicateOf = first; }
+        void invalid(String error) { this.error = error; }
+        
+        BulkOrderResult result() {
+            if (error != null) {
+                return new BulkOrderResult(line, key, BulkOrderResult.INVALID, null, error);
+            }
+            if (duplicateOfId != null) {
+                return new BulkOrderResult(line, key, BulkOrderResult.DUPLICATE, duplicateOfId, null);
+            }
+            if (duplicateOf != null) {
+                BulkOrderResult first = duplicateOf.result();
+                return BulkOrderResult.CREATED.equals(first.getStatus()) || BulkOrderResult.DUPLICATE.equals(first.getStatus())
+                    ? new BulkOrderResult(line, key, BulkOrderResult.DUPLICATE, first.getOrderId(), null)
+                    : new BulkOrderResult(line, key, first.getStatus(), null, first.getError());
+            }
+            return new BulkOrderResult(line, key, BulkOrderResult.CREATED, order.getId(), null);
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.kamaths.foodpoint.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Accounting exports of sales and orders as CSV or NDJSON.
+ *
+ * Rows are read through a forward-only JDBC cursor ({@value #FETCH_SIZE} at a
+ * time) and written as they arrive, so memory use is the same for a day or a
+ * year of data. Nothing goes through the persistence context. Each export
+ * covers one outlet, read along its (outlet, created_at, id) index.
+ */
+@Service
+public class ExportService {
+
+    public static final String CSV = "csv";
+    public static final String NDJSON = "ndjson";
+    static final int FETCH_SIZE = 1000;
+    private static final int WRITE_BUFFER = 64 * 1024;
+
+    private static final String SALES_SQL =
+        "SELECT id, order_id, created_at, amount_paise FROM sales";
+    private static final String ORDERS_SQL =
+        "SELECT o.id, o.created_at, o.customer_name, o.customer_phone, o.payment_method, o.status, " +
+        "o.total_amount_paise, i.food_item_id, i.item_name, i.price_paise, i.quantity " +
+        "FROM orders o LEFT JOIN order_items i ON i.order_id = o.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnly;
+    private final JsonMapper jsonMapper;
+
+    public ExportService(DataSource dataSource, PlatformTransactionManager transactionManager, JsonMapper jsonMapper) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        // PostgreSQL only honours the fetch size (a server-side cursor) outside auto-commit
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.jsonMapper = jsonMapper;
+    }
+
+    public static void checkFormat(String format) {
+        if (!CSV.equals(format) && !NDJSON.equals(format)) {
+            throw new IllegalArgumentException("format must be csv or ndjson");
+        }
+    }
+
+    // from/to are inclusive days; either may be null for an open range
+    public void exportSales(LocalDate from, LocalDate to, String outlet, String format, OutputStream out) throws IOException {
+        checkFormat(format);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER);
+        JsonGenerator json = NDJSON.equals(format) ? ndjson(writer) : null;
+        if (json == null) {
+            writer.write("id,order_id,created_at,amount\r\n");
+        }
+        query(SALES_SQL, "outlet", "created_at", "ORDER BY created_at, id", outlet, from, to, rs -> {
+            long id = rs.getLong(1);
+            Long orderId = rs.getObject(2, Long.class);
+            LocalDateTime createdAt = rs.getObject(3, LocalDateTime.class);
+            long amountPaise = rs.getLong(4);
+            if (json != null) {
+                json.writeStartObject();
+                json.writeNumberProperty("id", id);
+                if (orderId != null) {
+                    json.writeNumberProperty("orderId", orderId);
+                }
+                json.writeStringProperty("createdAt", createdAt.toString());
+                json.writeNumberProperty("amount", rupees(amountPaise));
+                json.writeEndObject();
+                json.writeRaw('\n');
+            } else {
+                writer.write(Long.toString(id));
+                writer.write(',');
+                writer.write(orderId != null ? orderId.toString() : "");
+                writer.write(',');
+                writer.write(createdAt.toString());
+                writer.write(',');
+                writer.write(rupees(amountPaise).toPlainString());
+                writer.write("\r\n");
+            }
+        });
+        if (json != null) {
+            json.flush();
+        }
+        writer.flush();
+    }
+
+    // CSV: one row per order line, order columns repeated. NDJSON: one object per order with its items.
+    public void exportOrders(LocalDate from, LocalDate to, String outlet, String format, OutputStream out) throws IOException {
+        checkFormat(format);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER);
+        if (CSV.equals(format)) {
+            writer.write("order_id,created_at,customer_name,customer_phone,payment_method,status,order_total," +
+                "food_item_id,item_name,price,quantity\r\n");
+            query(ORDERS_SQL, "o.outlet", "o.created_at", "ORDER BY o.created_at, o.id, i.line_no", outlet, from, to, rs -> {
+                csvOrderRow(writer, rs);
+            });
+        } else {
+            JsonGenerator json = ndjson(writer);
+            OrderJson current = new OrderJson();
+            query(ORDERS_SQL, "o.outlet", "o.created_at", "ORDER BY o.created_at, o.id, i.line_no", outlet, from, to, rs -> {
+                long id = rs.getLong(1);
+                if (current.id == null || current.id != id) {
+                    current.write(json);
+                    current.read(rs, id);
+                }
+                if (rs.getString(9) != null) {
+                    current.items.add(new Object[] {
+                        rs.getObject(8, Long.class), rs.getString(9), rs.getLong(10), rs.getInt(11)});
+                }
+            });
+            current.write(json);
+            json.flush();
+        }
+        writer.flush();
+    }
+
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+    }
+
+    private void query(String select, String outletColumn, String dateColumn, String orderBy,
+                       String outlet, LocalDate from, LocalDate to, RowWriter rows) {
+        List<Object> args = new ArrayList<>(3);
+        StringBuilder sql = new StringBuilder(select);
+        sql.append(" WHERE ").append(outletColumn).append(" = ?");
+        args.add(outlet);
+        if (from != null) {
+            sql.append(" AND ").append(dateColumn).append(" >= ?");
+            args.add(from.atStartOfDay());
+        }
+        if (to != null) {
+            sql.append(" AND ").append(dateColumn).append(" < ?");
+            args.add(to.plusDays(1).atStartOfDay());
+        }
+        sql.append(' ').append(orderBy);
+
+        RowCallbackHandler handler = rs -> {
+            try {
+                rows.write(rs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e); // client went away - stop reading
+            }
+        };
+        readOnly.executeWithoutResult(status -> jdbcTemplate.query(sql.toString(), handler, args.toArray()));
+    }
+
+    private static void csvOrderRow(Writer writer, ResultSet rs) throws SQLException, IOException {
+        writer.write(Long.toString(rs.getLong(1)));
+        writer.write(',');
+        writer.write(rs.getObject(2, LocalDateTime.class).toString());
+        writer.write(',');
+        writeCsvText(writer, rs.getString(3));
+        writer.write(',');
+        writeCsvText(writer, rs.getString(4));
+        writer.write(',');
+        writeCsvText(writer, rs.getString(5));
+        writer.write(',');
+        writeCsvText(writer, rs.getString(6));
+        writer.write(',');
+        writer.write(rupees(rs.getLong(7)).toPlainString());
+        writer.write(',');
+        Long foodItemId = rs.getObject(8, Long.class);
+        writer.write(foodItemId != null ? foodItemId.toString() : "");
+        writer.write(',');
+        String itemName = rs.getString(9);
+        writeCsvText(writer, itemName);
+        writer.write(',');
+        if (itemName != null) {
+            writer.write(rupees(rs.getLong(10)).toPlainString());
+            writer.write(',');
+            writer.write(Integer.toString(rs.getInt(11)));
+        } else {
+            writer.write(',');
+        }
+        writer.write("\r\n");
+    }
+
+    // RFC 4180 quoting, plus a leading ' on anything a spreadsheet would run as a formula
+    static void writeCsvText(Writer writer, String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        char first = value.charAt(0);
+        if (first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r') {
+            value = "'" + value;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    // Rows are buffered by the generator; the line break is written through it to keep the order
+    private JsonGenerator ndjson(Writer writer) {
+        return jsonMapper.writer().withRootValueSeparator("").createGenerator(writer);
+    }
+
+    private static BigDecimal rupees(long paise) {
+        return BigDecimal.valueOf(paise, 2);
+    }
+
+    // The order being assembled from consecutive joined rows - only ever one in memory
+    private static final class OrderJson {
+        Long id;
+        LocalDateTime createdAt;
+        String customerName;
+        String customerPhone;
+        String paymentMethod;
+        String status;
+        long totalPaise;
+        final List<Object[]> items = new ArrayList<>();
+
+        void read(ResultSet rs, long id) throws SQLException {
+            this.id = id;
+            this.createdAt = rs.getObject(2, LocalDateTime.class);
+            this.customerName = rs.getString(3);
+            this.customerPhone = rs.getString(4);
+            this.paymentMethod = rs.getString(5);
+            this.status = rs.getString(6);
+            this.totalPaise = rs.getLong(7);
+            this.items.clear();
+        }
+
+        void write(JsonGenerator json) {
+            if (id == null) {
+                return;
+            }
+            json.writeStartObject();
+            json.writeNumberProperty("id", id);
+            json.writeStringProperty("createdAt", createdAt.toString());
+            json.writeStringProperty("customerName", customerName);
+            json.writeStringProperty("customerPhone", customerPhone);
+            json.writeStringProperty("paymentMethod", paymentMethod);
+            json.writeStringProperty("status", status);
+            json.writeNumberProperty("totalAmount", rupees(totalPaise));
+            json.writeArrayPropertyStart("orderItems");
+            for (Object[] item : items) {
+                json.writeStartObject();
+                if (item[0] != null) {
+                    json.writeNumberProperty("foodItemId", (Long) item[0]);
+                }
+                json.writeStringProperty("itemName", (String) item[1]);
+                json.writeNumberProperty("price", rupees((Long) item[2]));
+                json.writeNumberProperty("quantity", (Integer) item[3]);
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+    }
+}
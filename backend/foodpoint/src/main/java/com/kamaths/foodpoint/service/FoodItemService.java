@@ -2,8 +2,10 @@ package com.kamaths.foodpoint.service;
 
 import com.kamaths.foodpoint.dto.FoodItemRequestDto;
 import com.kamaths.foodpoint.entity.FoodItem;
+import com.kamaths.foodpoint.pricing.Money;
 import com.kamaths.foodpoint.repository.FoodItemRepository;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -12,70 +14,171 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class FoodItemService {
     
+    private static final String UPLOADS_URL = "/uploads/";
+    
     private final FoodItemRepository foodItemRepository;
+    private final ImageVariantGenerator imageVariants;
+    private final Outlets outlets;
+    
+    // ✅ Cached menu per outlet - rebuilt lazily after create/delete, one outlet's change leaves the rest
+    private final Map<String, MenuCatalog> catalogs = new ConcurrentHashMap<>();
+    private final AtomicLong catalogVersion = new AtomicLong();
     
     @Value("${app.upload.dir:/uploads}")
     private String uploadDir;
     
-    public FoodItemService(FoodItemRepository foodItemRepository) {
+    public FoodItemService(FoodItemRepository foodItemRepository, ImageVariantGenerator imageVariants, Outlets outlets) {
         this.foodItemRepository = foodItemRepository;
+        this.imageVariants = imageVariants;
+        this.outlets = outlets;
     }
     
     public FoodItem createFoodItem(FoodItemRequestDto dto) throws IOException {
-        String imageUrl = saveImage(dto.getImage());
+        return createFoodItem(dto, outlets.getDefault());
+    }
+    
+    public FoodItem createFoodItem(FoodItemRequestDto dto, String outlet) throws IOException {
+        Path imagePath = saveImage(dto.getImage());
         
         FoodItem foodItem = new FoodItem();
+        foodItem.setOutlet(outlet);
         foodItem.setName(dto.getName());
         foodItem.setCategory(dto.getCategory());
-        foodItem.setPrice(dto.getPrice());
-        foodItem.setImageUrl(imageUrl);
+        foodItem.setPricePaise(Money.toPaise(dto.getPrice()));
+        foodItem.setImageUrl(imagePath != null ? toUrl(imagePath) : null);
         
-        return foodItemRepository.save(foodItem);
+        FoodItem saved = foodItemRepository.save(foodItem);
+        invalidateCatalog(outlet);
+        if (imagePath != null) {
+            generateVariants(saved.getId(), outlet, imagePath);
+        }
+        return saved;
+    }
+    
+    // ✅ Thumbnail + medium are built in the background; the menu picks them up once stored
+    private void generateVariants(Long foodItemId, String outlet, Path original) {
+        imageVariants.generate(original).whenComplete((variants, error) -> {
+            if (error != null) {
+                // Not an image we can decode - the original stays the only copy
+                System.err.println("Image variants failed for food item " + foodItemId + " - " + error.getMessage());
+                return;
+            }
+            int updated = foodItemRepository.updateImageVariants(
+                foodItemId, toUrl(variants.thumbnail()), toUrl(variants.medium()));
+            if (updated == 0) {
+                // Item was deleted while we were resizing
+                deleteQuietly(variants.thumbnail());
+                deleteQuietly(variants.medium());
+            } else {
+                invalidateCatalog(outlet);
+            }
+        });
     }
     
     public List<FoodItem> getAllFoodItems() {
-        return foodItemRepository.findAll();
+        return getMenuCatalog().getItems();
+    }
+    
+    public MenuCatalog getMenuCatalog() {
+        return getMenuCatalog(outlets.getDefault());
+    }
+    
+    public MenuCatalog getMenuCatalog(String outlet) {
+        MenuCatalog current = catalogs.get(outlet);
+        if (current != null) {
+            return current;
+        }
+        // Only publish if nothing was invalidated while we were reading
+        long version = catalogVersion.get();
+        MenuCatalog loaded = new MenuCatalog(version, foodItemRepository.findByOutlet(outlet, Sort.by("id")));
+        synchronized (this) {
+            if (catalogVersion.get() == version) {
+                catalogs.put(outlet, loaded);
+            }
+        }
+        return loaded;
+    }
+    
+    private synchronized void invalidateCatalog(String outlet) {
+        catalogVersion.incrementAndGet();
+        catalogs.remove(outlet);
     }
     
-    // ✅ NEW DELETE METHOD
     public boolean deleteFoodItem(Long id) {
-        Optional<FoodItem> foodItemOpt = foodItemRepository.findById(id);
+        return deleteFoodItem(id, outlets.getDefault());
+    }
+    
+    // ✅ NEW DELETE METHOD - only the outlet's own items; another outlet's is not found
+    public boolean deleteFoodItem(Long id, String outlet) {
+        Optional<FoodItem> foodItemOpt = foodItemRepository.findByIdAndOutlet(id, outlet);
         if (foodItemOpt.isPresent()) {
             FoodItem foodItem = foodItemOpt.get();
             
-            // Delete image file if exists
-            if (foodItem.getImageUrl() != null && !foodItem.getImageUrl().isEmpty()) {
-                try {
-                    Path imagePath = Paths.get(uploadDir + foodItem.getImageUrl());
-                    Files.deleteIfExists(imagePath);
-                } catch (IOException e) {
-                    // Log but don't fail deletion if image can't be deleted
-                    System.err.println("Failed to delete image: " + foodItem.getImageUrl() + " - " + e.getMessage());
+            // Delete image files if they exist
+            String[] urls = {foodItem.getImageUrl(), foodItem.getThumbnailUrl(), foodItem.getMediumUrl()};
+            for (String url : urls) {
+                if (url != null && !url.isEmpty()) {
+                    deleteQuietly(resolveUpload(url));
                 }
             }
             
             foodItemRepository.deleteById(id);
+            invalidateCatalog(foodItem.getOutlet());
             return true;
         }
         return false;
     }
     
-    private String saveImage(MultipartFile image) throws IOException {
-        Path uploadPath = Paths.get(uploadDir);
+    // ✅ Streamed to disk - the upload is never held in memory whole
+    private Path saveImage(MultipartFile image) throws IOException {
+        if (image == null || image.isEmpty()) {
+            return null;
+        }
+        Path uploadPath = Paths.get(uploadDir).toAbsolutePath();
         if (!Files.exists(uploadPath)) {
             Files.createDirectories(uploadPath);
         }
         
-        String fileName = UUID.randomUUID() + "_" + image.getOriginalFilename();
-        Path filePath = uploadPath.resolve(fileName);
-        Files.write(filePath, image.getBytes());
-        
-        return "/uploads/" + fileName;
+        // Name is ours alone (UUID + extension); the client's file name never reaches the path
+        Path filePath = uploadPath.resolve(UUID.randomUUID() + extension(image.getOriginalFilename()));
+        image.transferTo(filePath);
+        return filePath;
+    }
+    
+    private static String extension(String fileName) {
+        if (fileName == null) {
+            return "";
+        }
+        int dot = fileName.lastIndexOf('.');
+        String ext = dot >= 0 ? fileName.substring(dot + 1).toLowerCase(Locale.ROOT) : "";
+        return ext.matches("[a-z0-9]{1,5}") ? "." + ext : "";
+    }
+    
+    private static String toUrl(Path file) {
+        return UPLOADS_URL + file.getFileName();
+    }
+    
+    private Path resolveUpload(String url) {
+        String fileName = url.startsWith(UPLOADS_URL) ? url.substring(UPLOADS_URL.length()) : url;
+        return Paths.get(uploadDir).resolve(Paths.get(fileName).getFileName());
+    }
+    
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Log but don't fail deletion if image can't be deleted
+            System.err.println("Failed to delete image: " + file.getFileName() + " - " + e.getMessage());
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,142 @@
+package com.kamaths.foodpoint.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Builds the smaller copies of an uploaded menu photo: a square thumbnail for
+ * the menu grid and a medium image for detail views, both JPEG.
+ *
+ * Runs on a small fixed pool, off the request thread. Decoding a phone photo
+ * takes tens of megabytes of raster, so at most {@value #WORKERS} run at once,
+ * and large sources are subsampled while decoding instead of after.
+ */
+@Component
+public class ImageVariantGenerator {
+
+    static final int THUMBNAIL_SIZE = 320;   // square, center-cropped - 2x the 160px menu tile
+    static final int MEDIUM_SIZE = 960;      // longest edge
+    private static final int WORKERS = 2;
+    private static final float JPEG_QUALITY = 0.82f;
+
+    private final ExecutorService executor =
+        Executors.newFixedThreadPool(WORKERS, Thread.ofPlatform().name("image-variants-", 0).daemon().factory());
+
+    public record Variants(Path thumbnail, Path medium) {}
+
+    // Writes <base>-thumb.jpg and <base>-medium.jpg next to the original
+    public CompletableFuture<Variants> generate(Path original) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return writeVariants(original);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not process image " + original.getFileName(), e);
+            }
+        }, executor);
+    }
+
+    Variants writeVariants(Path original) throws IOException {
+        BufferedImage source = decode(original, MEDIUM_SIZE);
+        String base = baseName(original);
+        Path thumbnail = original.resolveSibling(base + "-thumb.jpg");
+        Path medium = original.resolveSibling(base + "-medium.jpg");
+
+        int side = Math.min(source.getWidth(), source.getHeight());
+        BufferedImage square = source.getSubimage(
+            (source.getWidth() - side) / 2, (source.getHeight() - side) / 2, side, side);
+        writeJpeg(resize(square, THUMBNAIL_SIZE, THUMBNAIL_SIZE), thumbnail);
+
+        double scale = Math.min(1.0, (double) MEDIUM_SIZE / Math.max(source.getWidth(), source.getHeight()));
+        writeJpeg(resize(source,
+            Math.max(1, (int) Math.round(source.getWidth() * scale)),
+            Math.max(1, (int) Math.round(source.getHeight() * scale))), medium);
+
+        return new Variants(thumbnail, medium);
+    }
+
+    // Decodes at no less than minSize on the short edge, skipping pixels the variants won't use
+    private static BufferedImage decode(Path file, int minSize) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int shortEdge = Math.min(reader.getWidth(0), reader.getHeight(0));
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, shortEdge / minSize);
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage resize(BufferedImage source, int width, int height) {
+        // TYPE_INT_RGB on white: JPEG has no alpha, transparent PNG corners become white
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    // Written to a temp file and moved, so a half-written variant is never served
+    private static void writeJpeg(BufferedImage image, Path target) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String baseName(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,428 @@
+package com.kamaths.foodpoint.service;
+
+import com.kamaths.foodpoint.dto.KitchenLine;
+import com.kamaths.foodpoint.dto.KitchenQueueSnapshot;
+import com.kamaths.foodpoint.dto.KitchenStation;
+import com.kamaths.foodpoint.dto.KitchenTicket;
+import com.kamaths.foodpoint.entity.FoodItem;
+import com.kamaths.foodpoint.entity.Order;
+import com.kamaths.foodpoint.entity.OrderItem;
+import com.kamaths.foodpoint.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory kitchen display queue, fed by order creation, edits and deletes.
+ *
+ * Each order becomes one ticket per station - the menu category of its items,
+ * or {@value #DEFAULT_STATION} for manually entered ones. Tickets go queued ->
+ * preparing -> ready and leave the board when bumped.
+ *
+ * Within a station, queued tickets are ordered by a sort time fixed when the
+ * ticket is built: the order time, moved earlier for takeaways and later for
+ * big tickets (capped). Since it doesn't change while the ticket waits, age is
+ * built in - a ticket is overtaken only by ones that arrived less than the
+ * takeaway boost + size penalty after it.
+ *
+ * Prep times are rolling averages per menu item, learned from each ticket's
+ * start -> ready time. Every change rebuilds an immutable snapshot under the
+ * lock; readers just take the current one. Each outlet has its own board
+ * and snapshot; a change rebuilds only that outlet's. Prep estimates are per
+ * menu item, and items belong to one outlet, so they are never mixed. Pending
+ * orders from the last app.kitchen.reload-hours are put back on the board at startup.
+ */
+@Component
+public class KitchenQueue {
+
+    public static final String DEFAULT_STATION = "General";
+    static final double PREP_SMOOTHING = 0.2; // weight of the newest start -> ready time
+    private static final int MAX_PENALIZED_ITEMS = 10;
+    private static final long MAX_LEARNED_PREP_SECONDS = Duration.ofHours(2).toSeconds(); // forgotten tickets
+    private static final long SNAPSHOT_MAX_AGE_SECONDS = 15; // keeps estimates fresh on an idle board
+
+    private final FoodItemService foodItemService;
+    private final OrderRepository orderRepository;
+    private final Outlets outlets;
+    private final long defaultPrepSeconds;
+    private final long takeawayBoostSeconds;
+    private final long sizePenaltySeconds;
+    private final int stationSlots;
+    private final long reloadHours;
+
+    // Guarded by this
+    private final Map<Long, Map<String, Ticket>> ticketsByOrder = new HashMap<>();
+    private final Map<String, Double> prepSeconds = new HashMap<>();
+    private long version;
+
+    private final Map<String, KitchenQueueSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    public KitchenQueue(FoodItemService foodItemService, OrderRepository orderRepository, Outlets outlets,
+                        @Value("${app.kitchen.default-prep-seconds:300}") long defaultPrepSeconds,
+                        @Value("${app.kitchen.takeaway-boost-seconds:180}") long takeawayBoostSeconds,
+                        @Value("${app.kitchen.size-penalty-seconds:30}") long sizePenaltySeconds,
+                        @Value("${app.kitchen.station-slots:2}") int stationSlots,
+                        @Value("${app.kitchen.reload-hours:12}") long reloadHours) {
+        this.foodItemService = foodItemService;
+        this.orderRepository = orderRepository;
+        this.outlets = outlets;
+        this.defaultPrepSeconds = defaultPrepSeconds;
+        this.takeawayBoostSeconds = takeawayBoostSeconds;
+        this.sizePenaltySeconds = sizePenaltySeconds;
+        this.stationSlots = Math.max(1, stationSlots);
+        this.reloadHours = reloadHours;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        LocalDateTime since = LocalDateTime.now().minusHours(reloadHours);
+        List<Order> pending = orderRepository.findByStatusAndCreatedAtAfterOrderByCreatedAtDesc("pending", since);
+        Map<String, MenuCatalog> menus = new HashMap<>();
+        synchronized (this) {
+            for (Order order : pending) {
+                MenuCatalog menu = menus.computeIfAbsent(order.getOutlet(), foodItemService::getMenuCatalog);
+                put(order.getId(), new OrderTickets(order, menu));
+            }
+            LocalDateTime now = LocalDateTime.now();
+            for (String outlet : menus.keySet()) {
+                publish(now, outlet);
+            }
+        }
+    }
+
+    // ✅ Applied once the change commits; the order must have its items loaded
+    public void orderCreated(Order order) { orderChanged(order); }
+    public void orderUpdated(Order order) { orderChanged(order); }
+
+    public void orderDeleted(Long orderId) {
+        afterCommit(() -> {
+            synchronized (this) {
+                Map<String, Ticket> removed = ticketsByOrder.remove(orderId);
+                if (removed != null) {
+                    publish(LocalDateTime.now(), removed.values().iterator().next().order.outlet);
+                }
+            }
+        });
+    }
+
+    private void orderChanged(Order order) {
+        // Copied now: the entity may change again before the transaction commits
+        Long orderId = order.getId();
+        OrderTickets tickets = new OrderTickets(order, foodItemService.getMenuCatalog(order.getOutlet()));
+        afterCommit(() -> {
+            synchronized (this) {
+                put(orderId, tickets);
+                publish(LocalDateTime.now(), tickets.outlet);
+            }
+        });
+    }
+
+    public KitchenQueueSnapshot getSnapshot() {
+        return getSnapshot(outlets.getDefault());
+    }
+
+    public KitchenQueueSnapshot getSnapshot(String outlet) {
+        KitchenQueueSnapshot current = snapshots.get(outlet);
+        LocalDateTime now = LocalDateTime.now();
+        if (current == null || current.getGeneratedAt().isBefore(now.minusSeconds(SNAPSHOT_MAX_AGE_SECONDS))) {
+            synchronized (this) {
+                current = snapshots.get(outlet);
+                if (current == null || current.getGeneratedAt().isBefore(now.minusSeconds(SNAPSHOT_MAX_AGE_SECONDS))) {
+                    current = build(now, outlet);
+                    snapshots.put(outlet, current);
+                }
+            }
+        }
+        return current;
+    }
+
+    public KitchenTicket start(Long orderId, String station) {
+        return start(orderId, station, outlets.getDefault());
+    }
+
+    // A ticket is only found on its own outlet's board
+    public KitchenTicket start(Long orderId, String station, String outlet) {
+        return start(orderId, station, outlet, LocalDateTime.now());
+    }
+
+    public KitchenTicket markReady(Long orderId, String station) {
+        return markReady(orderId, station, outlets.getDefault());
+    }
+
+    public KitchenTicket markReady(Long orderId, String station, String outlet) {
+        return markReady(orderId, station, outlet, LocalDateTime.now());
+    }
+
+    public void bump(Long orderId, String station) {
+        bump(orderId, station, outlets.getDefault());
+    }
+
+    // Picked up / served - the ticket leaves the board
+    public synchronized void bump(Long orderId, String station, String outlet) {
+        Ticket ticket = find(orderId, station, outlet);
+        Map<String, Ticket> tickets = ticketsByOrder.get(orderId);
+        tickets.remove(station);
+        if (tickets.isEmpty()) {
+            ticketsByOrder.remove(orderId);
+        }
+        publish(LocalDateTime.now(), ticket.order.outlet);
+    }
+
+    synchronized KitchenTicket start(Long orderId, String station, String outlet, LocalDateTime now) {
+        Ticket ticket = find(orderId, station, outlet);
+        if (!KitchenTicket.QUEUED.equals(ticket.status)) {
+            throw new IllegalStateException("Ticket is already " + ticket.status);
+        }
+        ticket.status = KitchenTicket.PREPARING;
+        ticket.startedAt = now;
+        return ticketView(orderId, station, ticket.order.outlet, now);
+    }
+
+    // Queued tickets can go straight to ready (nothing to cook), but only timed ones teach the averages
+    synchronized KitchenTicket markReady(Long orderId, String station, String outlet, LocalDateTime now) {
+        Ticket ticket = find(orderId, station, outlet);
+        if (KitchenTicket.READY.equals(ticket.status)) {
+            throw new IllegalStateException("Ticket is already ready");
+        }
+        if (ticket.startedAt != null) {
+            learn(ticket, Duration.between(ticket.startedAt, now).toSeconds());
+        }
+        ticket.status = KitchenTicket.READY;
+        ticket.readyAt = now;
+        return ticketView(orderId, station, ticket.order.outlet, now);
+    }
+
+    // Current estimate for one menu item (or manually entered item name)
+    public synchronized long getPrepSeconds(Long foodItemId, String itemName) {
+        return Math.round(prepSeconds.getOrDefault(itemKey(foodItemId, itemName), (double) defaultPrepSeconds));
+    }
+
+    private void put(Long orderId, OrderTickets order) {
+        Map<String, Ticket> existing = ticketsByOrder.getOrDefault(orderId, Map.of());
+        Map<String, Ticket> tickets = new HashMap<>();
+        order.linesByStation.forEach((station, lines) -> {
+            Ticket ticket = existing.get(station);
+            if (ticket == null) {
+                ticket = new Ticket(order, lines);
+            } else {
+                // A ready ticket that got more to cook goes back in the queue
+                if (KitchenTicket.READY.equals(ticket.status) && !ticket.lines.equals(lines)) {
+                    ticket.status = KitchenTicket.QUEUED;
+                    ticket.startedAt = null;
+                    ticket.readyAt = null;
+                }
+                ticket.order = order;
+                ticket.lines = lines;
+            }
+            ticket.sortTime = sortTime(order, lines);
+            tickets.put(station, ticket);
+        });
+        if (tickets.isEmpty()) {
+            ticketsByOrder.remove(orderId);
+        } else {
+            ticketsByOrder.put(orderId, tickets);
+        }
+    }
+
+    private Ticket find(Long orderId, String station, String outlet) {
+        Map<String, Ticket> tickets = ticketsByOrder.get(orderId);
+        Ticket ticket = tickets != null ? tickets.get(station) : null;
+        if (ticket == null || !ticket.order.outlet.equals(outlet)) {
+            throw new RuntimeException("No " + station + " ticket for order " + orderId);
+        }
+        return ticket;
+    }
+
+    private KitchenTicket ticketView(Long orderId, String station, String outlet, LocalDateTime now) {
+        publish(now, outlet);
+        for (KitchenStation board : snapshots.get(outlet).getStations()) {
+            for (KitchenTicket ticket : board.getTickets()) {
+                if (ticket.getOrderId().equals(orderId) && ticket.getStation().equals(station)) {
+                    return ticket;
+                }
+            }
+        }
+        throw new IllegalStateException("Ticket missing from snapshot");
+    }
+
+    private void learn(Ticket ticket, long seconds) {
+        if (seconds <= 0 || seconds > MAX_LEARNED_PREP_SECONDS) {
+            return;
+        }
+        // The default is the starting point, so one odd ticket doesn't set a new item's estimate
+        for (TicketLine line : ticket.lines) {
+            prepSeconds.compute(line.key(), (key, average) -> {
+                double current = average != null ? average : defaultPrepSeconds;
+                return current + PREP_SMOOTHING * (seconds - current);
+            });
+        }
+    }
+
+    // Items on a ticket cook side by side, so the slowest one decides
+    private long estimate(List<TicketLine> lines) {
+        double slowest = 0;
+        for (TicketLine line : lines) {
+            slowest = Math.max(slowest, prepSeconds.getOrDefault(line.key(), (double) defaultPrepSeconds));
+        }
+        return Math.round(slowest);
+    }
+
+    private LocalDateTime sortTime(OrderTickets order, List<TicketLine> lines) {
+        int items = 0;
+        for (TicketLine line : lines) {
+            items += line.quantity();
+        }
+        long penalty = Math.min(Math.max(items - 1, 0), MAX_PENALIZED_ITEMS) * sizePenaltySeconds;
+        long boost = order.takeaway ? takeawayBoostSeconds : 0;
+        return order.createdAt.plusSeconds(penalty - boost);
+    }
+
+    private void publish(LocalDateTime now, String outlet) {
+        version++;
+        snapshots.put(outlet, build(now, outlet));
+    }
+
+    private KitchenQueueSnapshot build(LocalDateTime now, String outlet) {
+        Map<String, List<Map.Entry<Long, Ticket>>> byStation = new TreeMap<>();
+        ticketsByOrder.forEach((orderId, tickets) -> tickets.forEach((station, ticket) -> {
+            if (ticket.order.outlet.equals(outlet)) {
+                byStation.computeIfAbsent(station, s -> new ArrayList<>()).add(Map.entry(orderId, ticket));
+            }
+        }));
+
+        List<KitchenStation> stations = new ArrayList<>(byStation.size());
+        byStation.forEach((station, tickets) -> {
+            tickets.sort(Comparator.comparingInt((Map.Entry<Long, Ticket> e) -> e.getValue().rank())
+                .thenComparing(e -> e.getValue().boardTime())
+                .thenComparing(Map.Entry::getKey));
+
+            // Each slot is one ticket being cooked; the next ticket takes whichever frees up first
+            PriorityQueue<LocalDateTime> slots = new PriorityQueue<>();
+            for (int i = 0; i < stationSlots; i++) {
+                slots.add(now);
+            }
+            List<KitchenTicket> views = new ArrayList<>(tickets.size());
+            for (Map.Entry<Long, Ticket> entry : tickets) {
+                Ticket ticket = entry.getValue();
+                long prep = estimate(ticket.lines);
+                LocalDateTime readyAt;
+                if (KitchenTicket.READY.equals(ticket.status)) {
+                    readyAt = ticket.readyAt;
+                } else {
+                    LocalDateTime free = slots.poll();
+                    LocalDateTime begin = ticket.startedAt != null ? ticket.startedAt : free;
+                    readyAt = begin.plusSeconds(prep);
+                    if (readyAt.isBefore(free)) {
+                        readyAt = free; // running late - say "now", not a time in the past
+                    }
+                    slots.add(readyAt);
+                }
+                views.add(ticket.view(entry.getKey(), station, prep, readyAt));
+            }
+            stations.add(new KitchenStation(station, List.copyOf(views)));
+        });
+        return new KitchenQueueSnapshot(version, now, List.copyOf(stations));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static String itemKey(Long foodItemId, String itemName) {
+        return foodItemId != null ? "#" + foodItemId
+            : Objects.requireNonNullElse(itemName, "").trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record TicketLine(String key, String itemName, int quantity) {}
+
+    // What the kitchen needs from an order, grouped by station
+    private static final class OrderTickets {
+        final String outlet;
+        final String customerName;
+        final String notes;
+        final String orderType;
+        final boolean takeaway;
+        final LocalDateTime createdAt;
+        final Map<String, List<TicketLine>> linesByStation = new LinkedHashMap<>();
+
+        OrderTickets(Order order, MenuCatalog menu) {
+            outlet = order.getOutlet();
+            customerName = order.getCustomerName();
+            notes = order.getNotes();
+            orderType = order.getOrderType();
+            takeaway = order.isTakeaway();
+            createdAt = order.getCreatedAt() != null ? order.getCreatedAt() : LocalDateTime.now();
+            for (OrderItem item : order.getOrderItems()) {
+                FoodItem menuItem = menu.findById(item.getFoodItemId());
+                String station = menuItem != null ? menuItem.getCategory() : DEFAULT_STATION;
+                linesByStation.computeIfAbsent(station, s -> new ArrayList<>())
+                    .add(new TicketLine(itemKey(item.getFoodItemId(), item.getItemName()), item.getItemName(), item.getQuantity()));
+            }
+        }
+    }
+
+    private static final class Ticket {
+        OrderTickets order;
+        List<TicketLine> lines;
+        String status = KitchenTicket.QUEUED;
+        LocalDateTime sortTime;
+        LocalDateTime startedAt;
+        LocalDateTime readyAt;
+
+        Ticket(OrderTickets order, List<TicketLine> lines) {
+            this.order = order;
+            this.lines = lines;
+        }
+
+        int rank() {
+            return switch (status) {
+                case KitchenTicket.PREPARING -> 0;
+                case KitchenTicket.QUEUED -> 1;
+                default -> 2;
+            };
+        }
+
+        LocalDateTime boardTime() {
+            return switch (status) {
+                case KitchenTicket.PREPARING -> startedAt;
+                case KitchenTicket.QUEUED -> sortTime;
+                default -> readyAt;
+            };
+        }
+
+        KitchenTicket view(Long orderId, String station, long prepSeconds, LocalDateTime estimatedReadyAt) {
+            List<KitchenLine> kitchenLines = new ArrayList<>(lines.size());
+            for (TicketLine line : lines) {
+                kitchenLines.add(new KitchenLine(line.itemName(), line.quantity()));
+            }
+            return new KitchenTicket(orderId, station, status, order.orderType, order.customerName, order.notes,
+                order.createdAt, startedAt, readyAt, prepSeconds, estimatedReadyAt, List.copyOf(kitchenLines));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.kamaths.foodpoint.service;
+
+import com.kamaths.foodpoint.dto.FoodItemResponse;
+import com.kamaths.foodpoint.entity.FoodItem;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the menu. A new one is built whenever an item is
+ * added or removed; readers just grab the current reference.
+ */
+public final class MenuCatalog {
+
+    private final long version;
+    private final List<FoodItem> items;
+    private final List<FoodItemResponse> responses;
+    private final Map<Long, FoodItem> byId;
+    private final Map<String, FoodItem> byName;
+    private final String etag;
+    private volatile MenuSearchIndex searchIndex;
+
+    MenuCatalog(long version, List<FoodItem> items) {
+        this.version = version;
+        this.items = List.copyOf(items);
+        List<FoodItemResponse> responses = new ArrayList<>(items.size());
+        this.byId = new HashMap<>(items.size() * 2);
+        this.byName = new HashMap<>(items.size() * 2);
+        for (FoodItem item : items) {
+            byId.put(item.getId(), item);
+            byName.putIfAbsent(normalize(item.getName()), item);
+            responses.add(new FoodItemResponse(item));
+        }
+        this.responses = List.copyOf(responses);
+        this.etag = "\"" + contentHash(items) + "\"";
+    }
+
+    public long getVersion() { return version; }
+    public List<FoodItem> getItems() { return items; }
+    // Built once per menu version, so serving the menu doesn't re-map the entities each time
+    public List<FoodItemResponse> getResponses() { return responses; }
+    public String getEtag() { return etag; }
+
+    // Built on the first search against this version of the menu
+    public MenuSearchIndex getSearchIndex() {
+        MenuSearchIndex index = searchIndex;
+        if (index == null) {
+            index = new MenuSearchIndex(items);
+            searchIndex = index;
+        }
+        return index;
+    }
+
+    public FoodItem findById(Long id) {
+        return id != null ? byId.get(id) : null;
+    }
+
+    public FoodItem findByName(String name) {
+        return name != null ? byName.get(normalize(name)) : null;
+    }
+
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Strong ETag: derived from the content, so it stays stable across restarts
+    private static String contentHash(List<FoodItem> items) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (FoodItem item : items) {
+                String row = item.getId() + "|" + item.getName() + "|" + item.getCategory() + "|"
+                    + item.getPricePaise() + "|" + item.getImageUrl() + "|" + item.getThumbnailUrl() + "|"
+                    + item.getMediumUrl() + "\n";
+                digest.update(row.getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.kamaths.foodpoint.service;
+
+import com.kamaths.foodpoint.entity.FoodItem;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ToLongFunction;
+
+/**
+ * Typeahead index over menu item names and categories.
+ *
+ * Every word is folded to a spelling-neutral key first, so the usual ways of
+ * writing the same dish meet: dosa/dosai, idli/idly, vada/wada,
+ * sambar/sambhar, chapati/chapathi, biryani/biriyani. The keys go into a sorted
+ * term array (prefix lookup is a binary search) and a bigram table for typos.
+ *
+ * Each query word must match a name or category word - exactly, as a prefix
+ * (the word still being typed), or within one or two edits. Name matches beat
+ * category matches, and equally good matches are ranked by popularity.
+ * Immutable; built once per {@link MenuCatalog}.
+ */
+public final class MenuSearchIndex {
+
+    private static final int EXACT = 3;
+    private static final int PREFIX = 2;
+    private static final int FUZZY = 1;
+    private static final int NAME_WEIGHT = 2;
+    private static final int CATEGORY_WEIGHT = 1;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int MAX_QUERY_WORDS = 8;
+
+    private final List<FoodItem> items;
+    private final String[] terms; // folded, sorted, distinct
+    private final int[][] postings; // per term: item index << 1, low bit set for a category word
+    private final Map<String, int[]> termsByBigram;
+
+    public MenuSearchIndex(List<FoodItem> items) {
+        this.items = List.copyOf(items);
+
+        TreeMap<String, List<Integer>> byTerm = new TreeMap<>();
+        for (int i = 0; i < this.items.size(); i++) {
+            FoodItem item = this.items.get(i);
+            for (String word : foldAll(item.getName())) {
+                addPosting(byTerm, word, i << 1);
+            }
+            for (String word : foldAll(item.getCategory())) {
+                addPosting(byTerm, word, i << 1 | 1);
+            }
+        }
+
+        terms = byTerm.keySet().toArray(new String[0]);
+        postings = new int[terms.length][];
+        Map<String, List<Integer>> bigrams = new HashMap<>();
+        for (int t = 0; t < terms.length; t++) {
+            postings[t] = byTerm.get(terms[t]).stream().mapToInt(Integer::intValue).toArray();
+            for (String bigram : bigrams(terms[t])) {
+                List<Integer> ids = bigrams.computeIfAbsent(bigram, b -> new ArrayList<>());
+                if (ids.isEmpty() || ids.get(ids.size() - 1) != t) {
+                    ids.add(t);
+                }
+            }
+        }
+        termsByBigram = new HashMap<>(bigrams.size() * 2);
+        bigrams.forEach((bigram, ids) -> termsByBigram.put(bigram, ids.stream().mapToInt(Integer::intValue).toArray()));
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * Positions (in the list the index was built from) of the best matches, best
+     * first. Empty for a query with no letters or digits.
+     */
+    public int[] search(String query, int limit, ToLongFunction<FoodItem> popularity) {
+        List<String> words = foldAll(query);
+        if (words.isEmpty() || limit <= 0) {
+            return new int[0];
+        }
+        if (words.size() > MAX_QUERY_WORDS) {
+            words = words.subList(0, MAX_QUERY_WORDS);
+        }
+
+        int[] total = new int[items.size()];
+        int[] matchedWords = new int[items.size()];
+        int[] best = new int[items.size()];
+        for (int w = 0; w < words.size(); w++) {
+            Arrays.fill(best, 0);
+            scoreWord(words.get(w), best);
+            for (int i = 0; i < best.length; i++) {
+                if (best[i] > 0 && matchedWords[i] == w) {
+                    total[i] += best[i];
+                    matchedWords[i]++;
+                }
+            }
+        }
+
+        int required = words.size();
+        int count = 0;
+        for (int m : matchedWords) {
+            if (m == required) {
+                count++;
+            }
+        }
+        Integer[] hits = new Integer[count];
+        long[] popular = new long[items.size()];
+        count = 0;
+        for (int i = 0; i < matchedWords.length; i++) {
+            if (matchedWords[i] == required) {
+                hits[count++] = i;
+                popular[i] = popularity.applyAsLong(items.get(i));
+            }
+        }
+        Arrays.sort(hits, (a, b) -> {
+            if (total[a] != total[b]) return Integer.compare(total[b], total[a]);
+            if (popular[a] != popular[b]) return Long.compare(popular[b], popular[a]);
+            String nameA = items.get(a).getName();
+            String nameB = items.get(b).getName();
+            if (nameA.length() != nameB.length()) return Integer.compare(nameA.length(), nameB.length());
+            return nameA.compareToIgnoreCase(nameB);
+        });
+
+        int[] result = new int[Math.min(limit, hits.length)];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = hits[i];
+        }
+        return result;
+    }
+
+    // Best score of one query word against each item's words
+    private void scoreWord(String word, int[] best) {
+        // Exact and prefix: the terms starting with word sit together in the sorted array
+        int from = lowerBound(word);
+        for (int t = from; t < terms.length && terms[t].startsWith(word); t++) {
+            apply(t, terms[t].length() == word.length() ? EXACT : PREFIX, best);
+        }
+
+        if (word.length() < MIN_FUZZY_LENGTH) {
+            return;
+        }
+        int maxEdits = word.length() >= 7 ? 2 : 1;
+        boolean[] seen = new boolean[terms.length];
+        for (String bigram : bigrams(word)) {
+            int[] candidates = termsByBigram.get(bigram);
+            if (candidates == null) {
+                continue;
+            }
+            for (int t : candidates) {
+                if (seen[t] || terms[t].startsWith(word)) {
+                    continue;
+                }
+                seen[t] = true;
+                if (withinEdits(word, terms[t], maxEdits)) {
+                    apply(t, FUZZY, best);
+                }
+            }
+        }
+    }
+
+    private void apply(int term, int kind, int[] best) {
+        for (int posting : postings[term]) {
+            int score = kind * ((posting & 1) == 0 ? NAME_WEIGHT : CATEGORY_WEIGHT);
+            int item = posting >>> 1;
+            if (score > best[item]) {
+                best[item] = score;
+            }
+        }
+    }
+
+    private int lowerBound(String word) {
+        int index = Arrays.binarySearch(terms, word);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Whether word is within maxEdits of the term, or of the start of it (the
+     * rest not typed yet). Plain Levenshtein over the term's prefixes, stopping
+     * once a whole row is past the limit.
+     */
+    static boolean withinEdits(String word, String term, int maxEdits) {
+        int n = word.length();
+        int m = Math.min(term.length(), n + maxEdits);
+        int[] previous = new int[n + 1];
+        int[] current = new int[n + 1];
+        for (int i = 0; i <= n; i++) {
+            previous[i] = i;
+        }
+        if (previous[n] <= maxEdits) {
+            return true;
+        }
+        for (int j = 1; j <= m; j++) {
+            current[0] = j;
+            int rowMin = current[0];
+            for (int i = 1; i <= n; i++) {
+                int cost = word.charAt(i - 1) == term.charAt(j - 1) ? 0 : 1;
+                current[i] = Math.min(Math.min(current[i - 1] + 1, previous[i] + 1), previous[i - 1] + cost);
+                rowMin = Math.min(rowMin, current[i]);
+            }
+            if (current[n] <= maxEdits) {
+                return true;
+            }
+            if (rowMin > maxEdits) {
+                return false;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return false;
+    }
+
+    static List<String> foldAll(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) {
+            return words;
+        }
+        String plain = Normalizer.normalize(text, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i <= plain.length(); i++) {
+            char c = i < plain.length() ? plain.charAt(i) : ' ';
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                word.append(c);
+            } else if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                // accent stripped by NFD - part of the same word
+            } else if (!word.isEmpty()) {
+                String folded = fold(word.toString());
+                if (!folded.isEmpty()) {
+                    words.add(folded);
+                }
+                word.setLength(0);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Spelling-neutral key for one lower-case word. Aspirates and long vowels
+     * are flattened (th/t, bh/b, ee/i, oo/u), w/v, y/i and c/k/q are merged,
+     * doubled letters collapse, and a trailing vowel is dropped when at least
+     * three letters remain - so dosa and dosai both become "dos".
+     */
+    static String fold(String word) {
+        String s = word
+            .replace("ch", "C") // keep ch apart from c/k
+            .replace("zh", "l")
+            .replace("sh", "s")
+            .replace("th", "t")
+            .replace("dh", "d")
+            .replace("bh", "b")
+            .replace("kh", "k")
+            .replace("gh", "g")
+            .replace("ph", "p")
+            .replace("jh", "j")
+            .replace("ee", "i")
+            .replace("oo", "u")
+            .replace('c', 'k')
+            .replace('q', 'k')
+            .replace('w', 'v')
+            .replace('y', 'i')
+            .replace('C', 'c');
+
+        StringBuilder out = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (out.isEmpty() || out.charAt(out.length() - 1) != c) {
+                out.append(c);
+            }
+        }
+        int end = out.length();
+        while (end > 3 && isVowel(out.charAt(end - 1))) {
+            end--;
+        }
+        return out.substring(0, end);
+    }
+
+    private static boolean isVowel(char c) {
+        return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u';
+    }
+
+    private static List<String> bigrams(String term) {
+        List<String> bigrams = new ArrayList<>(Math.max(1, term.length() - 1));
+        for (int i = 0; i + 2 <= term.length(); i++) {
+            bigrams.add(term.substring(i, i + 2));
+        }
+        return bigrams;
+    }
+
+    private static void addPosting(TreeMap<String, List<Integer>> byTerm, String term, int posting) {
+        // Items are added in order, so a repeated word on the same item is always the last entry
+        List<Integer> list = byTerm.computeIfAbsent(term, t -> new ArrayList<>());
+        if (list.isEmpty() || list.get(list.size() - 1) != posting) {
+            list.add(posting);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.kamaths.foodpoint.service;
+
+import com.kamaths.foodpoint.dto.FoodItemResponse;
+import com.kamaths.foodpoint.dto.ItemSales;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Typeahead search for order entry. Matching runs against the current menu's
+ * {@link MenuSearchIndex}, which is rebuilt with the catalog whenever an item
+ * is added or removed. Ties are broken by how much each item sold over the last
+ * app.menu.search.popularity-days, refreshed in the background from the sales facts.
+ * Each outlet searches its own menu; item ids are unique across outlets, so one
+ * popularity map serves them all.
+ */
+@Service
+public class MenuSearchService {
+
+    private static final int MAX_POPULAR_ITEMS = 10_000;
+
+    private final FoodItemService foodItemService;
+    private final SalesAnalyticsService salesAnalytics;
+    private final Outlets outlets;
+    private final int popularityDays;
+
+    private volatile Map<Long, Long> soldByItem = Map.of();
+
+    public MenuSearchService(FoodItemService foodItemService, SalesAnalyticsService salesAnalytics, Outlets outlets,
+                             @Value("${app.menu.search.popularity-days:30}") int popularityDays) {
+        this.foodItemService = foodItemService;
+        this.salesAnalytics = salesAnalytics;
+        this.outlets = outlets;
+        this.popularityDays = Math.max(1, popularityDays);
+    }
+
+    public List<FoodItemResponse> search(String query, int limit) {
+        return search(query, limit, outlets.getDefault());
+    }
+
+    public List<FoodItemResponse> search(String query, int limit, String outlet) {
+        MenuCatalog catalog = foodItemService.getMenuCatalog(outlet);
+        Map<Long, Long> sold = soldByItem;
+        int[] hits = catalog.getSearchIndex().search(query, limit, item -> sold.getOrDefault(item.getId(), 0L));
+
+        List<FoodItemResponse> responses = catalog.getResponses();
+        List<FoodItemResponse> results = new ArrayList<>(hits.length);
+        for (int hit : hits) {
+            results.add(responses.get(hit));
+        }
+        return results;
+    }
+
+    // One indexed read of the item facts per outlet; runs at startup and then every few minutes
+    @Scheduled(fixedDelayString = "${app.menu.search.popularity-refresh-ms:600000}")
+    public void refreshPopularity() {
+        LocalDate today = LocalDate.now();
+        Map<Long, Long> sold = new HashMap<>();
+        for (String outlet : outlets.getAll()) {
+            for (ItemSales item : salesAnalytics.getBestSellers(today.minusDays(popularityDays - 1), today,
+                    SalesAnalyticsService.BY_QUANTITY, MAX_POPULAR_ITEMS, outlet)) {
+                if (item.getFoodItemId() != null) {
+                    sold.merge(item.getFoodItemId(), item.getQuantity(), Long::sum);
+                }
+            }
+        }
+        soldByItem = sold;
+    }
+}
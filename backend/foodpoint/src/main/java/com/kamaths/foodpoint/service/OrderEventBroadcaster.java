@@ -0,0 +1,193 @@
+package com.kamaths.foodpoint.service;
+
+import com.kamaths.foodpoint.dto.OrderResponse;
+import com.kamaths.foodpoint.entity.Order;
+import jakarta.annotation.PreDestroy;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Live order feed for the kitchen/orders screens (server-sent events).
+ *
+ * Each event is serialized once and fanned out to every subscriber. A
+ * subscriber is a bounded queue drained by its own virtual thread, so an idle
+ * screen costs a parked virtual thread and a slow one can't hold up the rest.
+ * The last {@value #HISTORY_SIZE} events are kept so a reconnecting client can
+ * resume from its Last-Event-ID instead of reloading everything. Subscribers
+ * only get their own outlet's events; ids are shared, so a resume works the same.
+ */
+@Component
+public class OrderEventBroadcaster {
+
+    static final int HISTORY_SIZE = 1000;
+    static final int SUBSCRIBER_QUEUE_SIZE = HISTORY_SIZE + 64; // room for a full replay
+    private static final long EMITTER_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(30);
+    private static final long HEARTBEAT_SECONDS = 20;
+
+    private final JsonMapper jsonMapper;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final Deque<Event> history = new ArrayDeque<>(HISTORY_SIZE);
+    private long lastEventId;
+
+    private final ScheduledExecutorService heartbeat =
+        Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("order-events-heartbeat").factory());
+
+    public OrderEventBroadcaster(JsonMapper jsonMapper) {
+        this.jsonMapper = jsonMapper;
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeat, HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public void orderCreated(Order order) { publish("created", order.getId(), order.getOutlet(), order); }
+    public void orderUpdated(Order order) { publish("updated", order.getId(), order.getOutlet(), order); }
+    public void orderPaid(Order order) { publish("paid", order.getId(), order.getOutlet(), order); }
+    public void orderDeleted(Long orderId, String outlet) { publish("deleted", orderId, outlet, null); }
+
+    private void publish(String type, Long orderId, String outlet, Order order) {
+        Map<String, Object> body = order != null
+            ? Map.of("type", type, "orderId", orderId, "order", new OrderResponse(order))
+            : Map.of("type", type, "orderId", orderId);
+        String json = jsonMapper.writeValueAsString(body);
+
+        synchronized (this) {
+            Event event = new Event(++lastEventId, type, outlet, json);
+            if (history.size() == HISTORY_SIZE) {
+                history.removeFirst();
+            }
+            history.addLast(event);
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    /**
+     * Opens a stream. With a lastEventId still in the history, the missed
+     * events are replayed first; if it is too old, a "reset" event tells the
+     * client to reload /api/orders/pending once.
+     */
+    public SseEmitter subscribe(Long lastEventId, String outlet) {
+        return subscribe(lastEventId, outlet, new SseEmitter(EMITTER_TIMEOUT_MS));
+    }
+
+    SseEmitter subscribe(Long lastEventId, String outlet, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter, outlet);
+
+        // Replay and registration happen under the publish lock so nothing is missed or sent twice
+        synchronized (this) {
+            if (lastEventId != null) {
+                boolean evicted = !history.isEmpty() && lastEventId < history.peekFirst().id - 1;
+                boolean fromEarlierRun = lastEventId > this.lastEventId; // ids restart with the server
+                if (evicted || fromEarlierRun) {
+                    subscriber.offer(new Event(this.lastEventId, "reset", null, "{\"type\":\"reset\"}"));
+                } else {
+                    for (Event event : history) {
+                        if (event.id > lastEventId) {
+                            subscriber.offer(event);
+                        }
+                    }
+                }
+            }
+            subscribers.add(subscriber);
+        }
+
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        Thread.ofVirtual().name("order-events-subscriber").start(subscriber);
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    private void sendHeartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(Event.HEARTBEAT);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        for (Subscriber subscriber : new ArrayList<>(subscribers)) {
+            subscriber.emitter.complete();
+            subscriber.close();
+        }
+    }
+
+    // outlet is null for events every subscriber gets (reset, heartbeat)
+    private record Event(long id, String type, String outlet, String json) {
+        static final Event HEARTBEAT = new Event(-1, "heartbeat", null, null);
+    }
+
+    private final class Subscriber implements Runnable {
+        private final SseEmitter emitter;
+        private final String outlet;
+        private final BlockingQueue<Event> queue = new LinkedBlockingQueue<>(SUBSCRIBER_QUEUE_SIZE);
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, String outlet) {
+            this.emitter = emitter;
+            this.outlet = outlet;
+        }
+
+        void offer(Event event) {
+            if (event.outlet != null && !event.outlet.equals(outlet)) {
+                return;
+            }
+            // A client this far behind is dropped; it reconnects with Last-Event-ID and catches up
+            if (!closed && !queue.offer(event)) {
+                emitter.complete();
+                close();
+            }
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+            queue.offer(Event.HEARTBEAT); // wake the sender so it can exit
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!closed) {
+                    Event event = queue.take();
+                    if (closed) {
+                        break;
+                    }
+                    if (event == Event.HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        emitter.send(SseEmitter.event()
+                            .id(String.valueOf(event.id))
+                            .name(event.type)
+                            .data(event.json, MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // client went away
+                close();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+            }
+        }
+    }
+}
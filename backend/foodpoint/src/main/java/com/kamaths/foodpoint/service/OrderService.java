@@ -1,120 +1,402 @@
 package com.kamaths.foodpoint.service;
 
 import com.kamaths.foodpoint.dto.CreateOrderRequest;
+import com.kamaths.foodpoint.dto.CursorPage;
+import com.kamaths.foodpoint.dto.OrderItemDto;
+import com.kamaths.foodpoint.dto.OrderLineChange;
+import com.kamaths.foodpoint.dto.OrderPatchRequest;
+import com.kamaths.foodpoint.dto.PageCursor;
+import com.kamaths.foodpoint.entity.FoodItem;
 import com.kamaths.foodpoint.entity.Order;
 import com.kamaths.foodpoint.entity.OrderItem;
+import com.kamaths.foodpoint.pricing.Money;
+import com.kamaths.foodpoint.pricing.PricingCalculator;
 import com.kamaths.foodpoint.repository.OrderRepository;
-import com.kamaths.foodpoint.service.SalesService; // ✅ IMPORT
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.TreeSet;
 
 @Service
 public class OrderService {
     
+    private static final int MAX_KEY_LENGTH = 100; // orders.payment_key
+    
     private final OrderRepository orderRepository;
-    private final SalesService salesService; // ✅ ADDED
+    private final SaleBatchWriter saleBatchWriter; // ✅ ADDED
+    private final FoodItemService foodItemService;
+    private final OrderEventBroadcaster orderEvents;
+    private final OrderMetrics orderMetrics;
+    private final KitchenQueue kitchenQueue;
+    private final Outlets outlets;
     
     // ✅ UPDATED CONSTRUCTOR
-    public OrderService(OrderRepository orderRepository, SalesService salesService) {
+    public OrderService(OrderRepository orderRepository, SaleBatchWriter saleBatchWriter,
+                        FoodItemService foodItemService, OrderEventBroadcaster orderEvents,
+                        OrderMetrics orderMetrics, KitchenQueue kitchenQueue, Outlets outlets) {
         this.orderRepository = orderRepository;
-        this.salesService = salesService;
+        this.saleBatchWriter = saleBatchWriter;
+        this.foodItemService = foodItemService;
+        this.orderEvents = orderEvents;
+        this.orderMetrics = orderMetrics;
+        this.kitchenQueue = kitchenQueue;
+        this.outlets = outlets;
     }
     
-    // ✅ FIXED createOrder - SAFE null handling (WORKS)
     public Order createOrder(CreateOrderRequest request) {
+        return createOrder(request, outlets.getDefault());
+    }
+    
+    // ✅ FIXED createOrder - SAFE null handling (WORKS)
+    public Order createOrder(CreateOrderRequest request, String outlet) {
+        // A replayed request returns the order it already created
+        if (request.getIdempotencyKey() != null) {
+            Optional<Order> existing = orderRepository.findByOutletAndIdempotencyKey(outlet, request.getIdempotencyKey());
+            if (existing.isPresent()) {
+                return existing.get();
+            }
+        }
+        
+        Order saved;
+        try {
+            saved = orderRepository.save(buildOrder(request, outlet));
+        } catch (DataIntegrityViolationException e) {
+            // The same request sent twice at once: the other copy's insert won the unique key
+            if (request.getIdempotencyKey() == null) {
+                throw e;
+            }
+            return orderRepository.findByOutletAndIdempotencyKey(outlet, request.getIdempotencyKey()).orElseThrow(() -> e);
+        }
+        afterCommit(() -> {
+            orderMetrics.orderCreated();
+            orderEvents.orderCreated(saved);
+        });
+        kitchenQueue.orderCreated(saved);
+        return saved;
+    }
+    
+    // Priced from the outlet's menu, unsaved - shared with the bulk import
+    Order buildOrder(CreateOrderRequest request, String outlet) {
         Order order = new Order();
         
-        // Calculate total securely
-        Double totalAmount = request.getOrderItems().stream()
-            .mapToDouble(item -> item.getPrice() * item.getQuantity())
-            .sum();
+        // ✅ SAFE: Create NEW list for ElementCollection
+        List<OrderItem> newItems = toOrderItems(request.getOrderItems(), outlet);
             
+        order.setOutlet(outlet);
+        order.setIdempotencyKey(request.getIdempotencyKey());
         order.setCustomerName(request.getCustomerName());
         order.setCustomerPhone(request.getCustomerPhone());
         order.setPaymentMethod(request.getPaymentMethod());
         order.setNotes(request.getNotes());
-        order.setTotalAmount(totalAmount);
+        order.setOrderType(checkOrderType(request.getOrderType()));
+        // Calculate total securely - exact paise, client total is ignored
+        order.setTotalAmountPaise(PricingCalculator.orderTotal(newItems));
         order.setStatus("pending");
-        
-        // ✅ SAFE: Create NEW list for ElementCollection
-        List<OrderItem> newItems = new ArrayList<>();
-        if (request.getOrderItems() != null) {
-            request.getOrderItems().forEach(dto -> {
-                OrderItem item = new OrderItem();
-                item.setItemName(dto.getItemName());
-                item.setPrice(dto.getPrice());
-                item.setQuantity(dto.getQuantity());
-                newItems.add(item);
-            });
-        }
         order.setOrderItems(newItems);
-        
-        return orderRepository.save(order);
+        return order;
+    }
+    
+    public CursorPage<Order> getOrdersPage(String cursor, int size) {
+        return getOrdersPage(cursor, size, outlets.getDefault());
     }
     
-    public List<Order> getAllOrders() {
-        return orderRepository.findAllByOrderByCreatedAtDesc();
+    // ✅ Keyset pagination - one extra row tells us whether another page exists
+    public CursorPage<Order> getOrdersPage(String cursor, int size, String outlet) {
+        List<Order> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = orderRepository.findByOutletOrderByCreatedAtDescIdDesc(outlet, Limit.of(size + 1));
+        } else {
+            PageCursor position = PageCursor.decode(cursor);
+            rows = orderRepository.findPageAfter(outlet, position.getCreatedAt(), position.getId(), Limit.of(size + 1));
+        }
+        
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<Order> page = rows.subList(0, size);
+        Order last = page.get(size - 1);
+        return new CursorPage<>(page, new PageCursor(last.getCreatedAt(), last.getId()).encode());
     }
     
     public List<Order> getPendingOrders() {
-        return orderRepository.findByStatusOrderByCreatedAtDesc("pending");
+        return getPendingOrders(outlets.getDefault());
+    }
+    
+    public List<Order> getPendingOrders(String outlet) {
+        return orderRepository.findByOutletAndStatusOrderByCreatedAtDesc(outlet, "pending");
     }
     
     public void deleteOrder(Long id) {
-        Optional<Order> orderOpt = orderRepository.findById(id);
-        if (orderOpt.isPresent()) {
-            Order order = orderOpt.get();
-            if ("pending".equals(order.getStatus())) {
-                orderRepository.deleteById(id);
-            }
-        }
+        deleteOrder(id, outlets.getDefault());
     }
     
-    // ✅ FIXED updateOrder - NO .clear() on immutable ElementCollection
-    public Order updateOrder(Long id, CreateOrderRequest request) {
-        Order order = orderRepository.findById(id)
+    // Only a pending order is deleted; one that was paid meanwhile is left alone
+    public void deleteOrder(Long id, String outlet) {
+        Order order = orderRepository.findByIdAndOutlet(id, outlet)
             .orElseThrow(() -> new RuntimeException("Order not found"));
-        
-        // ✅ CRITICAL FIX: Create NEW list (ElementCollection can't .clear())
-        List<OrderItem> newItems = new ArrayList<>();
-        if (request.getOrderItems() != null) {
-            request.getOrderItems().forEach(dto -> {
-                OrderItem item = new OrderItem();
-                item.setItemName(dto.getItemName());
-                item.setPrice(dto.getPrice());
-                item.setQuantity(dto.getQuantity());
-                newItems.add(item);
-            });
+        if ("pending".equals(order.getStatus())) {
+            orderRepository.deleteById(id);
+            afterCommit(() -> orderEvents.orderDeleted(id, order.getOutlet()));
+            kitchenQueue.orderDeleted(id);
         }
-        
-        // Recalculate total
-        Double totalAmount = newItems.stream()
-            .mapToDouble(item -> item.getPrice() * item.getQuantity())
-            .sum();
+    }
+    
+    // ✅ Full replace (PUT), written as a diff: lines that didn't change aren't touched
+    // ✅ Guarded: only pending orders, and a stale version (another till saved first) is rejected
+    @Transactional
+    public Order updateOrder(Long id, CreateOrderRequest request) {
+        return updateOrder(id, request, outlets.getDefault());
+    }
+    
+    @Transactional
+    public Order updateOrder(Long id, CreateOrderRequest request, String outlet) {
+        Order order = loadForEdit(id, outlet, request.getVersion());
+        List<OrderItem> newItems = toOrderItems(request.getOrderItems(), outlet, order.getOrderItems());
         
         order.setCustomerName(request.getCustomerName());
         order.setCustomerPhone(request.getCustomerPhone());
         order.setPaymentMethod(request.getPaymentMethod());
         order.setNotes(request.getNotes());
-        order.setTotalAmount(totalAmount);
-        order.setOrderItems(newItems);
+        order.setOrderType(checkOrderType(request.getOrderType()));
+        
+        List<OrderItem> items = order.getOrderItems();
+        for (int line = 0; line < Math.min(items.size(), newItems.size()); line++) {
+            items.set(line, newItems.get(line)); // an equal line produces no UPDATE
+        }
+        while (items.size() > newItems.size()) {
+            items.remove(items.size() - 1);
+        }
+        items.addAll(newItems.subList(items.size(), newItems.size()));
         
-        return orderRepository.save(order);
+        return saveEdit(order);
     }
     
-    // ✅ FIXED: AUTO-TRACK SALES ON MARK PAID
-    public Order markPaymentDone(Long id) {
-        Order order = orderRepository.findById(id)
+    // ✅ Delta edit (PATCH): change a quantity, drop or append a line - one row each
+    @Transactional
+    public Order patchOrder(Long id, OrderPatchRequest patch) {
+        return patchOrder(id, patch, outlets.getDefault());
+    }
+    
+    @Transactional
+    public Order patchOrder(Long id, OrderPatchRequest patch, String outlet) {
+        Order order = loadForEdit(id, outlet, patch.getVersion());
+        List<OrderItem> items = order.getOrderItems();
+        
+        if (patch.getCustomerName() != null) order.setCustomerName(patch.getCustomerName());
+        if (patch.getCustomerPhone() != null) order.setCustomerPhone(patch.getCustomerPhone());
+        if (patch.getPaymentMethod() != null) order.setPaymentMethod(patch.getPaymentMethod());
+        if (patch.getNotes() != null) order.setNotes(patch.getNotes());
+        if (patch.getOrderType() != null) order.setOrderType(checkOrderType(patch.getOrderType()));
+        
+        // Positions refer to the list as the client saw it, so removals go last, highest first
+        TreeSet<Integer> removed = new TreeSet<>(Comparator.reverseOrder());
+        if (patch.getRemove() != null) {
+            for (Integer line : patch.getRemove()) {
+                removed.add(checkLine(line, items));
+            }
+        }
+        if (patch.getChange() != null) {
+            for (OrderLineChange change : patch.getChange()) {
+                int line = checkLine(change.getLine(), items);
+                if (change.getQuantity() == null || change.getQuantity() < 0) {
+                    throw new IllegalArgumentException("Quantity required for line " + line);
+                }
+                if (change.getQuantity() == 0) {
+                    removed.add(line);
+                } else {
+                    items.get(line).setQuantity(change.getQuantity());
+                }
+            }
+        }
+        for (int line : removed) {
+            items.remove(line);
+        }
+        if (patch.getAdd() != null) {
+            items.addAll(toOrderItems(patch.getAdd(), outlet));
+        }
+        
+        return saveEdit(order);
+    }
+    
+    private Order loadForEdit(Long id, String outlet, Long expectedVersion) {
+        Order order = orderRepository.findWithItemsByIdAndOutlet(id, outlet)
             .orElseThrow(() -> new RuntimeException("Order not found"));
+        if (!"pending".equals(order.getStatus())) {
+            throw new IllegalStateException("Order " + id + " is " + order.getStatus() + " and can no longer be changed");
+        }
+        if (expectedVersion != null && expectedVersion != order.getVersion()) {
+            throw new ObjectOptimisticLockingFailureException(Order.class, id);
+        }
+        return order;
+    }
+    
+    private Order saveEdit(Order order) {
+        // Recalculate total
+        order.setTotalAmountPaise(PricingCalculator.orderTotal(order.getOrderItems()));
+        // Flushed here so a concurrent payment/edit surfaces as a version conflict, not at commit
+        Order saved = orderRepository.saveAndFlush(order);
+        afterCommit(() -> orderEvents.orderUpdated(saved));
+        kitchenQueue.orderUpdated(saved);
+        return saved;
+    }
+    
+    private static String checkOrderType(String orderType) {
+        if (orderType == null || orderType.isBlank()) {
+            return null;
+        }
+        if (!Order.DINE_IN.equals(orderType) && !Order.TAKEAWAY.equals(orderType)) {
+            throw new IllegalArgumentException("Order type must be " + Order.DINE_IN + " or " + Order.TAKEAWAY);
+        }
+        return orderType;
+    }
+    
+    private static int checkLine(Integer line, List<OrderItem> items) {
+        if (line == null || line < 0 || line >= items.size()) {
+            throw new IllegalArgumentException("No line " + line + " on this order");
+        }
+        return line;
+    }
+    
+    @Transactional
+    public Order markPaymentDone(Long id) {
+        return markPaymentDone(id, null);
+    }
+    
+    @Transactional
+    public Order markPaymentDone(Long id, String paymentKey) {
+        return markPaymentDone(id, paymentKey, outlets.getDefault());
+    }
+    
+    // ✅ FIXED: AUTO-TRACK SALES ON MARK PAID
+    // One transaction, one conditional UPDATE: only the call that moves the order from pending
+    // to paid queues a sale (the sale_recorded flag is the outbox the batch writer drains).
+    // Repeats return the paid order unchanged - unless they carry a different Idempotency-Key,
+    // which means another till is trying to take the same payment.
+    @Transactional
+    public Order markPaymentDone(Long id, String paymentKey, String outlet) {
+        if (paymentKey != null && paymentKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key is longer than " + MAX_KEY_LENGTH);
+        }
+        if (orderRepository.markPaidIfPending(id, outlet, paymentKey) == 0) {
+            Order order = orderRepository.findByIdAndOutlet(id, outlet)
+                .orElseThrow(() -> new RuntimeException("Order not found"));
+            if (!"paid".equals(order.getStatus())) {
+                throw new IllegalStateException("Order " + id + " is " + order.getStatus() + " and can't be paid");
+            }
+            if (paymentKey != null && order.getPaymentKey() != null && !paymentKey.equals(order.getPaymentKey())) {
+                throw new IllegalStateException("Order " + id + " was already paid by another request");
+            }
+            return order;
+        }
         
-        order.setStatus("paid");
+        Order order = orderRepository.findWithItemsById(id).orElseThrow();
         
-        // ✅ CRITICAL: Add to sales automatically
-        salesService.addSale(order.getTotalAmount());
+        // ✅ CRITICAL: Add to sales automatically (batched, after commit)
+        saleBatchWriter.recordAfterCommit(order);
         
-        return orderRepository.save(order);
+        afterCommit(() -> {
+            orderMetrics.orderPaid();
+            orderEvents.orderPaid(order);
+        });
+        return order;
+    }
+    
+    // Screens and counters only hear about changes that committed; a rolled-back edit or
+    // payment tells nobody. Outside a transaction it runs right away. (The kitchen queue
+    // defers its own updates the same way, so it is called directly.)
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+    
+    private List<OrderItem> toOrderItems(List<OrderItemDto> dtos, String outlet) {
+        return toOrderItems(dtos, outlet, List.of());
+    }
+    
+    // ✅ Menu items are priced from the outlet's cached catalog, never from the client.
+    // Only manually entered items (no menu match) keep the price they were sent with.
+    // On an edit, lines already on the order keep the name and price they were rung up at -
+    // even if the item has since been repriced or taken off the menu.
+    private List<OrderItem> toOrderItems(List<OrderItemDto> dtos, String outlet, List<OrderItem> stored) {
+        List<OrderItem> items = new ArrayList<>();
+        if (dtos != null) {
+            MenuCatalog menu = foodItemService.getMenuCatalog(outlet);
+            boolean[] matched = new boolean[stored.size()];
+            for (OrderItemDto dto : dtos) {
+                if (dto.getQuantity() == null || dto.getQuantity() <= 0) {
+                    throw new IllegalArgumentException("Quantity must be positive: " + dto.getItemName());
+                }
+                OrderItem previous = findUnchanged(dto, stored, matched);
+                if (previous != null) {
+                    items.add(new OrderItem(previous.getFoodItemId(), previous.getItemName(), previous.getPricePaise(), dto.getQuantity()));
+                    continue;
+                }
+                FoodItem menuItem;
+                if (dto.getFoodItemId() != null) {
+                    menuItem = menu.findById(dto.getFoodItemId());
+                    if (menuItem == null) {
+                        throw new IllegalArgumentException("Unknown food item: " + dto.getFoodItemId());
+                    }
+                } else {
+                    menuItem = menu.findByName(dto.getItemName());
+                }
+                
+                if (menuItem != null) {
+                    items.add(new OrderItem(menuItem.getId(), menuItem.getName(), menuItem.getPricePaise(), dto.getQuantity()));
+                } else {
+                    long pricePaise = clientPricePaise(dto);
+                    if (pricePaise < 0) {
+                        throw new IllegalArgumentException("Price can't be negative: " + dto.getItemName());
+                    }
+                    items.add(new OrderItem(dto.getItemName(), pricePaise, dto.getQuantity()));
+                }
+            }
+        }
+        return items;
+    }
+    
+    // The stored line a client line still refers to: the same menu item, or the same manual
+    // item at the same price. Each stored line is claimed once, so repeated items pair up in order.
+    private static OrderItem findUnchanged(OrderItemDto dto, List<OrderItem> stored, boolean[] matched) {
+        for (int line = 0; line < stored.size(); line++) {
+            OrderItem item = stored.get(line);
+            if (matched[line]) {
+                continue;
+            }
+            boolean same;
+            if (dto.getFoodItemId() != null) {
+                same = dto.getFoodItemId().equals(item.getFoodItemId());
+            } else {
+                same = dto.getItemName() != null && item.getItemName() != null
+                    && dto.getItemName().trim().equalsIgnoreCase(item.getItemName().trim())
+                    && (item.getFoodItemId() != null || clientPricePaise(dto) == item.getPricePaise());
+            }
+            if (same) {
+                matched[line] = true;
+                return item;
+            }
+        }
+        return null;
+    }
+    
+    private static long clientPricePaise(OrderItemDto dto) {
+        return dto.getPricePaise() != null ? dto.getPricePaise() : Money.toPaise(dto.getPrice());
     }
 }
@@ -0,0 +1,61 @@
+package com.kamaths.foodpoint.service;
+
+import com.kamaths.foodpoint.entity.Order;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The outlets (branches, counters) this instance serves, from app.outlets.
+ * Every order, sale and menu item belongs to one; requests pick theirs with
+ * the {@value #HEADER} header and get the first configured one without it.
+ */
+@Component
+public class Outlets {
+
+    public static final String HEADER = "X-Outlet";
+    private static final int MAX_CODE_LENGTH = 40; // outlet columns
+
+    private final List<String> codes;
+
+    public Outlets(@Value("${app.outlets:" + Order.DEFAULT_OUTLET + "}") List<String> configured) {
+        List<String> codes = new ArrayList<>();
+        for (String code : configured) {
+            String normalized = normalize(code);
+            if (!normalized.isEmpty() && !codes.contains(normalized)) {
+                if (normalized.length() > MAX_CODE_LENGTH) {
+                    throw new IllegalStateException("Outlet code longer than " + MAX_CODE_LENGTH + ": " + code);
+                }
+                codes.add(normalized);
+            }
+        }
+        this.codes = codes.isEmpty() ? List.of(Order.DEFAULT_OUTLET) : List.copyOf(codes);
+    }
+
+    public String getDefault() {
+        return codes.get(0);
+    }
+
+    public List<String> getAll() {
+        return codes;
+    }
+
+    // Header value -> outlet code; blank means the default, an unconfigured one is rejected
+    public String resolve(String outlet) {
+        if (outlet == null || outlet.isBlank()) {
+            return getDefault();
+        }
+        String code = normalize(outlet);
+        if (!codes.contains(code)) {
+            throw new IllegalArgumentException("Unknown outlet: " + outlet);
+        }
+        return code;
+    }
+
+    private static String normalize(String code) {
+        return code.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,251 @@
+package com.kamaths.foodpoint.service;
+
+import com.kamaths.foodpoint.dto.ReceiptBatchRequest;
+import com.kamaths.foodpoint.entity.Order;
+import com.kamaths.foodpoint.receipt.EscPos;
+import com.kamaths.foodpoint.receipt.ReceiptLayout;
+import com.kamaths.foodpoint.receipt.ReceiptPdf;
+import com.kamaths.foodpoint.receipt.ReceiptTemplate;
+import com.kamaths.foodpoint.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Customer bills and kitchen order tickets (KOTs) as plain text, ESC/POS or
+ * PDF, from the templates in receipts/ (see {@link ReceiptTemplate}).
+ *
+ * Templates are compiled once at startup. Rendered orders are kept in a
+ * bounded LRU keyed by order id and version: any edit or the payment bumps the
+ * version, so a stale copy is never served, and a paid order doesn't change
+ * again, so reprints come from memory. A lookup costs one id/version query;
+ * only orders missing from the cache are loaded with their lines, in chunks.
+ */
+@Service
+public class ReceiptService {
+
+    public static final String RECEIPT = "receipt";
+    public static final String KOT = "kot";
+    public static final String TEXT = "text";
+    public static final String ESCPOS = "escpos";
+    public static final String PDF = "pdf";
+    public static final int MAX_BATCH = 2000;
+    private static final int LOAD_CHUNK = 500;
+
+    private final OrderRepository orderRepository;
+    private final ReceiptTemplate receiptTemplate;
+    private final ReceiptTemplate kotTemplate;
+    private final LinkedHashMap<Key, Rendered> cache;
+
+    private record Key(String kind, long orderId, long version) {}
+
+    // The layout is rendered up front, each printer encoding on first use
+    private static final class Rendered {
+        private final ReceiptLayout layout;
+        private volatile byte[] escPos;
+        private volatile ReceiptPdf.Page pdfPage;
+
+        Rendered(ReceiptLayout layout) {
+            this.layout = layout;
+        }
+
+        byte[] escPos() {
+            byte[] bytes = escPos;
+            if (bytes == null) {
+                bytes = EscPos.encode(layout);
+                escPos = bytes;
+            }
+            return bytes;
+        }
+
+        ReceiptPdf.Page pdfPage() {
+            ReceiptPdf.Page page = pdfPage;
+            if (page == null) {
+                page = ReceiptPdf.page(layout);
+                pdfPage = page;
+            }
+            return page;
+        }
+    }
+
+    public ReceiptService(OrderRepository orderRepository,
+                          @Value("${app.receipt.width:42}") int width,
+                          @Value("${app.receipt.shop-name:}") String shopName,
+                          @Value("${app.receipt.shop-address:}") String shopAddress,
+                          @Value("${app.receipt.footer:}") String footer,
+                          @Value("${app.receipt.receipt-template:classpath:receipts/receipt.txt}") Resource receiptTemplate,
+                          @Value("${app.receipt.kot-template:classpath:receipts/kot.txt}") Resource kotTemplate,
+                          @Value("${app.receipt.cache-size:2000}") int cacheSize) throws IOException {
+        this.orderRepository = orderRepository;
+        Map<String, String> constants = Map.of("shop", shopName, "address", shopAddress, "footer", footer);
+        this.receiptTemplate = ReceiptTemplate.compile(receiptTemplate.getContentAsString(StandardCharsets.UTF_8), width, constants);
+        this.kotTemplate = ReceiptTemplate.compile(kotTemplate.getContentAsString(StandardCharsets.UTF_8), width, constants);
+        // Access-ordered, so the least recently printed order goes first
+        this.cache = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Rendered> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    public static void checkKind(String kind) {
+        if (!RECEIPT.equals(kind) && !KOT.equals(kind)) {
+            throw new IllegalArgumentException("kind must be receipt or kot");
+        }
+    }
+
+    public static void checkFormat(String format) {
+        if (!TEXT.equals(format) && !ESCPOS.equals(format) && !PDF.equals(format)) {
+            throw new IllegalArgumentException("format must be text, escpos or pdf");
+        }
+    }
+
+    // Another outlet's order is not found, the same as a missing one
+    public byte[] render(Long orderId, String outlet, String kind, String format) {
+        checkKind(kind);
+        checkFormat(format);
+        List<Rendered> rendered = resolve(orderRepository.findVersionsByOutletAndIdIn(outlet, List.of(orderId)), kind);
+        if (rendered.isEmpty()) {
+            throw new RuntimeException("Order not found");
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(2048);
+        try {
+            write(rendered, format, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // ✅ End-of-day reprint: everything is looked up and rendered before the first byte is written.
+    // Text receipts are separated by a form feed, ESC/POS ones each end in a cut, PDF is one page each.
+    // A date is that outlet's day; unknown order ids and other outlets' are skipped. Returns the number printed.
+    public int writeBatch(ReceiptBatchRequest request, String outlet, OutputStream out) throws IOException {
+        checkKind(request.getKind());
+        checkFormat(request.getFormat());
+        List<Object[]> versions;
+        if (request.getOrderIds() != null && !request.getOrderIds().isEmpty()) {
+            if (request.getOrderIds().size() > MAX_BATCH) {
+                throw new IllegalArgumentException("At most " + MAX_BATCH + " orders per batch");
+            }
+            versions = inRequestOrder(request.getOrderIds(), outlet);
+        } else if (request.getDate() != null) {
+            LocalDate day = request.getDate();
+            versions = orderRepository.findVersionsByOutletStatusCreatedBetween(outlet, "paid",
+                day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+            if (versions.size() > MAX_BATCH) {
+                throw new IllegalArgumentException(versions.size() + " orders on " + day + "; at most " + MAX_BATCH
+                    + " per batch, send orderIds instead");
+            }
+        } else {
+            throw new IllegalArgumentException("orderIds or date required");
+        }
+
+        List<Rendered> rendered = resolve(versions, request.getKind());
+        write(rendered, request.getFormat(), out);
+        return rendered.size();
+    }
+
+    int cachedCount() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private List<Object[]> inRequestOrder(List<Long> orderIds, String outlet) {
+        LinkedHashSet<Long> ids = new LinkedHashSet<>(orderIds);
+        Map<Long, Object[]> byId = new HashMap<>(ids.size() * 2);
+        List<Long> chunk = new ArrayList<>(LOAD_CHUNK);
+        for (Long id : ids) {
+            chunk.add(id);
+            if (chunk.size() == LOAD_CHUNK) {
+                orderRepository.findVersionsByOutletAndIdIn(outlet, chunk).forEach(row -> byId.put((Long) row[0], row));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            orderRepository.findVersionsByOutletAndIdIn(outlet, chunk).forEach(row -> byId.put((Long) row[0], row));
+        }
+        List<Object[]> versions = new ArrayList<>(byId.size());
+        for (Long id : ids) {
+            Object[] row = byId.get(id);
+            if (row != null) {
+                versions.add(row);
+            }
+        }
+        return versions;
+    }
+
+    // Cached copies where the version still matches; the rest loaded in chunks, rendered and cached
+    private List<Rendered> resolve(List<Object[]> versions, String kind) {
+        Rendered[] rendered = new Rendered[versions.size()];
+        Map<Long, Integer> missing = new LinkedHashMap<>();
+        synchronized (cache) {
+            for (int i = 0; i < rendered.length; i++) {
+                long id = (Long) versions.get(i)[0];
+                long version = (Long) versions.get(i)[1];
+                rendered[i] = cache.get(new Key(kind, id, version));
+                if (rendered[i] == null) {
+                    missing.put(id, i);
+                }
+            }
+        }
+
+        ReceiptTemplate template = KOT.equals(kind) ? kotTemplate : receiptTemplate;
+        List<Long> ids = new ArrayList<>(missing.keySet());
+        for (int from = 0; from < ids.size(); from += LOAD_CHUNK) {
+            List<Order> orders = orderRepository.findWithItemsByIdIn(ids.subList(from, Math.min(from + LOAD_CHUNK, ids.size())));
+            for (Order order : orders) {
+                Rendered fresh = new Rendered(template.render(order));
+                rendered[missing.get(order.getId())] = fresh;
+                synchronized (cache) {
+                    cache.put(new Key(kind, order.getId(), order.getVersion()), fresh);
+                }
+            }
+        }
+
+        List<Rendered> result = new ArrayList<>(rendered.length);
+        for (Rendered r : rendered) {
+            if (r != null) { // deleted since the version query
+                result.add(r);
+            }
+        }
+        return result;
+    }
+
+    private static void write(List<Rendered> rendered, String format, OutputStream out) throws IOException {
+        if (PDF.equals(format)) {
+            List<ReceiptPdf.Page> pages = new ArrayList<>(rendered.size());
+            for (Rendered r : rendered) {
+                pages.add(r.pdfPage());
+            }
+            ReceiptPdf.write(pages, out);
+            return;
+        }
+        for (int i = 0; i < rendered.size(); i++) {
+            if (ESCPOS.equals(format)) {
+                out.write(rendered.get(i).escPos());
+            } else {
+                if (i > 0) {
+                    out.write('\f');
+                }
+                out.write(rendered.get(i).layout.toText().getBytes(StandardCharsets.US_ASCII));
+            }
+        }
+        out.flush();
+    }
+}
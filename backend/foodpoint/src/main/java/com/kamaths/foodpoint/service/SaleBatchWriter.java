@@ -0,0 +1,283 @@
+package com.kamaths.foodpoint.service;
+
+import com.kamaths.foodpoint.entity.Order;
+import com.kamaths.foodpoint.entity.Sale;
+import com.kamaths.foodpoint.repository.OrderRepository;
+import com.kamaths.foodpoint.repository.SalesRepository;
+import com.kamaths.foodpoint.service.SalesAnalyticsService.PaidOrder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind recording of sales for paid orders.
+ *
+ * markPaymentDone only flips the order to paid with sale_recorded = false (the
+ * outbox) in its own transaction. This writer collects those sales and inserts
+ * them in batches of up to {@value #BATCH_SIZE}, or whatever arrived within
+ * {@value #FLUSH_INTERVAL_MS} ms, setting sale_recorded and adding the per-item
+ * sales facts in the same transaction.
+ * A batch that fails is retried one order at a time, so one bad order can't hold
+ * up the rest; an order that fails {@value #MAX_ATTEMPTS} times is parked and
+ * tried again every {@value #PARKED_RETRY_MS} ms.
+ * Anything lost to a crash is still flagged on the order and is picked up at startup.
+ */
+@Component
+public class SaleBatchWriter {
+
+    static final int BATCH_SIZE = Sale.ID_ALLOCATION_SIZE;
+    static final long FLUSH_INTERVAL_MS = 200;
+    private static final long RETRY_DELAY_MS = 1000;
+    static final int MAX_ATTEMPTS = 3;
+    static final long PARKED_RETRY_MS = 60_000;
+
+    private final SalesService salesService;
+    private final SalesAnalyticsService salesAnalytics;
+    private final OrderRepository orderRepository;
+    private final SalesRepository salesRepository;
+    private final BlockingQueue<PaidOrder> queue = new LinkedBlockingQueue<>();
+    private final AtomicInteger unwritten = new AtomicInteger();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Map<Long, Integer> failures = new HashMap<>(); // order id -> failed attempts, under writeLock
+    private final Map<Long, PaidOrder> parked = new ConcurrentHashMap<>();
+    private volatile long parkedRetryAt;
+    private Thread worker;
+
+    public SaleBatchWriter(SalesService salesService, SalesAnalyticsService salesAnalytics,
+                           OrderRepository orderRepository, SalesRepository salesRepository) {
+        this.salesService = salesService;
+        this.salesAnalytics = salesAnalytics;
+        this.orderRepository = orderRepository;
+        this.salesRepository = salesRepository;
+    }
+
+    @PostConstruct
+    public void start() {
+        worker = Thread.ofVirtual().name("sale-batch-writer").start(this::run);
+    }
+
+    // Queued only once the payment commits; a rolled-back payment records nothing.
+    // The order must have its items loaded.
+    public void recordAfterCommit(Order order) {
+        PaidOrder sale = PaidOrder.of(order, LocalDateTime.now());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(sale);
+                }
+            });
+        } else {
+            enqueue(sale);
+        }
+    }
+
+    private void enqueue(PaidOrder sale) {
+        if (sale.sale().getAmountPaise() <= 0) {
+            // nothing to record, just clear the outbox flag
+            orderRepository.markSalesRecorded(List.of(sale.sale().getOrderId()));
+            return;
+        }
+        unwritten.incrementAndGet();
+        queue.add(sale);
+    }
+
+    // ✅ Recovery: paid orders whose sale never made it to the database
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverUnrecorded() {
+        for (Order order : orderRepository.findByStatusAndSaleRecordedFalse("paid")) {
+            recordAfterCommit(order);
+        }
+    }
+
+    private void run() {
+        List<PaidOrder> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                PaidOrder first = queue.poll(PARKED_RETRY_MS, TimeUnit.MILLISECONDS);
+                retryParkedIfDue();
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(FLUSH_INTERVAL_MS);
+                while (batch.size() < BATCH_SIZE) {
+                    PaidOrder next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                if (!write(batch)) {
+                    Thread.sleep(RETRY_DELAY_MS);
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            // shutting down, whatever is left is written by stop()
+            queue.addAll(batch);
+        }
+    }
+
+    // False if anything had to be put back for another try
+    private boolean write(List<PaidOrder> batch) {
+        writeLock.lock();
+        try {
+            try {
+                writeBatch(batch);
+                unwritten.addAndGet(-batch.size());
+                return true;
+            } catch (RuntimeException e) {
+                if (batch.size() == 1) {
+                    retryOrPark(batch.get(0), e);
+                    return false;
+                }
+                System.err.println("Failed to record " + batch.size() + " sales, retrying one at a time: " + e.getMessage());
+            }
+            boolean written = true;
+            for (PaidOrder paid : batch) {
+                Long orderId = paid.sale().getOrderId();
+                try {
+                    writeBatch(List.of(paid));
+                    failures.remove(orderId);
+                    unwritten.decrementAndGet();
+                } catch (RuntimeException e) {
+                    written = false;
+                    retryOrPark(paid, e);
+                }
+            }
+            return written;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void writeBatch(List<PaidOrder> batch) {
+        try {
+            writeOnce(batch);
+        } catch (DataIntegrityViolationException e) {
+            // sales.order_id is unique: an order already recorded (say, queued again by
+            // startup recovery while its payment was in flight) - drop it and write the rest
+            writeOnce(withoutRecorded(batch));
+        }
+    }
+
+    // The order stays flagged in the outbox either way; a parked one is retried later, and at startup
+    private void retryOrPark(PaidOrder paid, RuntimeException error) {
+        Long orderId = paid.sale().getOrderId();
+        paid.sale().setId(null);
+        int attempts = failures.merge(orderId, 1, Integer::sum);
+        if (attempts < MAX_ATTEMPTS) {
+            queue.add(paid);
+            return;
+        }
+        failures.remove(orderId);
+        if (parked.isEmpty()) {
+            parkedRetryAt = System.currentTimeMillis() + PARKED_RETRY_MS;
+        }
+        parked.put(orderId, paid);
+        unwritten.decrementAndGet();
+        System.err.println("Could not record the sale for order " + orderId + " after " + attempts
+            + " attempts, parked for " + PARKED_RETRY_MS / 1000 + "s: " + error.getMessage());
+    }
+
+    private void retryParkedIfDue() {
+        if (parked.isEmpty() || System.currentTimeMillis() < parkedRetryAt) {
+            return;
+        }
+        for (Long orderId : List.copyOf(parked.keySet())) {
+            PaidOrder paid = parked.remove(orderId);
+            if (paid != null) {
+                unwritten.incrementAndGet();
+                queue.add(paid);
+            }
+        }
+    }
+
+    // Orders whose sale keeps failing to write
+    public Set<Long> getParkedOrderIds() {
+        return Set.copyOf(parked.keySet());
+    }
+
+    private void writeOnce(List<PaidOrder> batch) {
+        List<Sale> sales = new ArrayList<>(batch.size());
+        List<Long> orderIds = new ArrayList<>(batch.size());
+        for (PaidOrder paid : batch) {
+            paid.sale().setId(null); // ids from a rolled-back attempt are not reused
+            sales.add(paid.sale());
+            orderIds.add(paid.sale().getOrderId());
+        }
+        if (sales.isEmpty()) {
+            return;
+        }
+        salesService.addSales(sales, () -> {
+            orderRepository.markSalesRecorded(orderIds);
+            salesAnalytics.record(batch);
+        });
+    }
+
+    private List<PaidOrder> withoutRecorded(List<PaidOrder> batch) {
+        Set<Long> orderIds = new HashSet<>();
+        for (PaidOrder paid : batch) {
+            orderIds.add(paid.sale().getOrderId());
+        }
+        Set<Long> recorded = new HashSet<>(salesRepository.findOrderIdsWithSales(orderIds));
+        if (!recorded.isEmpty()) {
+            orderRepository.markSalesRecorded(recorded);
+        }
+        Set<Long> seen = new HashSet<>();
+        List<PaidOrder> rest = new ArrayList<>(batch.size());
+        for (PaidOrder paid : batch) {
+            Long orderId = paid.sale().getOrderId();
+            if (!recorded.contains(orderId) && seen.add(orderId)) {
+                rest.add(paid);
+            }
+        }
+        return rest;
+    }
+
+    /**
+     * Writes everything queued so far and waits for batches already in flight.
+     */
+    public void flush() throws InterruptedException {
+        List<PaidOrder> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) {
+            write(rest);
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (unwritten.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(5));
+        List<PaidOrder> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) {
+            write(rest);
+        }
+    }
+}
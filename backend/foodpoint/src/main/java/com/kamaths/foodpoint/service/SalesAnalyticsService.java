@@ -0,0 +1,292 @@
+package com.kamaths.foodpoint.service;
+
+import com.kamaths.foodpoint.dto.BasketStats;
+import com.kamaths.foodpoint.dto.CategorySales;
+import com.kamaths.foodpoint.dto.HeatmapCell;
+import com.kamaths.foodpoint.dto.ItemSales;
+import com.kamaths.foodpoint.entity.FoodItem;
+import com.kamaths.foodpoint.entity.HourlySalesFact;
+import com.kamaths.foodpoint.entity.HourlySalesFactId;
+import com.kamaths.foodpoint.entity.ItemSalesFact;
+import com.kamaths.foodpoint.entity.ItemSalesFactId;
+import com.kamaths.foodpoint.entity.Order;
+import com.kamaths.foodpoint.entity.OrderItem;
+import com.kamaths.foodpoint.entity.Sale;
+import com.kamaths.foodpoint.repository.HourlySalesFactRepository;
+import com.kamaths.foodpoint.repository.ItemSalesFactRepository;
+import com.kamaths.foodpoint.repository.OrderRepository;
+import com.kamaths.foodpoint.repository.SalesRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Per-item and per-hour sales facts, written with each batch of sales and
+ * queried by the analytics endpoints. A year of facts is a few tens of
+ * thousands of rows (days x menu items, days x 24 hours), so every report is
+ * one indexed range read - orders and order_items are never scanned.
+ * Facts are kept per outlet, the outlet leading their keys, so one outlet's
+ * report reads only its own rows.
+ */
+@Service
+public class SalesAnalyticsService {
+
+    static final String OTHER_CATEGORY = "Other";
+    static final String BY_QUANTITY = "quantity";
+    static final String BY_REVENUE = "revenue";
+    private static final long MAX_RANGE_DAYS = 3660;
+    private static final int BACKFILL_PAGE = 500;
+
+    public record SoldItem(Long foodItemId, String itemName, long pricePaise, int quantity) {}
+
+    // A paid order as queued for recording: its sale plus a copy of the lines sold
+    public record PaidOrder(Sale sale, List<SoldItem> items) {
+        public static PaidOrder of(Order order, LocalDateTime paidAt) {
+            List<SoldItem> items = new ArrayList<>(order.getOrderItems().size());
+            for (OrderItem item : order.getOrderItems()) {
+                items.add(new SoldItem(item.getFoodItemId(), item.getItemName(), item.getPricePaise(), item.getQuantity()));
+            }
+            Sale sale = new Sale(order.getId(), order.getTotalAmountPaise(), paidAt);
+            sale.setOutlet(order.getOutlet());
+            return new PaidOrder(sale, items);
+        }
+    }
+
+    private final ItemSalesFactRepository itemFacts;
+    private final HourlySalesFactRepository hourlyFacts;
+    private final SalesRepository salesRepository;
+    private final OrderRepository orderRepository;
+    private final FoodItemService foodItemService;
+    private final TransactionTemplate transactionTemplate;
+    private final Outlets outlets;
+
+    public SalesAnalyticsService(ItemSalesFactRepository itemFacts, HourlySalesFactRepository hourlyFacts,
+                                 SalesRepository salesRepository, OrderRepository orderRepository,
+                                 FoodItemService foodItemService, TransactionTemplate transactionTemplate,
+                                 Outlets outlets) {
+        this.itemFacts = itemFacts;
+        this.hourlyFacts = hourlyFacts;
+        this.salesRepository = salesRepository;
+        this.orderRepository = orderRepository;
+        this.foodItemService = foodItemService;
+        this.transactionTemplate = transactionTemplate;
+        this.outlets = outlets;
+    }
+
+    /**
+     * Adds a batch of paid orders to the facts. Must run inside the transaction that
+     * writes their sales. Only SaleBatchWriter calls this, one batch at a time, so the
+     * fact rows can be read, added to and written back without racing another writer;
+     * the changed rows go out as batched UPDATEs/INSERTs on commit.
+     */
+    void record(List<PaidOrder> orders) {
+        Deltas deltas = new Deltas();
+        for (PaidOrder order : orders) {
+            deltas.add(order);
+        }
+        deltas.apply();
+    }
+
+    // First start with sales history but no facts: rebuild them from the paid orders
+    @PostConstruct
+    void backfill() {
+        if (itemFacts.count() > 0 || hourlyFacts.count() > 0) {
+            return;
+        }
+        Deltas deltas = new Deltas();
+        long lastId = 0;
+        List<Sale> page;
+        do {
+            page = salesRepository.findByOrderIdNotNullAndIdGreaterThanOrderByIdAsc(lastId, Limit.of(BACKFILL_PAGE));
+            if (page.isEmpty()) {
+                break;
+            }
+            Map<Long, Order> orders = new HashMap<>();
+            for (Order order : orderRepository.findWithItemsByIdIn(page.stream().map(Sale::getOrderId).toList())) {
+                orders.put(order.getId(), order);
+            }
+            for (Sale sale : page) {
+                Order order = orders.get(sale.getOrderId());
+                // A deleted order still counts towards the hour, just without its items
+                List<SoldItem> items = order != null ? PaidOrder.of(order, sale.getCreatedAt()).items() : List.of();
+                deltas.add(new PaidOrder(sale, items));
+                lastId = sale.getId();
+            }
+        } while (page.size() == BACKFILL_PAGE);
+        if (!deltas.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> deltas.apply());
+        }
+    }
+
+    public List<ItemSales> getBestSellers(LocalDate from, LocalDate to, String by, int limit) {
+        return getBestSellers(from, to, by, limit, outlets.getDefault());
+    }
+
+    public List<ItemSales> getBestSellers(LocalDate from, LocalDate to, String by, int limit, String outlet) {
+        checkRange(from, to);
+        List<Object[]> rows;
+        if (BY_QUANTITY.equals(by)) {
+            rows = itemFacts.sumByItemOrderByQuantity(outlet, from, to, Limit.of(limit));
+        } else if (BY_REVENUE.equals(by)) {
+            rows = itemFacts.sumByItemOrderByRevenue(outlet, from, to, Limit.of(limit));
+        } else {
+            throw new IllegalArgumentException("by must be quantity or revenue");
+        }
+        List<ItemSales> items = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            items.add(new ItemSales((Long) row[1], (String) row[2], (String) row[3],
+                ((Number) row[4]).longValue(), ((Number) row[5]).longValue()));
+        }
+        return items;
+    }
+
+    public List<CategorySales> getCategoryBreakdown(LocalDate from, LocalDate to) {
+        return getCategoryBreakdown(from, to, outlets.getDefault());
+    }
+
+    public List<CategorySales> getCategoryBreakdown(LocalDate from, LocalDate to, String outlet) {
+        checkRange(from, to);
+        List<CategorySales> categories = new ArrayList<>();
+        for (Object[] row : itemFacts.sumByCategory(outlet, from, to)) {
+            categories.add(new CategorySales((String) row[0],
+                ((Number) row[1]).longValue(), ((Number) row[2]).longValue()));
+        }
+        return categories;
+    }
+
+    public List<HeatmapCell> getHourlyHeatmap(LocalDate from, LocalDate to) {
+        return getHourlyHeatmap(from, to, outlets.getDefault());
+    }
+
+    // 7 x 24 cells, Monday 00:00 first, empty slots included
+    public List<HeatmapCell> getHourlyHeatmap(LocalDate from, LocalDate to, String outlet) {
+        checkRange(from, to);
+        HeatmapCell[] cells = new HeatmapCell[7 * 24];
+        for (DayOfWeek day : DayOfWeek.values()) {
+            for (int hour = 0; hour < 24; hour++) {
+                cells[(day.getValue() - 1) * 24 + hour] = new HeatmapCell(day, hour);
+            }
+        }
+        for (HourlySalesFact fact : hourlyFacts.findByIdOutletAndIdSalesDateBetween(outlet, from, to)) {
+            int day = fact.getId().getSalesDate().getDayOfWeek().getValue() - 1;
+            cells[day * 24 + fact.getId().getSalesHour()].add(fact.getOrderCount(), fact.getRevenuePaise());
+        }
+        return List.of(cells);
+    }
+
+    public BasketStats getBasketStats(LocalDate from, LocalDate to) {
+        return getBasketStats(from, to, outlets.getDefault());
+    }
+
+    public BasketStats getBasketStats(LocalDate from, LocalDate to, String outlet) {
+        checkRange(from, to);
+        long orders = 0;
+        long items = 0;
+        long revenue = 0;
+        for (HourlySalesFact fact : hourlyFacts.findByIdOutletAndIdSalesDateBetween(outlet, from, to)) {
+            orders += fact.getOrderCount();
+            items += fact.getItemCount();
+            revenue += fact.getRevenuePaise();
+        }
+        return new BasketStats(orders, items, revenue);
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(from, to) > MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Range is too long");
+        }
+    }
+
+    // Accumulates fact increments in memory, then merges them into the stored rows
+    private final class Deltas {
+        private final Map<String, MenuCatalog> menus = new HashMap<>(); // each order's outlet's
+        private final Map<ItemSalesFactId, ItemSalesFact> items = new HashMap<>();
+        private final Map<HourlySalesFactId, HourlySalesFact> hours = new HashMap<>();
+
+        boolean isEmpty() {
+            return hours.isEmpty();
+        }
+
+        void add(PaidOrder order) {
+            LocalDateTime paidAt = order.sale().getCreatedAt();
+            LocalDate day = paidAt.toLocalDate();
+            String outlet = order.sale().getOutlet();
+            MenuCatalog menu = menus.computeIfAbsent(outlet, foodItemService::getMenuCatalog);
+            long itemCount = 0;
+            for (SoldItem sold : order.items()) {
+                FoodItem menuItem = sold.foodItemId() != null
+                    ? menu.findById(sold.foodItemId())
+                    : menu.findByName(sold.itemName());
+                Long foodItemId = sold.foodItemId() != null ? sold.foodItemId()
+                    : menuItem != null ? menuItem.getId() : null;
+                String key = foodItemId != null
+                    ? "id:" + foodItemId
+                    : "name:" + String.valueOf(sold.itemName()).trim().toLowerCase(Locale.ROOT);
+                String category = menuItem != null ? menuItem.getCategory() : OTHER_CATEGORY;
+
+                items.computeIfAbsent(new ItemSalesFactId(outlet, day, key),
+                        id -> new ItemSalesFact(id, foodItemId, String.valueOf(sold.itemName()), category))
+                    .add(sold.quantity(), Math.multiplyExact(sold.pricePaise(), (long) sold.quantity()));
+                itemCount += sold.quantity();
+            }
+            hours.computeIfAbsent(new HourlySalesFactId(outlet, day, paidAt.getHour()), HourlySalesFact::new)
+                .add(1, itemCount, order.sale().getAmountPaise());
+        }
+
+        // One SELECT per table for the affected outlets and days; existing rows are updated in place
+        void apply() {
+            Set<String> outletsSold = new HashSet<>();
+            Set<LocalDate> days = new HashSet<>();
+            hours.keySet().forEach(id -> {
+                outletsSold.add(id.getOutlet());
+                days.add(id.getSalesDate());
+            });
+
+            List<ItemSalesFact> newItems = new ArrayList<>();
+            Map<ItemSalesFactId, ItemSalesFact> storedItems = new HashMap<>();
+            for (ItemSalesFact stored : itemFacts.findByIdOutletInAndIdSalesDateIn(outletsSold, days)) {
+                storedItems.put(stored.getId(), stored);
+            }
+            for (ItemSalesFact delta : items.values()) {
+                ItemSalesFact stored = storedItems.get(delta.getId());
+                if (stored != null) {
+                    stored.add(delta.getQuantity(), delta.getRevenuePaise());
+                } else {
+                    newItems.add(delta);
+                }
+            }
+            itemFacts.saveAll(newItems);
+
+            List<HourlySalesFact> newHours = new ArrayList<>();
+            Map<HourlySalesFactId, HourlySalesFact> storedHours = new HashMap<>();
+            for (HourlySalesFact stored : hourlyFacts.findByIdOutletInAndIdSalesDateIn(outletsSold, days)) {
+                storedHours.put(stored.getId(), stored);
+            }
+            for (HourlySalesFact delta : hours.values()) {
+                HourlySalesFact stored = storedHours.get(delta.getId());
+                if (stored != null) {
+                    stored.add(delta.getOrderCount(), delta.getItemCount(), delta.getRevenuePaise());
+                } else {
+                    newHours.add(delta);
+                }
+            }
+            hourlyFacts.saveAll(newHours);
+        }
+    }
+}
@@ -1,61 +1,412 @@
 package com.kamaths.foodpoint.service;
 
+import com.kamaths.foodpoint.dto.CursorPage;
+import com.kamaths.foodpoint.dto.OutletSalesReport;
+import com.kamaths.foodpoint.dto.PageCursor;
+import com.kamaths.foodpoint.dto.SalesBucket;
+import com.kamaths.foodpoint.dto.SalesReport;
+import com.kamaths.foodpoint.entity.DailySalesRollup;
+import com.kamaths.foodpoint.entity.DailySalesRollupId;
 import com.kamaths.foodpoint.entity.Sale;
+import com.kamaths.foodpoint.pricing.Money;
+import com.kamaths.foodpoint.repository.DailySalesRollupRepository;
 import com.kamaths.foodpoint.repository.SalesRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToLongFunction;
 
 @Service
 public class SalesService {
+
+    static final String PERIOD_DAY = "day";
+    static final String PERIOD_MONTH = "month";
+    private static final int RECONCILE_DAYS = 7;
+    private static final long MAX_REPORT_DAYS = 3660;
     
     private final SalesRepository salesRepository;
-    
-    public SalesService(SalesRepository salesRepository) {
+    private final DailySalesRollupRepository rollupRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderMetrics orderMetrics;
+    private final Outlets outlets;
+
+    // ✅ Running totals per outlet - today/monthly/total are answered from memory
+    private volatile Map<String, SalesTotals> totals = new ConcurrentHashMap<>();
+    // addSale takes the read side so sales record concurrently; a reload takes the write side
+    private final ReadWriteLock totalsLock = new ReentrantReadWriteLock();
+    // Outlet days whose rollup row is known to exist, so recording a sale is a single UPDATE
+    private final Set<OutletDay> rollupDays = ConcurrentHashMap.newKeySet();
+
+    private record OutletDay(String outlet, LocalDate day) {}
+
+    public SalesService(SalesRepository salesRepository, DailySalesRollupRepository rollupRepository,
+                        TransactionTemplate transactionTemplate, OrderMetrics orderMetrics, Outlets outlets) {
         this.salesRepository = salesRepository;
+        this.rollupRepository = rollupRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.orderMetrics = orderMetrics;
+        this.outlets = outlets;
     }
-    
+
+    // First start on an existing database backfills the rollup from the sales rows
+    @PostConstruct
+    void loadTotals() {
+        if (rollupRepository.count() == 0) {
+            rebuildRollup();
+        } else {
+            reloadTotals();
+        }
+    }
+
+    // Rebuilds the running totals from the daily rollup - one row per day, not per sale
+    public void reloadTotals() {
+        totalsLock.writeLock().lock();
+        try {
+            Map<String, SalesTotals> loaded = new ConcurrentHashMap<>();
+            for (DailySalesRollup day : rollupRepository.findAll()) {
+                loaded.computeIfAbsent(day.getOutlet(), outlet -> new SalesTotals())
+                    .add(day.getSalesDate(), day.getAmountPaise());
+            }
+            totals = loaded;
+        } finally {
+            totalsLock.writeLock().unlock();
+        }
+    }
+
     // ✅ THIS IS THE MISSING PIECE!
-    public void addSale(Double amount) {
-        if (amount != null && amount > 0) {
-            Sale sale = new Sale();
-            sale.setAmount(amount);
-            sale.setCreatedAt(LocalDateTime.now());
-            salesRepository.save(sale);
+    public void addSale(long amountPaise) {
+        if (amountPaise > 0) {
+            Sale sale = new Sale(null, amountPaise, LocalDateTime.now());
+            sale.setOutlet(outlets.getDefault());
+            addSales(List.of(sale), () -> {});
         }
     }
-    
+
+    // ✅ Batch insert (JDBC batched via sequence ids), the rollup increments and any
+    // work that must commit with them, all in one transaction
+    public void addSales(List<Sale> sales, Runnable sameTransaction) {
+        Map<OutletDay, long[]> byDay = new HashMap<>();
+        long amountPaise = 0;
+        for (Sale sale : sales) {
+            long[] sums = byDay.computeIfAbsent(
+                new OutletDay(sale.getOutlet(), sale.getCreatedAt().toLocalDate()), key -> new long[2]);
+            sums[0] += sale.getAmountPaise();
+            sums[1]++;
+            amountPaise += sale.getAmountPaise();
+        }
+
+        totalsLock.readLock().lock();
+        try {
+            ensureRollupRows(byDay.keySet());
+            transactionTemplate.executeWithoutResult(status -> {
+                salesRepository.saveAll(sales);
+                byDay.forEach((key, sums) -> {
+                    if (rollupRepository.addToDay(key.outlet(), key.day(), sums[0], sums[1]) == 0) {
+                        rollupRepository.save(new DailySalesRollup(key.outlet(), key.day(), sums[0], sums[1]));
+                    }
+                });
+                sameTransaction.run();
+            });
+            Map<String, SalesTotals> current = totals;
+            byDay.forEach((key, sums) ->
+                current.computeIfAbsent(key.outlet(), outlet -> new SalesTotals()).add(key.day(), sums[0]));
+        } finally {
+            totalsLock.readLock().unlock();
+        }
+        orderMetrics.salesRecorded(sales.size(), amountPaise);
+    }
+
+    // A day's row is created in its own transaction, so two first sales of the day racing
+    // to insert it can't roll back a batch of sales - the loser just finds it there
+    private void ensureRollupRows(Set<OutletDay> days) {
+        for (OutletDay day : days) {
+            if (rollupDays.contains(day)) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (!rollupRepository.existsById(new DailySalesRollupId(day.outlet(), day.day()))) {
+                        rollupRepository.save(new DailySalesRollup(day.outlet(), day.day(), 0, 0));
+                    }
+                });
+            } catch (DataIntegrityViolationException e) {
+                // created concurrently
+            }
+            if (rollupDays.size() > 64) {
+                rollupDays.clear();
+            }
+            rollupDays.add(day);
+        }
+    }
+
+    // ✅ Nightly compaction: re-derive the last week from the sales rows, fixing any drift
+    @Scheduled(cron = "${app.sales.rollup.reconcile-cron:0 30 3 * * *}")
+    public void reconcileRecentDays() {
+        LocalDate today = LocalDate.now();
+        int corrected = reconcileRollup(today.minusDays(RECONCILE_DAYS - 1), today);
+        if (corrected > 0) {
+            System.err.println("Corrected " + corrected + " daily sales rollup rows");
+        }
+    }
+
+    public void rebuildRollup() {
+        LocalDateTime first = salesRepository.findFirstCreatedAt();
+        LocalDate today = LocalDate.now();
+        reconcileRollup(first != null && first.toLocalDate().isBefore(today) ? first.toLocalDate() : today, today);
+        reloadTotals();
+    }
+
+    // Recomputes every outlet's rollup for [from, to] from the sales table; returns the number of rows changed.
+    // Holds the write lock so no sale is recorded between the SUM and the rewrite.
+    public int reconcileRollup(LocalDate from, LocalDate to) {
+        totalsLock.writeLock().lock();
+        try {
+            Integer corrected = transactionTemplate.execute(status -> {
+                Map<OutletDay, long[]> actual = new HashMap<>();
+                for (Object[] row : salesRepository.sumAmountPaiseGroupedByOutletAndDay(
+                        from.atStartOfDay(), to.plusDays(1).atStartOfDay())) {
+                    LocalDate day = LocalDate.of(
+                        ((Number) row[1]).intValue(),
+                        ((Number) row[2]).intValue(),
+                        ((Number) row[3]).intValue());
+                    actual.put(new OutletDay((String) row[0], day),
+                        new long[] {((Number) row[4]).longValue(), ((Number) row[5]).longValue()});
+                }
+
+                int changed = 0;
+                for (DailySalesRollup stored : rollupRepository.findByIdSalesDateBetween(from, to)) {
+                    long[] sums = actual.remove(new OutletDay(stored.getOutlet(), stored.getSalesDate()));
+                    long amountPaise = sums != null ? sums[0] : 0L;
+                    long saleCount = sums != null ? sums[1] : 0L;
+                    if (stored.getAmountPaise() != amountPaise || stored.getSaleCount() != saleCount) {
+                        stored.setAmountPaise(amountPaise);
+                        stored.setSaleCount(saleCount);
+                        changed++;
+                    }
+                }
+                for (Map.Entry<OutletDay, long[]> missing : actual.entrySet()) {
+                    long[] sums = missing.getValue();
+                    OutletDay key = missing.getKey();
+                    rollupRepository.save(new DailySalesRollup(key.outlet(), key.day(), sums[0], sums[1]));
+                    changed++;
+                }
+                return changed;
+            });
+            if (corrected != null && corrected > 0) {
+                reloadTotals();
+            }
+            return corrected != null ? corrected : 0;
+        } finally {
+            totalsLock.writeLock().unlock();
+        }
+    }
+
     public Double getTodaySales() {
-        LocalDateTime startOfDay = LocalDateTime.now().with(LocalTime.MIN);
-        LocalDateTime endOfDay = LocalDateTime.now().with(LocalTime.MAX);
-        Double result = salesRepository.sumAmountByCreatedAtBetween(startOfDay, endOfDay);
-        return result != null ? result : 0.0;
+        return getTodaySales(outlets.getDefault());
     }
-    
+
+    public Double getTodaySales(String outlet) {
+        return Money.toRupees(totalsOf(outlet).day(LocalDate.now()));
+    }
+
     public Double getTotalSales() {
-        Double result = salesRepository.sumAllAmount();
-        return result != null ? result : 0.0;
+        return getTotalSales(outlets.getDefault());
     }
-    
+
+    public Double getTotalSales(String outlet) {
+        return Money.toRupees(totalsOf(outlet).total());
+    }
+
     public Double getMonthlySales() {
-        LocalDateTime startOfMonth = LocalDateTime.now()
-            .with(TemporalAdjusters.firstDayOfMonth())
-            .with(LocalTime.MIN);
-        LocalDateTime endOfMonth = LocalDateTime.now()
-            .with(TemporalAdjusters.lastDayOfMonth())
-            .with(LocalTime.MAX);
-        Double result = salesRepository.sumAmountByCreatedAtBetween(startOfMonth, endOfMonth);
-        return result != null ? result : 0.0;
+        return getMonthlySales(outlets.getDefault());
     }
-    
+
+    public Double getMonthlySales(String outlet) {
+        return Money.toRupees(totalsOf(outlet).month(YearMonth.now()));
+    }
+
+    private SalesTotals totalsOf(String outlet) {
+        SalesTotals outletTotals = totals.get(outlet);
+        return outletTotals != null ? outletTotals : new SalesTotals();
+    }
+
+    // All outlets together, for the consistency check against the whole sales table
+    private long sumOfOutlets(ToLongFunction<SalesTotals> amount) {
+        long sum = 0;
+        for (SalesTotals outletTotals : totals.values()) {
+            sum += amount.applyAsLong(outletTotals);
+        }
+        return sum;
+    }
+
+    // Compares the in-memory totals (all outlets) against a fresh SUM from the database
+    public Map<String, Object> checkConsistency() {
+        totalsLock.writeLock().lock();
+        try {
+            LocalDateTime startOfDay = LocalDate.now().atStartOfDay();
+            LocalDateTime startOfMonth = LocalDate.now()
+                .with(TemporalAdjusters.firstDayOfMonth())
+                .atStartOfDay();
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            boolean consistent = true;
+            LocalDate today = LocalDate.now();
+            consistent &= compare(report, "today", sumOfOutlets(t -> t.day(today)),
+                salesRepository.sumAmountPaiseByCreatedAtBetween(startOfDay, startOfDay.plusDays(1)));
+            consistent &= compare(report, "monthly", sumOfOutlets(t -> t.month(YearMonth.from(today))),
+                salesRepository.sumAmountPaiseByCreatedAtBetween(startOfMonth, startOfMonth.plusMonths(1)));
+            consistent &= compare(report, "total", sumOfOutlets(SalesTotals::total), salesRepository.sumAllAmountPaise());
+            report.put("consistent", consistent);
+            return report;
+        } finally {
+            totalsLock.writeLock().unlock();
+        }
+    }
+
+    // Paise are exact, so any difference at all is drift
+    private boolean compare(Map<String, Object> report, String key, long memoryPaise, Long databasePaise) {
+        long db = databasePaise != null ? databasePaise : 0L;
+        report.put(key, Map.of("memoryPaise", memoryPaise, "databasePaise", db));
+        return memoryPaise == db;
+    }
+
     public List<Sale> getRecentSales(int limit) {
-        return salesRepository.findAllByOrderByCreatedAtDesc();
+        return getRecentSales(limit, outlets.getDefault());
+    }
+
+    public List<Sale> getRecentSales(int limit, String outlet) {
+        return salesRepository.findByOutletOrderByCreatedAtDescIdDesc(outlet, Limit.of(limit));
+    }
+    
+    public CursorPage<Sale> getSalesPage(String cursor, int size) {
+        return getSalesPage(cursor, size, outlets.getDefault());
     }
     
-    public List<Object[]> getWeeklySalesTrend() {
-        return salesRepository.getWeeklySalesTrend();
+    // ✅ Keyset pagination - one extra row tells us whether another page exists
+    public CursorPage<Sale> getSalesPage(String cursor, int size, String outlet) {
+        List<Sale> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = salesRepository.findByOutletOrderByCreatedAtDescIdDesc(outlet, Limit.of(size + 1));
+        } else {
+            PageCursor position = PageCursor.decode(cursor);
+            rows = salesRepository.findPageAfter(outlet, position.getCreatedAt(), position.getId(), Limit.of(size + 1));
+        }
+        
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<Sale> page = rows.subList(0, size);
+        Sale last = page.get(size - 1);
+        return new CursorPage<>(page, new PageCursor(last.getCreatedAt(), last.getId()).encode());
+    }
+
+    public List<SalesBucket> getWeeklySalesTrend() {
+        return getWeeklySalesTrend(outlets.getDefault());
+    }
+
+    // ✅ Last 7 days, newest first, from the rollup
+    public List<SalesBucket> getWeeklySalesTrend(String outlet) {
+        LocalDate today = LocalDate.now();
+        List<SalesBucket> days = new ArrayList<>(getReport(today.minusDays(6), today, PERIOD_DAY, outlet).getBuckets());
+        Collections.reverse(days);
+        return days;
+    }
+
+    public SalesReport getReport(LocalDate from, LocalDate to, String period) {
+        return getReport(from, to, period, outlets.getDefault());
+    }
+
+    // Any date range (inclusive), bucketed per day or per month, read from the outlet's rollup rows
+    public SalesReport getReport(LocalDate from, LocalDate to, String period, String outlet) {
+        boolean monthly = checkReport(from, to, period);
+        Map<LocalDate, SalesBucket> buckets = emptyBuckets(from, to, monthly);
+        for (DailySalesRollup day : rollupRepository.findByIdOutletAndIdSalesDateBetweenOrderByIdSalesDateAsc(outlet, from, to)) {
+            SalesBucket bucket = buckets.get(monthly ? day.getSalesDate().withDayOfMonth(1) : day.getSalesDate());
+            bucket.setAmountPaise(bucket.getAmountPaise() + day.getAmountPaise());
+            bucket.setSaleCount(bucket.getSaleCount() + day.getSaleCount());
+        }
+        return new SalesReport(from, to, monthly ? PERIOD_MONTH : PERIOD_DAY, new ArrayList<>(buckets.values()));
+    }
+
+    // ✅ Every outlet's report plus their sum. Each outlet's is its own primary-key range of the
+    // rollup, read concurrently on virtual threads, so more outlets means more reads side by side
+    // (up to the connection pool) rather than one read that grows with every outlet.
+    public OutletSalesReport getOutletReport(LocalDate from, LocalDate to, String period) {
+        boolean monthly = checkReport(from, to, period);
+        List<String> codes = outlets.getAll();
+        Map<String, SalesReport> reports = new LinkedHashMap<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<SalesReport>> futures = new ArrayList<>(codes.size());
+            for (String outlet : codes) {
+                futures.add(executor.submit(() -> getReport(from, to, period, outlet)));
+            }
+            for (int i = 0; i < codes.size(); i++) {
+                reports.put(codes.get(i), futures.get(i).get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while reading outlet reports", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        }
+
+        // Every report has the same buckets in the same order
+        List<SalesBucket> combined = new ArrayList<>(emptyBuckets(from, to, monthly).values());
+        for (SalesReport report : reports.values()) {
+            for (int i = 0; i < combined.size(); i++) {
+                SalesBucket sum = combined.get(i);
+                SalesBucket bucket = report.getBuckets().get(i);
+                sum.setAmountPaise(sum.getAmountPaise() + bucket.getAmountPaise());
+                sum.setSaleCount(sum.getSaleCount() + bucket.getSaleCount());
+            }
+        }
+        return new OutletSalesReport(new SalesReport(from, to, monthly ? PERIOD_MONTH : PERIOD_DAY, combined), reports);
+    }
+
+    // Returns whether the report is monthly
+    private static boolean checkReport(LocalDate from, LocalDate to, String period) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(from, to) > MAX_REPORT_DAYS) {
+            throw new IllegalArgumentException("Range is too long");
+        }
+        boolean monthly = PERIOD_MONTH.equals(period);
+        if (!monthly && !PERIOD_DAY.equals(period)) {
+            throw new IllegalArgumentException("period must be day or month");
+        }
+        return monthly;
+    }
+
+    private static Map<LocalDate, SalesBucket> emptyBuckets(LocalDate from, LocalDate to, boolean monthly) {
+        Map<LocalDate, SalesBucket> buckets = new LinkedHashMap<>();
+        LocalDate start = monthly ? from.withDayOfMonth(1) : from;
+        for (LocalDate d = start; !d.isAfter(to); d = monthly ? d.plusMonths(1) : d.plusDays(1)) {
+            buckets.put(d, new SalesBucket(d, 0, 0));
+        }
+        return buckets;
     }
 }
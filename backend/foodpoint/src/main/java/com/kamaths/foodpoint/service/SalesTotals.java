@@ -0,0 +1,39 @@
+package com.kamaths.foodpoint.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running sales totals kept in memory so the dashboard endpoints
+ * don't have to SUM the whole sales table on every request.
+ * Counters are per day and per month, plus one lifetime total, all in paise.
+ */
+class SalesTotals {
+
+    private final ConcurrentMap<LocalDate, LongAdder> daily = new ConcurrentHashMap<>();
+    private final ConcurrentMap<YearMonth, LongAdder> monthly = new ConcurrentHashMap<>();
+    private final LongAdder total = new LongAdder();
+
+    void add(LocalDate day, long amountPaise) {
+        daily.computeIfAbsent(day, d -> new LongAdder()).add(amountPaise);
+        monthly.computeIfAbsent(YearMonth.from(day), m -> new LongAdder()).add(amountPaise);
+        total.add(amountPaise);
+    }
+
+    long day(LocalDate day) {
+        LongAdder adder = daily.get(day);
+        return adder != null ? adder.sum() : 0L;
+    }
+
+    long month(YearMonth month) {
+        LongAdder adder = monthly.get(month);
+        return adder != null ? adder.sum() : 0L;
+    }
+
+    long total() {
+        return total.sum();
+    }
+}
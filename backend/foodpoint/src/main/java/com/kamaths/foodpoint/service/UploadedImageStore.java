@@ -0,0 +1,127 @@
+package com.kamaths.foodpoint.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Read side of the upload directory. Files are UUID-named and never rewritten,
+ * so size + mtime make a strong validator and the hottest small files (the
+ * menu thumbnails) can be kept in a bounded LRU without invalidation.
+ */
+@Component
+public class UploadedImageStore {
+
+    static final int MAX_CACHED_FILE_BYTES = 128 * 1024;
+    static final long CACHE_BUDGET_BYTES = 16 * 1024 * 1024;
+
+    // Plain file names only - no separators, no leading dot
+    private static final Pattern SAFE_NAME = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]{0,200}");
+
+    private final Path root;
+
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<String, CachedImage> hot = new LinkedHashMap<>(64, 0.75f, true);
+    private long hotBytes;
+
+    public UploadedImageStore(@Value("${app.upload.dir:/uploads}") String uploadDir) {
+        this.root = Paths.get(uploadDir).toAbsolutePath().normalize();
+    }
+
+    public record StoredImage(Path path, long size, long lastModified, String etag, MediaType contentType) {
+        public boolean isImage() {
+            return "image".equals(contentType.getType());
+        }
+    }
+
+    private record CachedImage(String etag, byte[] bytes) {}
+
+    public Optional<StoredImage> find(String fileName) throws IOException {
+        if (!SAFE_NAME.matcher(fileName).matches()) {
+            return Optional.empty();
+        }
+        Path path = root.resolve(fileName);
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            evict(fileName);
+            return Optional.empty();
+        }
+        if (!attributes.isRegularFile()) {
+            return Optional.empty();
+        }
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String etag = "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"";
+        return Optional.of(new StoredImage(path, size, lastModified, etag, contentType(path)));
+    }
+
+    // Bytes for small files, from the LRU when hot; null means stream it from disk
+    public byte[] cachedBytes(StoredImage image) throws IOException {
+        if (image.size() > MAX_CACHED_FILE_BYTES) {
+            return null;
+        }
+        String key = image.path().getFileName().toString();
+        synchronized (hot) {
+            CachedImage cached = hot.get(key);
+            if (cached != null && cached.etag().equals(image.etag())) {
+                return cached.bytes();
+            }
+        }
+        byte[] bytes = Files.readAllBytes(image.path());
+        synchronized (hot) {
+            CachedImage previous = hot.put(key, new CachedImage(image.etag(), bytes));
+            hotBytes += bytes.length - (previous != null ? previous.bytes().length : 0);
+            Iterator<Map.Entry<String, CachedImage>> eldest = hot.entrySet().iterator();
+            while (hotBytes > CACHE_BUDGET_BYTES && eldest.hasNext()) {
+                hotBytes -= eldest.next().getValue().bytes().length;
+                eldest.remove();
+            }
+        }
+        return bytes;
+    }
+
+    int cachedFileCount() {
+        synchronized (hot) {
+            return hot.size();
+        }
+    }
+
+    private void evict(String fileName) {
+        synchronized (hot) {
+            CachedImage removed = hot.remove(fileName);
+            if (removed != null) {
+                hotBytes -= removed.bytes().length;
+            }
+        }
+    }
+
+    // By extension first; files saved without one are sniffed from their first bytes
+    private static MediaType contentType(Path path) throws IOException {
+        Optional<MediaType> byName = MediaTypeFactory.getMediaType(path.getFileName().toString());
+        if (byName.isPresent()) {
+            return byName.get();
+        }
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+            String sniffed = URLConnection.guessContentTypeFromStream(in);
+            return sniffed != null ? MediaType.parseMediaType(sniffed) : MediaType.APPLICATION_OCTET_STREAM;
+        }
+    }
+}
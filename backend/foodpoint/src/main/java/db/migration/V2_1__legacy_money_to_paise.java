@@ -0,0 +1,73 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Brings databases from before versioned migrations up to the paise schema V1 describes.
+ * Does nothing on a fresh database.
+ *
+ * Money used to be stored as rupee doubles: each legacy column is copied into its *_paise
+ * column and dropped, so the old NOT NULL constraints don't block inserts. This has to run
+ * before V3 rebuilds the daily rollup from sales.amount_paise. (order_items.price is
+ * converted by V4, which copies that table anyway.)
+ *
+ * Sales and order ids used to come from IDENTITY columns; the sequences that replaced
+ * them are moved past the existing ids.
+ */
+public class V2_1__legacy_money_to_paise extends BaseJavaMigration {
+
+    private static final String[][] MONEY_COLUMNS = {
+        // table, legacy rupee column, paise column
+        {"sales", "amount", "amount_paise"},
+        {"orders", "total_amount", "total_amount_paise"},
+        {"food_item", "price", "price_paise"},
+    };
+
+    // Sale/Order.ID_ALLOCATION_SIZE as of this version (the INCREMENT BY of V1's sequences)
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            for (String[] column : MONEY_COLUMNS) {
+                if (columnExists(connection, column[0], column[1])) {
+                    statement.executeUpdate("UPDATE " + column[0] + " SET " + column[2] + " = ROUND(" + column[1] + " * 100)"
+                        + " WHERE " + column[1] + " IS NOT NULL");
+                    statement.execute("ALTER TABLE " + column[0] + " DROP COLUMN " + column[1]);
+                }
+            }
+            alignSequence(statement, "sales", "sales_seq");
+            alignSequence(statement, "orders", "orders_seq");
+        }
+    }
+
+    // Hibernate's pooled optimizer hands out (value - size, value], so the next value must
+    // be at least one allocation past the highest id
+    private static void alignSequence(Statement statement, String table, String sequence) throws SQLException {
+        long maxId;
+        try (ResultSet max = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            max.next();
+            maxId = max.getLong(1);
+        }
+        if (maxId > 0) {
+            statement.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (maxId + ID_ALLOCATION_SIZE + 1));
+        }
+    }
+
+    // H2 reports identifiers in upper case, PostgreSQL in lower case
+    private static boolean columnExists(Connection connection, String table, String column) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet upper = metaData.getColumns(null, null, table.toUpperCase(), column.toUpperCase());
+             ResultSet lower = metaData.getColumns(null, null, table, column)) {
+            return upper.next() || lower.next();
+        }
+    }
+}
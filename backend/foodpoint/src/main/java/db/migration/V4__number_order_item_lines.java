@@ -0,0 +1,94 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Gives every order line a position (order_items.line_no, primary key order_id + line_no)
+ * so Hibernate can update, add or remove one line instead of rewriting the whole list.
+ *
+ * order_items had no key to number existing rows by, so the table is copied into a new
+ * one in Java - which also lets it pick up the rupee price column of very old databases,
+ * something a plain SQL migration couldn't reference without failing on newer ones.
+ */
+public class V4__number_order_item_lines extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        boolean legacyPrice = columnExists(connection, "order_items", "price");
+
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("CREATE TABLE order_item_lines (" +
+                "order_id BIGINT NOT NULL REFERENCES orders (id), " +
+                "line_no INTEGER NOT NULL, " +
+                "item_name VARCHAR(255), " +
+                "food_item_id BIGINT, " +
+                "price_paise BIGINT DEFAULT 0 NOT NULL, " +
+                "quantity INTEGER NOT NULL, " +
+                "PRIMARY KEY (order_id, line_no))");
+        }
+
+        String select = "SELECT order_id, item_name, food_item_id, price_paise, quantity"
+            + (legacyPrice ? ", price" : "") + " FROM order_items ORDER BY order_id";
+        try (Statement read = connection.createStatement();
+             PreparedStatement insert = connection.prepareStatement(
+                 "INSERT INTO order_item_lines (order_id, line_no, item_name, food_item_id, price_paise, quantity) " +
+                 "VALUES (?, ?, ?, ?, ?, ?)")) {
+            read.setFetchSize(BATCH_SIZE);
+            try (ResultSet rows = read.executeQuery(select)) {
+                long currentOrder = -1;
+                int line = 0;
+                int pending = 0;
+                while (rows.next()) {
+                    long orderId = rows.getLong(1);
+                    if (orderId != currentOrder) {
+                        currentOrder = orderId;
+                        line = 0;
+                    }
+                    long pricePaise = rows.getLong(4);
+                    if (legacyPrice && rows.getObject(6) != null) {
+                        pricePaise = Math.round(rows.getDouble(6) * 100);
+                    }
+                    insert.setLong(1, orderId);
+                    insert.setInt(2, line++);
+                    insert.setString(3, rows.getString(2));
+                    insert.setObject(4, rows.getObject(3, Long.class));
+                    insert.setLong(5, pricePaise);
+                    insert.setInt(6, rows.getInt(5)); // NULL quantity (very old rows) becomes 0
+                    insert.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        insert.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    insert.executeBatch();
+                }
+            }
+        }
+
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP TABLE order_items");
+            ddl.execute("ALTER TABLE order_item_lines RENAME TO order_items");
+        }
+    }
+
+    // H2 reports identifiers in upper case, PostgreSQL in lower case
+    private static boolean columnExists(Connection connection, String table, String column) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet upper = metaData.getColumns(null, null, table.toUpperCase(), column.toUpperCase());
+             ResultSet lower = metaData.getColumns(null, null, table, column)) {
+            return upper.next() || lower.next();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+-- Schema as of the switch from ddl-auto=update to versioned migrations.
+-- Plain SQL that runs on both H2 and PostgreSQL.
+--
+-- Databases created by earlier versions already have some of these tables,
+-- possibly without the newer columns: every statement is IF NOT EXISTS so it
+-- only fills in what is missing. LegacySchemaUpgrade then copies the old rupee
+-- columns into the *_paise ones.
+
+CREATE TABLE IF NOT EXISTS food_item (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name          VARCHAR(255) NOT NULL,
+    category      VARCHAR(255) NOT NULL,
+    price_paise   BIGINT DEFAULT 0 NOT NULL,
+    image_url     VARCHAR(255),
+    thumbnail_url VARCHAR(255),
+    medium_url    VARCHAR(255),
+    created_at    TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS orders (
+    id                 BIGINT PRIMARY KEY,
+    idempotency_key    VARCHAR(100),
+    customer_name      VARCHAR(255),
+    customer_phone     VARCHAR(255),
+    payment_method     VARCHAR(255),
+    notes              VARCHAR(255),
+    total_amount_paise BIGINT DEFAULT 0 NOT NULL,
+    created_at         TIMESTAMP(6),
+    status             VARCHAR(255),
+    sale_recorded      BOOLEAN DEFAULT TRUE NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS order_items (
+    order_id     BIGINT NOT NULL REFERENCES orders (id),
+    item_name    VARCHAR(255),
+    food_item_id BIGINT,
+    price_paise  BIGINT DEFAULT 0 NOT NULL,
+    quantity     INTEGER NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS sales (
+    id           BIGINT PRIMARY KEY,
+    order_id     BIGINT,
+    amount_paise BIGINT DEFAULT 0 NOT NULL,
+    created_at   TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS daily_sales_rollup (
+    sales_date   DATE PRIMARY KEY,
+    amount_paise BIGINT NOT NULL,
+    sale_count   BIGINT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS item_sales_fact (
+    sales_date    DATE NOT NULL,
+    item_key      VARCHAR(120) NOT NULL,
+    food_item_id  BIGINT,
+    item_name     VARCHAR(255) NOT NULL,
+    category      VARCHAR(255) NOT NULL,
+    quantity      BIGINT NOT NULL,
+    revenue_paise BIGINT NOT NULL,
+    PRIMARY KEY (sales_date, item_key)
+);
+
+CREATE TABLE IF NOT EXISTS hourly_sales_fact (
+    sales_date    DATE NOT NULL,
+    sales_hour    INTEGER NOT NULL,
+    order_count   BIGINT NOT NULL,
+    item_count    BIGINT NOT NULL,
+    revenue_paise BIGINT NOT NULL,
+    PRIMARY KEY (sales_date, sales_hour)
+);
+
+-- Hibernate's pooled optimizer: one nextval per Sale/Order.ID_ALLOCATION_SIZE ids
+CREATE SEQUENCE IF NOT EXISTS sales_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS orders_seq START WITH 1 INCREMENT BY 50;
+
+-- Columns added after the first release
+ALTER TABLE food_item ADD COLUMN IF NOT EXISTS price_paise BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE food_item ADD COLUMN IF NOT EXISTS thumbnail_url VARCHAR(255);
+ALTER TABLE food_item ADD COLUMN IF NOT EXISTS medium_url VARCHAR(255);
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS idempotency_key VARCHAR(100);
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS total_amount_paise BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS sale_recorded BOOLEAN DEFAULT TRUE NOT NULL;
+ALTER TABLE order_items ADD COLUMN IF NOT EXISTS food_item_id BIGINT;
+ALTER TABLE order_items ADD COLUMN IF NOT EXISTS price_paise BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE sales ADD COLUMN IF NOT EXISTS order_id BIGINT;
+ALTER TABLE sales ADD COLUMN IF NOT EXISTS amount_paise BIGINT DEFAULT 0 NOT NULL;
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_orders_idempotency_key ON orders (idempotency_key);
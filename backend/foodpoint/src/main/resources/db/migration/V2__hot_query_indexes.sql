@@ -0,0 +1,22 @@
+-- Indexes for the repository queries that filter or sort on unindexed columns.
+-- Column order follows each query: equality columns first, then the range/sort column,
+-- then id where the query pages by (created_at, id).
+
+-- OrderRepository.findByStatusOrderByCreatedAtDesc, findByStatusAndSaleRecordedFalse
+CREATE INDEX IF NOT EXISTS ix_orders_status_created_at ON orders (status, created_at);
+
+-- OrderRepository.findAllByOrderByCreatedAtDescIdDesc / findPageAfter, order export date range
+CREATE INDEX IF NOT EXISTS ix_orders_created_at_id ON orders (created_at, id);
+
+-- OrderRepository lazy item loads (@BatchSize IN lists); PostgreSQL doesn't index foreign keys itself
+CREATE INDEX IF NOT EXISTS ix_order_items_order_id ON order_items (order_id);
+
+-- SalesRepository.sumAmountPaiseByCreatedAtBetween / sumAmountPaiseGroupedByDay (covering),
+-- findAllByOrderByCreatedAtDescIdDesc / findPageAfter, sales export date range
+CREATE INDEX IF NOT EXISTS ix_sales_created_at_id ON sales (created_at, id, amount_paise);
+
+-- SalesRepository.countByOrderId
+CREATE INDEX IF NOT EXISTS ix_sales_order_id ON sales (order_id);
+
+-- FoodItemRepository.findByCategory
+CREATE INDEX IF NOT EXISTS ix_food_item_category ON food_item (category);
@@ -0,0 +1,21 @@
+-- Optimistic locking and idempotent payments for orders edited/paid from several tills.
+
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS payment_key VARCHAR(100);
+
+-- Before this version a double-clicked payment could record an order's sale twice.
+-- Keep the first sale of each order and drop the repeats...
+DELETE FROM sales
+WHERE order_id IS NOT NULL
+  AND id > (SELECT MIN(first_sale.id) FROM sales first_sale WHERE first_sale.order_id = sales.order_id);
+
+-- ...re-derive the daily rollup they were counted in...
+DELETE FROM daily_sales_rollup;
+INSERT INTO daily_sales_rollup (sales_date, amount_paise, sale_count)
+SELECT CAST(created_at AS DATE), SUM(amount_paise), COUNT(*)
+FROM sales
+GROUP BY CAST(created_at AS DATE);
+
+-- ...and make it impossible from now on. ix_sales_order_id (V2) is superseded.
+DROP INDEX IF EXISTS ix_sales_order_id;
+CREATE UNIQUE INDEX IF NOT EXISTS ux_sales_order_id ON sales (order_id);
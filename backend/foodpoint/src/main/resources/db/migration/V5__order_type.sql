@@ -0,0 +1,3 @@
+-- Dine-in or takeaway, used by the kitchen queue to move takeaways up.
+-- Orders from before this version have none and are treated as dine-in.
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS order_type VARCHAR(20);
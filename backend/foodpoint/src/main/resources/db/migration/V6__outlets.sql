@@ -0,0 +1,67 @@
+-- Several outlets (branches, counters) in one database. Every order, sale and menu item
+-- belongs to one; everything recorded before this version belongs to 'main', the default.
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS outlet VARCHAR(40) DEFAULT 'main' NOT NULL;
+ALTER TABLE sales ADD COLUMN IF NOT EXISTS outlet VARCHAR(40) DEFAULT 'main' NOT NULL;
+ALTER TABLE food_item ADD COLUMN IF NOT EXISTS outlet VARCHAR(40) DEFAULT 'main' NOT NULL;
+
+-- Per-outlet partitions as leading index columns: each outlet's rows are one contiguous
+-- range, so its queries read only its own rows however many outlets share the tables.
+-- (H2 has no declarative partitioning and the same migrations run on PostgreSQL.)
+-- The outlet-less indexes from V2 stay for the cross-outlet outbox, reconcile and exports.
+
+-- OrderRepository.findByOutletAndStatusOrderByCreatedAtDesc, findVersionsByOutletStatusCreatedBetween
+CREATE INDEX IF NOT EXISTS ix_orders_outlet_status_created_at ON orders (outlet, status, created_at);
+
+-- OrderRepository.findByOutletOrderByCreatedAtDescIdDesc / findPageAfter
+CREATE INDEX IF NOT EXISTS ix_orders_outlet_created_at_id ON orders (outlet, created_at, id);
+
+-- SalesRepository.findByOutletOrderByCreatedAtDescIdDesc / findPageAfter
+CREATE INDEX IF NOT EXISTS ix_sales_outlet_created_at_id ON sales (outlet, created_at, id);
+
+-- FoodItemRepository.findByOutlet (menu catalog load, in id order)
+CREATE INDEX IF NOT EXISTS ix_food_item_outlet_id ON food_item (outlet, id);
+
+-- The rollup and fact tables get the outlet at the front of their primary keys.
+-- A key can't be changed in place portably, so each table is copied into a new one.
+
+CREATE TABLE daily_sales_rollup_v6 (
+    outlet       VARCHAR(40) NOT NULL,
+    sales_date   DATE NOT NULL,
+    amount_paise BIGINT NOT NULL,
+    sale_count   BIGINT NOT NULL,
+    PRIMARY KEY (outlet, sales_date)
+);
+INSERT INTO daily_sales_rollup_v6 (outlet, sales_date, amount_paise, sale_count)
+    SELECT 'main', sales_date, amount_paise, sale_count FROM daily_sales_rollup;
+DROP TABLE daily_sales_rollup;
+ALTER TABLE daily_sales_rollup_v6 RENAME TO daily_sales_rollup;
+
+CREATE TABLE item_sales_fact_v6 (
+    outlet        VARCHAR(40) NOT NULL,
+    sales_date    DATE NOT NULL,
+    item_key      VARCHAR(120) NOT NULL,
+    food_item_id  BIGINT,
+    item_name     VARCHAR(255) NOT NULL,
+    category      VARCHAR(255) NOT NULL,
+    quantity      BIGINT NOT NULL,
+    revenue_paise BIGINT NOT NULL,
+    PRIMARY KEY (outlet, sales_date, item_key)
+);
+INSERT INTO item_sales_fact_v6 (outlet, sales_date, item_key, food_item_id, item_name, category, quantity, revenue_paise)
+    SELECT 'main', sales_date, item_key, food_item_id, item_name, category, quantity, revenue_paise FROM item_sales_fact;
+DROP TABLE item_sales_fact;
+ALTER TABLE item_sales_fact_v6 RENAME TO item_sales_fact;
+
+CREATE TABLE hourly_sales_fact_v6 (
+    outlet        VARCHAR(40) NOT NULL,
+    sales_date    DATE NOT NULL,
+    sales_hour    INTEGER NOT NULL,
+    order_count   BIGINT NOT NULL,
+    item_count    BIGINT NOT NULL,
+    revenue_paise BIGINT NOT NULL,
+    PRIMARY KEY (outlet, sales_date, sales_hour)
+);
+INSERT INTO hourly_sales_fact_v6 (outlet, sales_date, sales_hour, order_count, item_count, revenue_paise)
+    SELECT 'main', sales_date, sales_hour, order_count, item_count, revenue_paise FROM hourly_sales_fact;
+DROP TABLE hourly_sales_fact;
+ALTER TABLE hourly_sales_fact_v6 RENAME TO hourly_sales_fact;
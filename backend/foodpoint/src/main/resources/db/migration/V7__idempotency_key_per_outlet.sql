@@ -0,0 +1,7 @@
+-- Idempotency keys are chosen by each outlet's tills, so two outlets may send the same one.
+-- A key identifies an order only within its outlet: the V1 index on the key alone made the
+-- second outlet's order a "replay" of the first's.
+DROP INDEX IF EXISTS ux_orders_idempotency_key;
+
+-- OrderRepository.findByOutletAndIdempotencyKey / findIdsByOutletAndIdempotencyKeys
+CREATE UNIQUE INDEX IF NOT EXISTS ux_orders_outlet_idempotency_key ON orders (outlet, idempotency_key);
@@ -0,0 +1,140 @@
+package com.kamaths.foodpoint;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Lunch-rush load test for POST /api/orders: the default runtime against the
+ * prod profile (virtual threads + fenced Hikari pool). Not part of the normal build:
+ *
+ *   mvn test -Dgroups=load -DexcludedGroups=none
+ */
+@Tag("load")
+class OrderLoadTest {
+
+	private static final int CLIENTS = 400;
+	private static final Duration WARMUP = Duration.ofSeconds(5);
+	private static final Duration MEASURE = Duration.ofSeconds(15);
+
+	private static final String ORDER = """
+			{"customerName":"Load","paymentMethod":"cash","orderItems":[
+			{"itemName":"Masala Dosa","price":70.0,"quantity":2},
+			{"itemName":"Filter Coffee","price":25.0,"quantity":3}]}""";
+
+	@Test
+	void postOrdersThroughputBeforeAndAfter() throws Exception {
+		Result before = run("default", new String[0]);
+		Result after = run("prod", new String[] {"prod"});
+
+		System.out.println(before);
+		System.out.println(after);
+		assertThat(before.errors).isZero();
+		assertThat(after.errors).isZero();
+	}
+
+	private Result run(String name, String[] profiles) throws Exception {
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(FoodpointApplication.class)
+				.profiles(profiles)
+				.run(
+						"--server.port=0",
+						"--spring.datasource.url=jdbc:h2:mem:load_" + name + ";DB_CLOSE_DELAY=-1",
+						"--spring.jpa.hibernate.ddl-auto=validate",
+						"--spring.devtools.restart.enabled=false");
+		try {
+			int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+			return load(name, URI.create("http://localhost:" + port + "/api/orders"));
+		} finally {
+			context.close();
+		}
+	}
+
+	private Result load(String name, URI uri) throws InterruptedException {
+		HttpClient client = HttpClient.newBuilder()
+				.executor(Executors.newVirtualThreadPerTaskExecutor())
+				.connectTimeout(Duration.ofSeconds(5))
+				.build();
+		HttpRequest request = HttpRequest.newBuilder(uri)
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString(ORDER))
+				.build();
+
+		AtomicInteger completed = new AtomicInteger();
+		AtomicInteger errors = new AtomicInteger();
+		// latency histogram in milliseconds, last bucket is "slower than that"
+		AtomicLongArray histogram = new AtomicLongArray(5001);
+
+		long start = System.nanoTime();
+		long measureFrom = start + WARMUP.toNanos();
+		long end = measureFrom + MEASURE.toNanos();
+
+		ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+		for (int i = 0; i < CLIENTS; i++) {
+			clients.submit(() -> {
+				while (System.nanoTime() < end) {
+					long sent = System.nanoTime();
+					try {
+						HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+						long done = System.nanoTime();
+						if (sent >= measureFrom) {
+							if (response.statusCode() == 200) {
+								completed.incrementAndGet();
+								histogram.incrementAndGet((int) Math.min(5000, (done - sent) / 1_000_000));
+							} else {
+								errors.incrementAndGet();
+							}
+						}
+					} catch (Exception e) {
+						if (sent >= measureFrom) {
+							errors.incrementAndGet();
+						}
+					}
+				}
+				return null;
+			});
+		}
+		clients.shutdown();
+		clients.awaitTermination(MEASURE.plus(WARMUP).toSeconds() + 60, TimeUnit.SECONDS);
+
+		return new Result(name, completed.get(), errors.get(), MEASURE.toMillis() / 1000.0, histogram);
+	}
+
+	private record Result(String name, int completed, int errors, double seconds, AtomicLongArray histogram) {
+
+		long percentile(double p) {
+			long[] counts = new long[histogram.length()];
+			Arrays.setAll(counts, histogram::get);
+			long target = (long) Math.ceil(completed * p);
+			long seen = 0;
+			for (int ms = 0; ms < counts.length; ms++) {
+				seen += counts[ms];
+				if (seen >= target) {
+					return ms;
+				}
+			}
+			return counts.length - 1;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("POST /api/orders [%s] %d clients: %.0f req/s, p50=%dms p99=%dms, errors=%d",
+					name, CLIENTS, completed / seconds, percentile(0.50), percentile(0.99), errors);
+		}
+	}
+
+}
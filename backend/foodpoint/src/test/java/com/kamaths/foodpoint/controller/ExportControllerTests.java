@@ -0,0 +1,52 @@
+package com.kamaths.foodpoint.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ExportControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void streamsGzippedCsvAsAnAttachment() throws Exception {
+		byte[] body = mockMvc.perform(get("/api/sales/export")
+						.param("from", "2001-01-01").param("to", "2001-12-31").param("gzip", "true"))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType("application/gzip"))
+				.andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION,
+						"attachment; filename=\"sales-from-2001-01-01-to-2001-12-31.csv.gz\""))
+				.andReturn().getResponse().getContentAsByteArray();
+
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+			assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8))
+					.startsWith("id,order_id,created_at,amount\r\n");
+		}
+	}
+
+	@Test
+	void rejectsUnknownFormats() throws Exception {
+		mockMvc.perform(get("/api/orders/export").param("format", "xlsx"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/orders/export").param("format", "ndjson"))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType("application/x-ndjson;charset=UTF-8"));
+	}
+
+}
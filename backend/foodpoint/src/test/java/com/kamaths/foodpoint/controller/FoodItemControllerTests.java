@@ -0,0 +1,91 @@
+package com.kamaths.foodpoint.controller;
+
+import com.kamaths.foodpoint.dto.FoodItemRequestDto;
+import com.kamaths.foodpoint.service.FoodItemService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class FoodItemControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private FoodItemService foodItemService;
+
+	@Test
+	void menuIsRevalidatedWithEtag() throws Exception {
+		String etag = mockMvc.perform(get("/api/food-items/menu"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(etag).startsWith("\"");
+
+		mockMvc.perform(get("/api/food-items/menu").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+
+		FoodItemRequestDto dto = new FoodItemRequestDto();
+		dto.setName("Masala Dosa");
+		dto.setCategory("South Indian");
+		dto.setPrice(70.0);
+		dto.setImage(new MockMultipartFile("image", "dosa.jpeg", "image/jpeg", new byte[] {1, 2, 3}));
+		foodItemService.createFoodItem(dto);
+
+		String changed = mockMvc.perform(get("/api/food-items/menu").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(changed).isNotEqualTo(etag);
+	}
+
+	@Test
+	void eachMenuEncodingHasItsOwnEtag() throws Exception {
+		String cbor = mockMvc.perform(get("/api/food-items/menu").accept(MediaType.APPLICATION_CBOR))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		String json = mockMvc.perform(get("/api/food-items/menu").accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_JSON))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(cbor).isNotEqualTo(json);
+
+		// A cached CBOR body can't be revalidated as JSON, or the JSON client would get CBOR
+		mockMvc.perform(get("/api/food-items/menu").accept(MediaType.APPLICATION_JSON).header(HttpHeaders.IF_NONE_MATCH, cbor))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, json));
+		mockMvc.perform(get("/api/food-items/menu").accept(MediaType.APPLICATION_CBOR).header(HttpHeaders.IF_NONE_MATCH, cbor))
+				.andExpect(status().isNotModified());
+		mockMvc.perform(get("/api/food-items/menu").accept(MediaType.IMAGE_PNG))
+				.andExpect(status().isNotAcceptable());
+	}
+
+	@Test
+	void searchFindsNewItemsBySpellingVariant() throws Exception {
+		FoodItemRequestDto dto = new FoodItemRequestDto();
+		dto.setName("Rava Uttapam");
+		dto.setCategory("South Indian");
+		dto.setPrice(80.0);
+		dto.setImage(new MockMultipartFile("image", "uttapam.jpeg", "image/jpeg", new byte[] {1, 2, 3}));
+		foodItemService.createFoodItem(dto);
+
+		mockMvc.perform(get("/api/food-items/search").param("q", "utha"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].name").value("Rava Uttapam"))
+				.andExpect(jsonPath("$[0].price").value(80.0));
+	}
+
+}
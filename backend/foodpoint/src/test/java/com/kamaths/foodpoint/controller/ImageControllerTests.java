@@ -0,0 +1,89 @@
+package com.kamaths.foodpoint.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ImageControllerTests {
+
+	private static final byte[] PNG_BYTES = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n', 1, 2, 3, 4};
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Value("${app.upload.dir}")
+	private String uploadDir;
+
+	private String fileName;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		Path uploads = Files.createDirectories(Paths.get(uploadDir));
+		fileName = UUID.randomUUID() + "-thumb.png";
+		Files.write(uploads.resolve(fileName), PNG_BYTES);
+	}
+
+	@Test
+	void servesImagesWithTypeAndImmutableCaching() throws Exception {
+		String etag = mockMvc.perform(get("/uploads/" + fileName))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType("image/png"))
+				.andExpect(content().bytes(PNG_BYTES))
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"))
+				.andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(etag).startsWith("\"");
+
+		mockMvc.perform(get("/uploads/" + fileName).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	void answersRangeRequests() throws Exception {
+		mockMvc.perform(get("/uploads/" + fileName).header(HttpHeaders.RANGE, "bytes=8-11"))
+				.andExpect(status().isPartialContent())
+				.andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 8-11/" + PNG_BYTES.length))
+				.andExpect(content().bytes(new byte[] {1, 2, 3, 4}));
+	}
+
+	@Test
+	void sniffsFilesWithoutExtensionAndDownloadsNonImages() throws Exception {
+		String bare = UUID.randomUUID().toString();
+		Files.write(Paths.get(uploadDir).resolve(bare), PNG_BYTES);
+		mockMvc.perform(get("/uploads/" + bare))
+				.andExpect(content().contentType("image/png"));
+
+		String page = UUID.randomUUID() + ".html";
+		Files.writeString(Paths.get(uploadDir).resolve(page), "<script>alert(1)</script>");
+		mockMvc.perform(get("/uploads/" + page))
+				.andExpect(content().contentType("application/octet-stream"))
+				.andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + page + "\""));
+	}
+
+	@Test
+	void rejectsMissingAndUnsafeNames() throws Exception {
+		mockMvc.perform(get("/uploads/" + UUID.randomUUID() + ".png"))
+				.andExpect(status().isNotFound());
+		mockMvc.perform(get("/uploads/..%2Fapplication.properties"))
+				.andExpect(status().isNotFound());
+	}
+
+}
@@ -0,0 +1,43 @@
+package com.kamaths.foodpoint.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class MetricsTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void prometheusEndpointExposesRequestDatabaseAndBusinessMetrics() throws Exception {
+		mockMvc.perform(post("/api/orders").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"customerName\":\"Metrics\",\"paymentMethod\":\"cash\"," +
+								"\"orderItems\":[{\"itemName\":\"Tea\",\"price\":15.0,\"quantity\":2}]}"))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/api/orders/pending")).andExpect(status().isOk());
+
+		String scrape = mockMvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		assertThat(scrape)
+				.contains("http_server_requests_seconds_bucket{")
+				.containsPattern("http_server_requests_seconds_count\\{[^}]*uri=\"/api/orders/pending\"")
+				.containsPattern("http_server_requests_jdbc_statements_count\\{[^}]*uri=\"/api/orders/pending\"")
+				.contains("jdbc_statements_seconds_bucket{")
+				.contains("hikaricp_connections_pending{")
+				.containsPattern("foodpoint_orders_placed_total\\{[^}]*source=\"api\"[^}]*} [1-9]");
+	}
+
+}
@@ -0,0 +1,194 @@
+package com.kamaths.foodpoint.controller;
+
+import com.kamaths.foodpoint.dto.CreateOrderRequest;
+import com.kamaths.foodpoint.dto.OrderItemDto;
+import com.kamaths.foodpoint.service.OrderService;
+import com.kamaths.foodpoint.service.Outlets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class OrderControllerTests {
+
+	private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private OrderService orderService;
+
+	@BeforeEach
+	void setUp() {
+		for (int i = 0; i < 10; i++) {
+			CreateOrderRequest request = new CreateOrderRequest();
+			request.setCustomerName("Wire " + i);
+			request.setPaymentMethod("cash");
+			request.setOrderItems(List.of(new OrderItemDto("Masala Dosa", 70.0, 2),
+					new OrderItemDto("Filter Coffee", 25.0, 3), new OrderItemDto("Extra chutney", 5.0, 1)));
+			orderService.createOrder(request);
+		}
+	}
+
+	@Test
+	void pendingOrdersAreLeanJson() throws Exception {
+		JsonNode pending = JsonMapper.builder().build().readTree(pendingOrders(MediaType.APPLICATION_JSON));
+		JsonNode order = null;
+		for (JsonNode candidate : pending) {
+			if (candidate.get("customerName").asString().equals("Wire 0")) {
+				order = candidate;
+			}
+		}
+
+		assertThat(order.propertyNames()).containsExactlyInAnyOrder(
+				"id", "version", "status", "customerName", "paymentMethod", "createdAt", "totalAmount", "orderItems");
+		assertThat(order.get("orderItems").get(0).propertyNames())
+				.containsExactlyInAnyOrder("itemName", "price", "quantity");
+		assertThat(order.get("totalAmount").asDouble()).isEqualTo(220.0);
+	}
+
+	@Test
+	void pendingOrdersNegotiateCborAndSmile() throws Exception {
+		byte[] json = pendingOrders(MediaType.APPLICATION_JSON);
+		byte[] cbor = pendingOrders(MediaType.APPLICATION_CBOR);
+		byte[] smile = pendingOrders(SMILE);
+
+		JsonNode expected = JsonMapper.builder().build().readTree(json);
+		assertThat(CBORMapper.builder().build().readTree(cbor)).isEqualTo(expected);
+		assertThat(SmileMapper.builder().build().readTree(smile)).isEqualTo(expected);
+		assertThat(cbor.length).isLessThan(json.length);
+		// Smile back-references repeated field names, so it is the smallest for order lists
+		assertThat(smile.length).isLessThan(cbor.length);
+	}
+
+	@Test
+	void menuVariesByAccept() throws Exception {
+		mockMvc.perform(get("/api/food-items/menu").accept(MediaType.APPLICATION_CBOR))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+				.andExpect(result -> assertThat(result.getResponse().getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT));
+	}
+
+	@Test
+	void streamDeliversOrderEvents() throws Exception {
+		MvcResult stream = mockMvc.perform(get("/api/orders/stream").accept(MediaType.TEXT_EVENT_STREAM))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		CreateOrderRequest request = new CreateOrderRequest();
+		request.setCustomerName("Streamed");
+		request.setPaymentMethod("cash");
+		request.setOrderItems(List.of(new OrderItemDto("Masala Dosa", 70.0, 1)));
+		Long orderId = orderService.createOrder(request).getId();
+
+		String expected = "\"orderId\":" + orderId;
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (!stream.getResponse().getContentAsString().contains(expected) && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertThat(stream.getResponse().getContentType()).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+		assertThat(stream.getResponse().getContentAsString()).contains("event:created", expected);
+	}
+
+	@Test
+	void pendingOrdersAreScopedByOutlet() throws Exception {
+		mockMvc.perform(get("/api/orders/pending").header(Outlets.HEADER, "mall"))
+				.andExpect(status().isBadRequest());
+
+		JsonNode airport = JsonMapper.builder().build().readTree(mockMvc.perform(get("/api/orders/pending")
+						.header(Outlets.HEADER, "airport").accept(MediaType.APPLICATION_JSON))
+				.andExpect(status().isOk())
+				.andExpect(result -> assertThat(result.getResponse().getHeaders(HttpHeaders.VARY)).contains(Outlets.HEADER))
+				.andReturn().getResponse().getContentAsByteArray());
+		for (JsonNode order : airport) {
+			assertThat(order.get("customerName").asString()).doesNotStartWith("Wire ");
+		}
+	}
+
+	@Test
+	void anotherOutletsOrderIsNotFound() throws Exception {
+		CreateOrderRequest request = new CreateOrderRequest();
+		request.setCustomerName("Main only");
+		request.setPaymentMethod("cash");
+		request.setOrderItems(List.of(new OrderItemDto("Masala Dosa", 70.0, 1)));
+		Long orderId = orderService.createOrder(request).getId();
+		String path = "/api/orders/" + orderId;
+
+		mockMvc.perform(put(path).header(Outlets.HEADER, "airport")
+						.contentType(MediaType.APPLICATION_JSON).content("{\"customerName\":\"Taken\",\"orderItems\":[]}"))
+				.andExpect(status().isNotFound());
+		mockMvc.perform(patch(path).header(Outlets.HEADER, "airport")
+						.contentType(MediaType.APPLICATION_JSON).content("{\"customerName\":\"Taken\"}"))
+				.andExpect(status().isNotFound());
+		mockMvc.perform(put(path + "/payment-done").header(Outlets.HEADER, "airport"))
+				.andExpect(status().isNotFound());
+		mockMvc.perform(delete(path).header(Outlets.HEADER, "airport"))
+				.andExpect(status().isNotFound());
+
+		assertThat(orderService.getPendingOrders()).filteredOn(order -> order.getId().equals(orderId))
+				.singleElement()
+				.satisfies(order -> assertThat(order.getCustomerName()).isEqualTo("Main only"));
+		mockMvc.perform(delete(path)).andExpect(status().isOk());
+		assertThat(orderService.getPendingOrders()).noneMatch(order -> order.getId().equals(orderId));
+	}
+
+	@Test
+	void linesNeedAPositiveQuantity() throws Exception {
+		int pending = orderService.getPendingOrders().size();
+		for (String line : List.of("{\"itemName\":\"Masala Dosa\",\"price\":70.0,\"quantity\":0}",
+				"{\"itemName\":\"Masala Dosa\",\"price\":70.0,\"quantity\":-2}",
+				"{\"itemName\":\"Masala Dosa\",\"price\":70.0}")) {
+			mockMvc.perform(post("/api/orders").contentType(MediaType.APPLICATION_JSON)
+							.content("{\"customerName\":\"Zero\",\"orderItems\":[" + line + "]}"))
+					.andExpect(status().isBadRequest());
+			assertThat(orderService.getPendingOrders()).hasSize(pending);
+		}
+
+		CreateOrderRequest request = new CreateOrderRequest();
+		request.setCustomerName("Edited to zero");
+		request.setPaymentMethod("cash");
+		request.setOrderItems(List.of(new OrderItemDto("Masala Dosa", 70.0, 1)));
+		Long orderId = orderService.createOrder(request).getId();
+		mockMvc.perform(put("/api/orders/" + orderId).contentType(MediaType.APPLICATION_JSON)
+						.content("{\"customerName\":\"Edited to zero\",\"orderItems\":"
+								+ "[{\"itemName\":\"Masala Dosa\",\"price\":70.0,\"quantity\":0}]}"))
+				.andExpect(status().isBadRequest());
+
+		assertThat(orderService.getPendingOrders()).filteredOn(order -> order.getId().equals(orderId))
+				.singleElement()
+				.satisfies(order -> assertThat(order.getOrderItems().get(0).getQuantity()).isEqualTo(1));
+		orderService.deleteOrder(orderId);
+	}
+
+	private byte[] pendingOrders(MediaType type) throws Exception {
+		return mockMvc.perform(get("/api/orders/pending").accept(type))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(type))
+				.andReturn().getResponse().getContentAsByteArray();
+	}
+
+}
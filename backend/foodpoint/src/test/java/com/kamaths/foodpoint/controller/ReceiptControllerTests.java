@@ -0,0 +1,128 @@
+package com.kamaths.foodpoint.controller;
+
+import com.kamaths.foodpoint.dto.CreateOrderRequest;
+import com.kamaths.foodpoint.dto.OrderItemDto;
+import com.kamaths.foodpoint.entity.Order;
+import com.kamaths.foodpoint.repository.OrderRepository;
+import com.kamaths.foodpoint.service.OrderService;
+import com.kamaths.foodpoint.service.Outlets;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReceiptControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Test
+	void receiptFollowsTheOrderVersion() throws Exception {
+		Order order = orderService.createOrder(request("Receipt"));
+
+		String bill = text("/api/orders/" + order.getId() + "/receipt");
+		assertThat(bill).contains("Bill #" + order.getId(), "2 x Masala Dosa", "TOTAL Rs. 220.00", "PENDING");
+
+		orderService.markPaymentDone(order.getId());
+		assertThat(text("/api/orders/" + order.getId() + "/receipt")).contains("PAID").doesNotContain("PENDING");
+
+		String kot = text("/api/orders/" + order.getId() + "/kot");
+		assertThat(kot).contains("KOT #" + order.getId(), "3 x Filter Coffee").doesNotContain("Rs.", "70.00");
+
+		mockMvc.perform(get("/api/orders/" + order.getId() + "/receipt").param("format", "escpos"))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_OCTET_STREAM))
+				.andExpect(result -> assertThat(result.getResponse().getContentAsByteArray()).startsWith(0x1b, '@'));
+		mockMvc.perform(get("/api/orders/" + order.getId() + "/receipt").param("format", "docx"))
+				.andExpect(status().isBadRequest());
+		mockMvc.perform(get("/api/orders/-1/receipt"))
+				.andExpect(status().isNotFound());
+		mockMvc.perform(get("/api/orders/" + order.getId() + "/receipt").header(Outlets.HEADER, "airport"))
+				.andExpect(status().isNotFound());
+		mockMvc.perform(get("/api/orders/" + order.getId() + "/kot").header(Outlets.HEADER, "airport"))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void batchReprintsADaysPaidBills() throws Exception {
+		LocalDateTime day = LocalDateTime.of(1999, 12, 31, 9, 0);
+		Order first = pastOrder(day, true);
+		Order pending = pastOrder(day.plusHours(1), false);
+		Order second = pastOrder(day.plusHours(2), true);
+
+		byte[] pdf = mockMvc.perform(post("/api/orders/receipts/batch")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"date\":\"1999-12-31\"}"))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_PDF))
+				.andReturn().getResponse().getContentAsByteArray();
+		assertThat(new String(pdf, StandardCharsets.ISO_8859_1)).startsWith("%PDF-1.4").contains("/Count 2");
+
+		String text = mockMvc.perform(post("/api/orders/receipts/batch")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"orderIds\":[" + second.getId() + "," + pending.getId() + "," + first.getId() + ",-1],"
+								+ "\"format\":\"text\"}"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		String[] bills = text.split("\f");
+		assertThat(bills).hasSize(3);
+		assertThat(bills[0]).contains("Bill #" + second.getId());
+		assertThat(bills[1]).contains("Bill #" + pending.getId());
+		assertThat(bills[2]).contains("Bill #" + first.getId());
+
+		mockMvc.perform(post("/api/orders/receipts/batch").header(Outlets.HEADER, "airport")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"orderIds\":[" + first.getId() + "],\"format\":\"text\"}"))
+				.andExpect(status().isOk())
+				.andExpect(content().string(""));
+
+		mockMvc.perform(post("/api/orders/receipts/batch")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"format\":\"pdf\"}"))
+				.andExpect(status().isBadRequest());
+	}
+
+	private Order pastOrder(LocalDateTime createdAt, boolean paid) {
+		Order order = orderService.createOrder(request("Batch"));
+		Order saved = orderRepository.findById(order.getId()).orElseThrow();
+		saved.setCreatedAt(createdAt);
+		orderRepository.save(saved);
+		return paid ? orderService.markPaymentDone(order.getId()) : saved;
+	}
+
+	private String text(String path) throws Exception {
+		return mockMvc.perform(get(path).param("format", "text"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+	}
+
+	private static CreateOrderRequest request(String customer) {
+		CreateOrderRequest request = new CreateOrderRequest();
+		request.setCustomerName(customer);
+		request.setPaymentMethod("cash");
+		request.setOrderItems(List.of(new OrderItemDto("Masala Dosa", 70.0, 2),
+				new OrderItemDto("Filter Coffee", 25.0, 3), new OrderItemDto("Extra chutney", 5.0, 1)));
+		return request;
+	}
+
+}
@@ -0,0 +1,34 @@
+package com.kamaths.foodpoint.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SalesControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void rollupIsRebuiltOnlyByPost() throws Exception {
+		mockMvc.perform(get("/api/sales/consistency"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.consistent").isBoolean());
+		mockMvc.perform(get("/api/sales/rollup/rebuild"))
+				.andExpect(status().isMethodNotAllowed());
+
+		mockMvc.perform(post("/api/sales/rollup/rebuild"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.consistent").value(true));
+	}
+
+}
@@ -0,0 +1,51 @@
+package com.kamaths.foodpoint.pricing;
+
+import com.kamaths.foodpoint.entity.OrderItem;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PricingCalculatorTests {
+
+	@Test
+	void convertsRupeesWithoutFloatingPointLoss() {
+		assertThat(Money.toPaise(19.99)).isEqualTo(1999L);
+		assertThat(Money.toPaise(0.1 + 0.2)).isEqualTo(30L);
+		assertThat(Money.toPaise((Double) null)).isZero();
+		assertThat(Money.toRupees(1999L)).isEqualTo(19.99);
+	}
+
+	@Test
+	void orderTotalExactlyMatchesLineItemsAtHighVolume() {
+		Random random = new Random(42);
+		List<OrderItem> items = new ArrayList<>();
+		BigDecimal expected = BigDecimal.ZERO;
+		double naive = 0.0;
+		for (int i = 0; i < 200_000; i++) {
+			double rupees = random.nextInt(50_000) / 100.0;
+			int quantity = 1 + random.nextInt(5);
+			items.add(new OrderItem("item" + i, Money.toPaise(rupees), quantity));
+			expected = expected.add(BigDecimal.valueOf(rupees).multiply(BigDecimal.valueOf(quantity)));
+			naive += rupees * quantity;
+		}
+
+		long total = PricingCalculator.orderTotal(items);
+
+		assertThat(BigDecimal.valueOf(total).movePointLeft(2)).isEqualByComparingTo(expected);
+		// the old double arithmetic does not survive this volume
+		assertThat(BigDecimal.valueOf(naive)).isNotEqualByComparingTo(expected);
+	}
+
+	@Test
+	void overflowFailsInsteadOfWrapping() {
+		List<OrderItem> items = List.of(new OrderItem("huge", Long.MAX_VALUE / 2, 3));
+		assertThatThrownBy(() -> PricingCalculator.orderTotal(items)).isInstanceOf(ArithmeticException.class);
+	}
+
+}
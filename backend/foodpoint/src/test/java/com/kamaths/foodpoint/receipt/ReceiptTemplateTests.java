@@ -0,0 +1,100 @@
+package com.kamaths.foodpoint.receipt;
+
+import com.kamaths.foodpoint.entity.Order;
+import com.kamaths.foodpoint.entity.OrderItem;
+import com.kamaths.foodpoint.pricing.PricingCalculator;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReceiptTemplateTests {
+
+	private static final String TEMPLATE = String.join("\n",
+			"# comment",
+			"@center @bold {{shop}}",
+			"@rule",
+			"Bill #{{orderId}}|{{date}}",
+			"Phone: {{phone}}",
+			"@items {{qty}} x {{name}}|{{amount}}",
+			"@rule =",
+			"@right @big TOTAL {{total}}");
+
+	private final ReceiptTemplate template = ReceiptTemplate.compile(TEMPLATE, 32, Map.of("shop", "Food Point"));
+
+	@Test
+	void rendersAlignedAndWrappedLines() {
+		ReceiptLayout layout = template.render(order());
+
+		assertThat(layout.toText()).isEqualTo(String.join("\n",
+				" ".repeat(11) + "Food Point",
+				"-".repeat(32),
+				"Bill #7" + " ".repeat(15) + "18-10-2026",
+				// Phone: left out, the order has none
+				"2 x Masala Dosa" + " ".repeat(11) + "140.00",
+				"1 x Chicken Biryani" + " ".repeat(7) + "250.00",
+				"Family Pack Special",
+				"=".repeat(32),
+				" ".repeat(20) + "TOTAL 390.00") + "\n");
+		assertThat(layout.style(0)).isEqualTo(ReceiptLayout.BOLD);
+		assertThat(layout.style(layout.size() - 1)).isEqualTo(ReceiptLayout.BIG);
+	}
+
+	@Test
+	void rejectsUnknownFieldsAndDirectives() {
+		assertThatThrownBy(() -> ReceiptTemplate.compile("Hello {{nobody}}", 32, Map.of()))
+				.isInstanceOf(IllegalArgumentException.class).hasMessageContaining("line 1");
+		assertThatThrownBy(() -> ReceiptTemplate.compile("\n@blink hi", 32, Map.of()))
+				.isInstanceOf(IllegalArgumentException.class).hasMessageContaining("line 2");
+		assertThatThrownBy(() -> ReceiptTemplate.compile("{{qty}} outside @items", 32, Map.of()))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void keepsPrinterTextPlainAscii() {
+		assertThat(ReceiptTemplate.printable("Crème brûlée ₹90\n")).isEqualTo("Creme brulee Rs.90 ");
+		assertThat(ReceiptTemplate.printable("Dosa 🌶")).isEqualTo("Dosa ?");
+		assertThat(ReceiptTemplate.rupees(5)).isEqualTo("0.05");
+		assertThat(ReceiptTemplate.rupees(-12345)).isEqualTo("-123.45");
+	}
+
+	@Test
+	void encodesEscPosAndPdf() {
+		ReceiptLayout layout = template.render(order());
+
+		byte[] escPos = EscPos.encode(layout);
+		assertThat(escPos).startsWith(0x1b, '@', 0x1b, 'E', 1);
+		assertThat(escPos).endsWith(0x1d, 'V', 66, 0);
+		assertThat(new String(escPos, StandardCharsets.US_ASCII)).contains("2 x Masala Dosa");
+
+		ReceiptPdf.Page page = ReceiptPdf.page(layout);
+		String pdf = new String(ReceiptPdf.document(List.of(page, page)), StandardCharsets.ISO_8859_1);
+		assertThat(pdf).startsWith("%PDF-1.4").endsWith("%%EOF\n").contains("/Count 2");
+		// startxref points at the cross-reference table
+		String tail = pdf.substring(pdf.lastIndexOf("startxref") + "startxref\n".length());
+		int xref = Integer.parseInt(tail.substring(0, tail.indexOf('\n')));
+		assertThat(pdf.substring(xref)).startsWith("xref\n0 9\n");
+		// ... and its entries at the objects
+		int pageObject = Integer.parseInt(pdf.substring(xref).split("\n")[7].substring(0, 10));
+		assertThat(pdf.substring(pageObject)).startsWith("5 0 obj");
+	}
+
+	private static Order order() {
+		Order order = new Order();
+		order.setId(7L);
+		order.setCreatedAt(LocalDateTime.of(2026, 10, 18, 12, 30));
+		List<OrderItem> items = new ArrayList<>();
+		items.add(new OrderItem(1L, "Masala Dosa", 7000, 2));
+		items.add(new OrderItem("Chicken Biryani Family Pack Special", 25000, 1));
+		order.setOrderItems(items);
+		order.setTotalAmountPaise(PricingCalculator.orderTotal(items));
+		return order;
+	}
+
+}
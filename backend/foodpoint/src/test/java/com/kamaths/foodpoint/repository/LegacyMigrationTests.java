@@ -0,0 +1,52 @@
+package com.kamaths.foodpoint.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A database left by the versions before migrations (ddl-auto=update, rupee doubles, IDENTITY ids)
+class LegacyMigrationTests {
+
+	@Test
+	void legacyMoneyIsInPaiseBeforeTheRollupIsBuilt() {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(
+				"jdbc:h2:mem:legacy-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+		JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+		jdbc.execute("CREATE TABLE food_item (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+				+ "name VARCHAR(255) NOT NULL, category VARCHAR(255) NOT NULL, price FLOAT(53) NOT NULL, "
+				+ "image_url VARCHAR(255), created_at TIMESTAMP(6) NOT NULL)");
+		jdbc.execute("CREATE TABLE orders (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+				+ "customer_name VARCHAR(255), customer_phone VARCHAR(255), payment_method VARCHAR(255), "
+				+ "notes VARCHAR(255), total_amount FLOAT(53), created_at TIMESTAMP(6), status VARCHAR(255))");
+		jdbc.execute("CREATE TABLE order_items (order_id BIGINT NOT NULL REFERENCES orders (id), "
+				+ "item_name VARCHAR(255), price FLOAT(53), quantity INTEGER)");
+		jdbc.execute("CREATE TABLE sales (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+				+ "amount FLOAT(53) NOT NULL, created_at TIMESTAMP(6) NOT NULL)");
+		jdbc.update("INSERT INTO food_item (name, category, price, created_at) VALUES ('Dosa', 'Tiffin', 60.5, CURRENT_TIMESTAMP)");
+		jdbc.update("INSERT INTO orders (customer_name, total_amount, created_at, status) VALUES ('Old', 121.0, CURRENT_TIMESTAMP, 'paid')");
+		jdbc.update("INSERT INTO order_items (order_id, item_name, price, quantity) VALUES (1, 'Dosa', 60.5, 2)");
+		jdbc.update("INSERT INTO sales (amount, created_at) VALUES (121.0, CURRENT_TIMESTAMP)");
+		jdbc.update("INSERT INTO sales (amount, created_at) VALUES (45.25, CURRENT_TIMESTAMP - 1)");
+
+		Flyway.configure().dataSource(dataSource).baselineOnMigrate(true).baselineVersion("0").load().migrate();
+
+		assertThat(jdbc.queryForList("SELECT amount_paise FROM sales ORDER BY id", Long.class)).containsExactly(12_100L, 4_525L);
+		assertThat(jdbc.queryForObject("SELECT amount_paise FROM daily_sales_rollup WHERE outlet = 'main' AND sales_date = ?",
+				Long.class, LocalDate.now())).isEqualTo(12_100L);
+		assertThat(jdbc.queryForObject("SELECT total_amount_paise FROM orders", Long.class)).isEqualTo(12_100L);
+		assertThat(jdbc.queryForObject("SELECT price_paise FROM food_item", Long.class)).isEqualTo(6_050L);
+		assertThat(jdbc.queryForObject("SELECT price_paise FROM order_items WHERE line_no = 0", Long.class)).isEqualTo(6_050L);
+		assertThat(jdbc.queryForList("SELECT column_name FROM information_schema.columns WHERE column_name IN ('AMOUNT', 'TOTAL_AMOUNT', 'PRICE')",
+				String.class)).isEmpty();
+		// pooled ids are handed out as (value - 50, value]: the next range starts past the old IDENTITY ids
+		assertThat(jdbc.queryForObject("SELECT NEXT VALUE FOR sales_seq", Long.class) - 50).isGreaterThan(2);
+		assertThat(jdbc.queryForObject("SELECT NEXT VALUE FOR orders_seq", Long.class) - 50).isGreaterThan(1);
+	}
+
+}
@@ -0,0 +1,268 @@
+package com.kamaths.foodpoint.repository;
+
+import com.kamaths.foodpoint.entity.Order;
+import com.kamaths.foodpoint.entity.OrderItem;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Calls the hot repository methods, records the statements Hibernate sends for them
+ * (its SQL for the running dialect, with the values it bound) and EXPLAINs each one,
+ * failing if any reads a whole table instead of an index from the migrations.
+ *
+ * The PostgreSQL half runs when FOODPOINT_TEST_POSTGRES_URL (plus _USER and
+ * _PASSWORD) points at a scratch database; the app is started against it and
+ * migrates its own schema there.
+ */
+@SpringBootTest
+@Import(QueryPlanTests.StatementRecorder.class)
+class QueryPlanTests {
+
+	private static final String MAIN = "main";
+
+	@Autowired
+	private ApplicationContext context;
+
+	@Test
+	void hotQueriesUseIndexesOnH2() {
+		// H2 annotates each table access with the index it reads, or tableScan
+		assertIndexed(context, "tableScan");
+	}
+
+	@Nested
+	@EnabledIfEnvironmentVariable(named = "FOODPOINT_TEST_POSTGRES_URL", matches = ".+")
+	@TestPropertySource(properties = {
+			"spring.datasource.url=${FOODPOINT_TEST_POSTGRES_URL}",
+			"spring.datasource.username=${FOODPOINT_TEST_POSTGRES_USER:}",
+			"spring.datasource.password=${FOODPOINT_TEST_POSTGRES_PASSWORD:}",
+			"spring.datasource.driver-class-name=org.postgresql.Driver",
+			"spring.datasource.hikari.schema=foodpoint_plan_test",
+			"spring.flyway.schemas=foodpoint_plan_test"
+	})
+	class OnPostgres {
+
+		@Autowired
+		private ApplicationContext postgresContext;
+
+		@Test
+		void hotQueriesUseIndexesOnPostgres() {
+			// Empty tables are cheapest to scan; make the planner show whether an index can be used at all
+			assertIndexed(postgresContext, "Seq Scan", "SET enable_seqscan = off");
+		}
+
+	}
+
+	private static void assertIndexed(ApplicationContext context, String tableScan, String... settings) {
+		JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+		hotQueries(context).forEach((method, run) -> {
+			List<RecordedStatement> statements = run.get();
+			assertThat(statements).as(method).isNotEmpty();
+			for (RecordedStatement statement : statements) {
+				assertThat(explain(jdbcTemplate, statement, settings))
+						.as(method + ": " + statement.sql())
+						.doesNotContainIgnoringCase(tableScan);
+			}
+		});
+	}
+
+	// Repository method -> a call of it, returning the statements it ran
+	private static Map<String, Supplier<List<RecordedStatement>>> hotQueries(ApplicationContext context) {
+		StatementRecorder recorder = context.getBean(StatementRecorder.class);
+		OrderRepository orders = context.getBean(OrderRepository.class);
+		SalesRepository sales = context.getBean(SalesRepository.class);
+		FoodItemRepository foodItems = context.getBean(FoodItemRepository.class);
+		DailySalesRollupRepository rollups = context.getBean(DailySalesRollupRepository.class);
+		ItemSalesFactRepository itemFacts = context.getBean(ItemSalesFactRepository.class);
+		HourlySalesFactRepository hourlyFacts = context.getBean(HourlySalesFactRepository.class);
+		LocalDate from = LocalDate.of(2026, 1, 1);
+		LocalDate to = LocalDate.of(2026, 1, 31);
+
+		Map<String, Supplier<List<RecordedStatement>>> queries = new LinkedHashMap<>();
+		queries.put("OrderRepository.findByOutletAndStatusOrderByCreatedAtDesc",
+				() -> recorder.record(() -> orders.findByOutletAndStatusOrderByCreatedAtDesc(MAIN, "pending")));
+		queries.put("OrderRepository.findByStatusAndSaleRecordedFalse",
+				() -> recorder.record(() -> orders.findByStatusAndSaleRecordedFalse("paid")));
+		queries.put("OrderRepository.findPageAfter",
+				() -> recorder.record(() -> orders.findPageAfter(MAIN, from.atTime(10, 0), 500L, Limit.of(50))));
+		queries.put("Order.orderItems @BatchSize load",
+				() -> recordItemsLoad(context, recorder));
+		queries.put("SalesRepository.sumAmountPaiseByCreatedAtBetween",
+				() -> recorder.record(() -> sales.sumAmountPaiseByCreatedAtBetween(from.atStartOfDay(), from.plusDays(1).atStartOfDay())));
+		queries.put("SalesRepository.findByOutletOrderByCreatedAtDescIdDesc",
+				() -> recorder.record(() -> sales.findByOutletOrderByCreatedAtDescIdDesc(MAIN, Limit.of(50))));
+		queries.put("SalesRepository.countByOrderId",
+				() -> recorder.record(() -> sales.countByOrderId(42L)));
+		queries.put("FoodItemRepository.findByCategory",
+				() -> recorder.record(() -> foodItems.findByCategory("Breakfast")));
+		queries.put("FoodItemRepository.findByOutlet",
+				() -> recorder.record(() -> foodItems.findByOutlet(MAIN, Sort.by("id"))));
+		queries.put("DailySalesRollupRepository.findByIdOutletAndIdSalesDateBetweenOrderByIdSalesDateAsc",
+				() -> recorder.record(() -> rollups.findByIdOutletAndIdSalesDateBetweenOrderByIdSalesDateAsc(MAIN, from, to.plusMonths(11))));
+		queries.put("ItemSalesFactRepository.sumByItemOrderByQuantity",
+				() -> recorder.record(() -> itemFacts.sumByItemOrderByQuantity(MAIN, from, to, Limit.of(10))));
+		queries.put("HourlySalesFactRepository.findByIdOutletAndIdSalesDateBetween",
+				() -> recorder.record(() -> hourlyFacts.findByIdOutletAndIdSalesDateBetween(MAIN, from, to)));
+		return queries;
+	}
+
+	// Items are lazy: save two orders, reload them and record only the collection load,
+	// which fetches both orders' items at once. Rolled back.
+	private static List<RecordedStatement> recordItemsLoad(ApplicationContext context, StatementRecorder recorder) {
+		OrderRepository orders = context.getBean(OrderRepository.class);
+		EntityManager entityManager = context.getBean(EntityManager.class);
+		TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+		return transaction.execute(status -> {
+			status.setRollbackOnly();
+			List<Long> ids = new ArrayList<>();
+			for (int n = 0; n < 2; n++) {
+				Order order = new Order();
+				order.setCustomerName("Plan test");
+				order.setOrderItems(List.of(new OrderItem("Plan Dosa", 6_000, 1)));
+				ids.add(orders.save(order).getId());
+			}
+			orders.flush();
+			entityManager.clear();
+
+			List<Order> loaded = orders.findAllById(ids);
+			return recorder.record(() -> Hibernate.initialize(loaded.get(0).getOrderItems()));
+		});
+	}
+
+	// The settings stay on the pooled connection - only this test's context uses it
+	private static String explain(JdbcTemplate jdbcTemplate, RecordedStatement statement, String... settings) {
+		return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+			try (Statement settingsStatement = connection.createStatement()) {
+				for (String setting : settings) {
+					settingsStatement.execute(setting);
+				}
+			}
+			try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.sql())) {
+				statement.bind(explain);
+				List<String> plan = new ArrayList<>();
+				try (ResultSet rows = explain.executeQuery()) {
+					while (rows.next()) {
+						plan.add(rows.getString(1));
+					}
+				}
+				return String.join("\n", plan);
+			}
+		});
+	}
+
+	record ParameterCall(Method setter, Object[] args) {}
+
+	record RecordedStatement(String sql, List<ParameterCall> parameters) {
+
+		void bind(PreparedStatement statement) throws SQLException {
+			for (ParameterCall call : parameters) {
+				invoke(statement, call.setter(), call.args());
+			}
+		}
+
+	}
+
+	/**
+	 * Wraps the DataSource so a thread can note the statements it prepares and the
+	 * parameter setters called on them.
+	 */
+	static class StatementRecorder implements BeanPostProcessor {
+
+		private final ThreadLocal<List<RecordedStatement>> recording = new ThreadLocal<>();
+
+		List<RecordedStatement> record(Runnable call) {
+			List<RecordedStatement> statements = new ArrayList<>();
+			recording.set(statements);
+			try {
+				call.run();
+			} finally {
+				recording.remove();
+			}
+			return statements;
+		}
+
+		@Override
+		public Object postProcessAfterInitialization(Object bean, String beanName) {
+			if (bean instanceof DataSource dataSource) {
+				return proxy(DataSource.class, (proxy, method, args) -> {
+					Object result = invoke(dataSource, method, args);
+					return result instanceof Connection connection ? proxy(Connection.class, recording(connection)) : result;
+				});
+			}
+			return bean;
+		}
+
+		private InvocationHandler recording(Connection connection) {
+			return (proxy, method, args) -> {
+				Object result = invoke(connection, method, args);
+				List<RecordedStatement> statements = recording.get();
+				if (statements == null || !(result instanceof PreparedStatement prepared) || !(args[0] instanceof String sql)) {
+					return result;
+				}
+				List<ParameterCall> parameters = new ArrayList<>();
+				statements.add(new RecordedStatement(sql, parameters));
+				return proxy(PreparedStatement.class, (statementProxy, statementMethod, statementArgs) -> {
+					if (statementMethod.getName().startsWith("set") && statementArgs != null
+							&& statementArgs.length >= 2 && statementArgs[0] instanceof Integer) {
+						parameters.add(new ParameterCall(statementMethod, statementArgs));
+					}
+					return invoke(prepared, statementMethod, statementArgs);
+				});
+			};
+		}
+
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+		return (T) Proxy.newProxyInstance(QueryPlanTests.class.getClassLoader(), new Class<?>[] {type}, handler);
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws SQLException {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			if (e.getCause() instanceof SQLException sqlException) {
+				throw sqlException;
+			}
+			throw new IllegalStateException(e.getCause());
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
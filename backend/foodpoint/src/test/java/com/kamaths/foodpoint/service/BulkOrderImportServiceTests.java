@@ -0,0 +1,139 @@
+package com.kamaths.foodpoint.service;
+
+import com.kamaths.foodpoint.dto.BulkOrderResult;
+import com.kamaths.foodpoint.entity.Order;
+import com.kamaths.foodpoint.repository.OrderRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class BulkOrderImportServiceTests {
+
+	@Autowired
+	private BulkOrderImportService bulkOrderImportService;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private JsonMapper jsonMapper;
+
+	@Test
+	void importsOrdersInBatchesAndReportsEveryLine() throws Exception {
+		String till = "till-" + UUID.randomUUID();
+		int orders = BulkOrderImportService.CHUNK_SIZE + 100; // spans two chunks
+		StringBuilder ndjson = new StringBuilder();
+		for (int i = 0; i < orders; i++) {
+			ndjson.append(orderLine(till + "-" + i)).append('\n');
+		}
+		ndjson.append(orderLine(till + "-0")).append('\n');   // replayed within the stream
+		ndjson.append("{not json\n");
+		ndjson.append("{\"idempotencyKey\":\"" + till + "-empty\",\"orderItems\":[]}\n");
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		List<BulkOrderResult> results = importOrders(ndjson.toString());
+
+		assertThat(results).hasSize(orders + 3);
+		assertThat(results.subList(0, orders)).allMatch(r -> BulkOrderResult.CREATED.equals(r.getStatus()));
+		assertThat(results.get(orders).getStatus()).isEqualTo(BulkOrderResult.DUPLICATE);
+		assertThat(results.get(orders).getOrderId()).isEqualTo(results.get(0).getOrderId());
+		assertThat(results.get(orders + 1).getStatus()).isEqualTo(BulkOrderResult.INVALID);
+		assertThat(results.get(orders + 2).getError()).isEqualTo("Order has no items");
+		// orders + order_items go out in JDBC batches, not a statement per row
+		assertThat(statistics.getPrepareStatementCount()).isLessThan(orders / 10);
+
+		Order first = orderRepository.findWithItemsById(results.get(0).getOrderId()).orElseThrow();
+		assertThat(first.getIdempotencyKey()).isEqualTo(till + "-0");
+		assertThat(first.getTotalAmountPaise()).isEqualTo(14_500);
+		assertThat(first.getOrderItems()).hasSize(2);
+	}
+
+	@Test
+	void replayingAnImportCreatesNothingNew() throws Exception {
+		String till = "till-" + UUID.randomUUID();
+		String ndjson = orderLine(till + "-a") + "\n" + orderLine(till + "-b") + "\n";
+		List<BulkOrderResult> first = importOrders(ndjson);
+		long count = orderRepository.count();
+
+		List<BulkOrderResult> replay = importOrders(ndjson);
+
+		assertThat(replay).extracting(BulkOrderResult::getStatus)
+				.containsExactly(BulkOrderResult.DUPLICATE, BulkOrderResult.DUPLICATE);
+		assertThat(replay).extracting(BulkOrderResult::getOrderId)
+				.containsExactlyElementsOf(first.stream().map(BulkOrderResult::getOrderId).toList());
+		assertThat(orderRepository.count()).isEqualTo(count);
+	}
+
+	@Test
+	void anotherOutletsKeysAreNotDuplicates() throws Exception {
+		String till = "till-" + UUID.randomUUID();
+		String ndjson = orderLine(till + "-a") + "\n";
+		List<BulkOrderResult> atMain = importOrders(ndjson, "main");
+
+		List<BulkOrderResult> atAirport = importOrders(ndjson, "airport");
+
+		assertThat(atAirport).extracting(BulkOrderResult::getStatus).containsExactly(BulkOrderResult.CREATED);
+		assertThat(atAirport.get(0).getOrderId()).isNotEqualTo(atMain.get(0).getOrderId());
+		assertThat(orderRepository.findById(atAirport.get(0).getOrderId()).orElseThrow().getOutlet()).isEqualTo("airport");
+		assertThat(importOrders(ndjson, "airport")).extracting(BulkOrderResult::getOrderId)
+				.containsExactly(atAirport.get(0).getOrderId());
+	}
+
+	@Test
+	void aChunkThatFailsIsSavedOneOrderAtATime() throws Exception {
+		String till = "till-" + UUID.randomUUID();
+		String tooLong = orderLine(till + "-long").replace("\"Offline\"", "\"" + "x".repeat(300) + "\"");
+		String negative = "{\"idempotencyKey\":\"" + till + "-refund\",\"orderItems\":"
+				+ "[{\"itemName\":\"Refund\",\"pricePaise\":-500,\"quantity\":1}]}";
+		String ndjson = orderLine(till + "-a") + "\n" + tooLong + "\n" + orderLine(till + "-b") + "\n" + negative + "\n";
+
+		List<BulkOrderResult> results = importOrders(ndjson);
+
+		assertThat(results).extracting(BulkOrderResult::getStatus).containsExactly(BulkOrderResult.CREATED,
+				BulkOrderResult.INVALID, BulkOrderResult.CREATED, BulkOrderResult.INVALID);
+		assertThat(results.get(1).getError()).isEqualTo("Could not save order");
+		assertThat(results.get(3).getError()).contains("negative");
+		for (BulkOrderResult created : List.of(results.get(0), results.get(2))) {
+			Order order = orderRepository.findWithItemsById(created.getOrderId()).orElseThrow();
+			assertThat(order.getOrderItems()).hasSize(2);
+			assertThat(order.getTotalAmountPaise()).isEqualTo(14_500);
+		}
+	}
+
+	private List<BulkOrderResult> importOrders(String ndjson) throws Exception {
+		return importOrders(ndjson, "main");
+	}
+
+	private List<BulkOrderResult> importOrders(String ndjson, String outlet) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		bulkOrderImportService.importOrders(
+				new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), out, outlet);
+		return out.toString(StandardCharsets.UTF_8).lines()
+				.map(line -> jsonMapper.readValue(line, BulkOrderResult.class))
+				.toList();
+	}
+
+	private static String orderLine(String key) {
+		return "{\"idempotencyKey\":\"" + key + "\",\"customerName\":\"Offline\",\"paymentMethod\":\"cash\","
+				+ "\"orderItems\":[{\"itemName\":\"Masala Dosa\",\"price\":60.0,\"quantity\":2},"
+				+ "{\"itemName\":\"Filter Coffee\",\"pricePaise\":2500,\"quantity\":1}]}";
+	}
+
+}
@@ -0,0 +1,165 @@
+package com.kamaths.foodpoint.service;
+
+import com.kamaths.foodpoint.dto.OrderItemDto;
+import com.kamaths.foodpoint.entity.Order;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class ExportServiceTests {
+
+	// Seeded sales live in 2001 with negative ids so they never meet real data
+	private static final LocalDate SEED_DAY = LocalDate.of(2001, 1, 1);
+	private static final String MAIN = "main";
+	private static final String AIRPORT = "airport";
+
+	@Autowired
+	private ExportService exportService;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private JsonMapper jsonMapper;
+
+	@AfterEach
+	void removeSeededSales() {
+		jdbcTemplate.update("DELETE FROM sales WHERE id < 0");
+	}
+
+	@Test
+	void exportsOrdersAsCsvRowsPerItemAndNdjsonObjectsPerOrder() throws Exception {
+		Order order = orderService.createOrder(OrderServiceTests.request("=HYPERLINK(\"x\"), Table 9",
+				new OrderItemDto("Masala Dosa", 60.0, 2),
+				new OrderItemDto("Filter Coffee", 25.5, 1)));
+		LocalDate today = order.getCreatedAt().toLocalDate();
+
+		String csv = export(out -> exportService.exportOrders(today, today, MAIN, ExportService.CSV, out));
+		List<String> rows = csv.lines().filter(line -> line.startsWith(order.getId() + ",")).toList();
+		assertThat(csv).startsWith("order_id,created_at,customer_name,");
+		assertThat(rows).hasSize(2);
+		assertThat(rows.get(0))
+				.contains(",\"'=HYPERLINK(\"\"x\"\"), Table 9\",")
+				.endsWith(",Masala Dosa,60.00,2");
+
+		String ndjson = export(out -> exportService.exportOrders(today, today, MAIN, ExportService.NDJSON, out));
+		JsonNode exported = ndjson.lines()
+				.map(jsonMapper::readTree)
+				.filter(node -> node.get("id").asLong() == order.getId())
+				.findFirst().orElseThrow();
+		assertThat(exported.get("totalAmount").decimalValue()).isEqualByComparingTo("145.50");
+		assertThat(exported.get("orderItems")).hasSize(2);
+		assertThat(exported.get("orderItems").get(1).get("itemName").asString()).isEqualTo("Filter Coffee");
+
+		String airport = export(out -> exportService.exportOrders(today, today, AIRPORT, ExportService.CSV, out));
+		assertThat(airport.lines()).noneMatch(line -> line.startsWith(order.getId() + ","));
+	}
+
+	@Test
+	void filtersSalesByOutletAndInclusiveDateRange() throws Exception {
+		seedSales(4);
+		jdbcTemplate.update("UPDATE sales SET created_at = ? WHERE id = -4", SEED_DAY.plusDays(1).atTime(9, 0));
+		jdbcTemplate.update("UPDATE sales SET outlet = ? WHERE id = -3", AIRPORT);
+
+		String csv = export(out -> exportService.exportSales(SEED_DAY, SEED_DAY, MAIN, ExportService.CSV, out));
+		String airport = export(out -> exportService.exportSales(SEED_DAY, null, AIRPORT, ExportService.CSV, out));
+
+		assertThat(csv.lines()).containsExactly(
+				"id,order_id,created_at,amount",
+				"-2,,2001-01-01T10:00,12.34",
+				"-1,,2001-01-01T10:00,12.34");
+		assertThat(airport.lines()).containsExactly(
+				"id,order_id,created_at,amount",
+				"-3,,2001-01-01T10:00,12.34");
+		assertThatThrownBy(() -> exportService.exportSales(null, null, MAIN, "xml", OutputStream.nullOutputStream()))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void heapStaysFlatAsTheExportGrows() throws Exception {
+		seedSales(15_000);
+		long small = peakHeapGrowth();
+		jdbcTemplate.update("DELETE FROM sales WHERE id < 0");
+		seedSales(150_000);
+		long large = peakHeapGrowth();
+
+		// ten times the rows must not mean ten times the memory: the rows are never all held at once
+		assertThat(large).isLessThan(32L * 1024 * 1024);
+		assertThat(large).isLessThan(small + 16L * 1024 * 1024);
+	}
+
+	private long peakHeapGrowth() throws Exception {
+		HeapSamplingStream sink = new HeapSamplingStream();
+		exportService.exportSales(SEED_DAY, SEED_DAY, MAIN, ExportService.NDJSON, sink);
+		assertThat(sink.bytes).isGreaterThan(0);
+		return sink.peak - sink.baseline;
+	}
+
+	private void seedSales(int count) {
+		jdbcTemplate.update("INSERT INTO sales (id, amount_paise, created_at) " +
+				"SELECT -x, 1234, ? FROM SYSTEM_RANGE(1, ?)", SEED_DAY.atTime(10, 0), count);
+	}
+
+	private static String export(Export export) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		export.writeTo(out);
+		return out.toString(StandardCharsets.UTF_8);
+	}
+
+	private interface Export {
+		void writeTo(OutputStream out) throws Exception;
+	}
+
+	// Discards the export, sampling live heap after a GC every megabyte written
+	private static final class HeapSamplingStream extends OutputStream {
+		private static final long SAMPLE_EVERY = 1024 * 1024;
+
+		final long baseline = usedHeap();
+		long peak = baseline;
+		long bytes;
+		private long nextSample = SAMPLE_EVERY;
+
+		@Override
+		public void write(int b) {
+			count(1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			count(len);
+		}
+
+		private void count(int len) {
+			bytes += len;
+			if (bytes >= nextSample) {
+				nextSample += SAMPLE_EVERY;
+				peak = Math.max(peak, usedHeap());
+			}
+		}
+
+		private static long usedHeap() {
+			System.gc();
+			Runtime runtime = Runtime.getRuntime();
+			return runtime.totalMemory() - runtime.freeMemory();
+		}
+	}
+
+}
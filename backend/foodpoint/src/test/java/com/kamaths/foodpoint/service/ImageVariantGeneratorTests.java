@@ -0,0 +1,66 @@
+package com.kamaths.foodpoint.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImageVariantGeneratorTests {
+
+	private final ImageVariantGenerator generator = new ImageVariantGenerator();
+
+	@TempDir
+	private Path uploads;
+
+	@AfterEach
+	void tearDown() {
+		generator.shutdown();
+	}
+
+	@Test
+	void writesSquareThumbnailAndBoundedMedium() throws Exception {
+		Path original = uploads.resolve("photo.png");
+		ImageIO.write(new BufferedImage(3000, 1500, BufferedImage.TYPE_INT_ARGB), "png", original.toFile());
+
+		ImageVariantGenerator.Variants variants = generator.generate(original).get();
+
+		assertThat(variants.thumbnail()).isEqualTo(uploads.resolve("photo-thumb.jpg"));
+		BufferedImage thumbnail = ImageIO.read(variants.thumbnail().toFile());
+		assertThat(thumbnail.getWidth()).isEqualTo(ImageVariantGenerator.THUMBNAIL_SIZE);
+		assertThat(thumbnail.getHeight()).isEqualTo(ImageVariantGenerator.THUMBNAIL_SIZE);
+
+		BufferedImage medium = ImageIO.read(variants.medium().toFile());
+		assertThat(medium.getWidth()).isEqualTo(ImageVariantGenerator.MEDIUM_SIZE);
+		assertThat(medium.getHeight()).isEqualTo(ImageVariantGenerator.MEDIUM_SIZE / 2);
+		assertThat(Files.size(variants.thumbnail())).isLessThan(Files.size(original));
+	}
+
+	@Test
+	void smallImagesAreNotUpscaled() throws Exception {
+		Path original = uploads.resolve("small.jpg");
+		ImageIO.write(new BufferedImage(400, 300, BufferedImage.TYPE_INT_RGB), "jpeg", original.toFile());
+
+		BufferedImage medium = ImageIO.read(generator.generate(original).get().medium().toFile());
+
+		assertThat(medium.getWidth()).isEqualTo(400);
+		assertThat(medium.getHeight()).isEqualTo(300);
+	}
+
+	@Test
+	void rejectsFilesThatAreNotImages() throws Exception {
+		Path original = uploads.resolve("broken.jpg");
+		Files.write(original, new byte[] {1, 2, 3});
+
+		assertThatThrownBy(() -> generator.generate(original).get())
+				.hasCauseInstanceOf(IllegalStateException.class);
+		assertThat(uploads.resolve("broken-thumb.jpg")).doesNotExist();
+	}
+
+}
@@ -0,0 +1,131 @@
+package com.kamaths.foodpoint.service;
+
+import com.kamaths.foodpoint.dto.CreateOrderRequest;
+import com.kamaths.foodpoint.dto.FoodItemRequestDto;
+import com.kamaths.foodpoint.dto.KitchenStation;
+import com.kamaths.foodpoint.dto.KitchenTicket;
+import com.kamaths.foodpoint.dto.OrderItemDto;
+import com.kamaths.foodpoint.entity.FoodItem;
+import com.kamaths.foodpoint.entity.Order;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class KitchenQueueTests {
+
+	@Autowired
+	private KitchenQueue kitchenQueue;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private FoodItemService foodItemService;
+
+	@Test
+	void ordersAreSplitIntoStationTicketsAndFollowEdits() throws Exception {
+		String grill = "Grill " + UUID.randomUUID();
+		FoodItem kebab = menuItem("Seekh Kebab", grill);
+
+		Order order = orderService.createOrder(request(null, byId(kebab, 2), new OrderItemDto("Extra chutney", 5.0, 1)));
+
+		assertThat(ticket(order, grill).getLines()).extracting(line -> line.getItemName()).containsExactly(kebab.getName());
+		assertThat(ticket(order, KitchenQueue.DEFAULT_STATION).getStatus()).isEqualTo(KitchenTicket.QUEUED);
+
+		kitchenQueue.start(order.getId(), grill);
+		CreateOrderRequest edit = request(null, byId(kebab, 3));
+		edit.setVersion(order.getVersion());
+		orderService.updateOrder(order.getId(), edit);
+
+		assertThat(ticket(order, grill).getStatus()).isEqualTo(KitchenTicket.PREPARING);
+		assertThat(ticket(order, grill).getLines().get(0).getQuantity()).isEqualTo(3);
+		assertThat(ticket(order, KitchenQueue.DEFAULT_STATION)).isNull();
+
+		orderService.deleteOrder(order.getId());
+		assertThat(ticket(order, grill)).isNull();
+	}
+
+	@Test
+	void takeawaysJumpAheadAndBigTicketsWait() throws Exception {
+		String tandoor = "Tandoor " + UUID.randomUUID();
+		FoodItem naan = menuItem("Butter Naan", tandoor);
+
+		Order big = orderService.createOrder(request(Order.DINE_IN, byId(naan, 10)));
+		Order small = orderService.createOrder(request(Order.DINE_IN, byId(naan, 1)));
+		Order takeaway = orderService.createOrder(request(Order.TAKEAWAY, byId(naan, 2)));
+
+		assertThat(station(tandoor)).extracting(KitchenTicket::getOrderId)
+				.containsExactly(takeaway.getId(), small.getId(), big.getId());
+
+		kitchenQueue.start(big.getId(), tandoor);
+		assertThat(station(tandoor)).extracting(KitchenTicket::getOrderId)
+				.containsExactly(big.getId(), takeaway.getId(), small.getId());
+	}
+
+	@Test
+	void prepEstimatesFollowStartToReadyTimes() throws Exception {
+		String fryer = "Fryer " + UUID.randomUUID();
+		FoodItem vada = menuItem("Medu Vada", fryer);
+		long before = kitchenQueue.getPrepSeconds(vada.getId(), vada.getName());
+
+		Order order = orderService.createOrder(request(null, byId(vada, 2)));
+		LocalDateTime started = LocalDateTime.now();
+		kitchenQueue.start(order.getId(), fryer, Order.DEFAULT_OUTLET, started);
+		KitchenTicket ready = kitchenQueue.markReady(order.getId(), fryer, Order.DEFAULT_OUTLET, started.plusSeconds(before + 100));
+
+		assertThat(ready.getStatus()).isEqualTo(KitchenTicket.READY);
+		assertThat(kitchenQueue.getPrepSeconds(vada.getId(), vada.getName()))
+				.isEqualTo(before + Math.round(KitchenQueue.PREP_SMOOTHING * 100));
+		assertThatThrownBy(() -> kitchenQueue.markReady(order.getId(), fryer)).isInstanceOf(IllegalStateException.class);
+
+		kitchenQueue.bump(order.getId(), fryer);
+		assertThat(station(fryer)).isEmpty();
+	}
+
+	private KitchenTicket ticket(Order order, String station) {
+		return station(station).stream()
+				.filter(ticket -> ticket.getOrderId().equals(order.getId()))
+				.findFirst().orElse(null);
+	}
+
+	private List<KitchenTicket> station(String name) {
+		return kitchenQueue.getSnapshot().getStations().stream()
+				.filter(station -> station.getName().equals(name))
+				.map(KitchenStation::getTickets)
+				.findFirst().orElse(List.of());
+	}
+
+	private FoodItem menuItem(String name, String category) throws Exception {
+		FoodItemRequestDto dto = new FoodItemRequestDto();
+		dto.setName(name + " " + category);
+		dto.setCategory(category);
+		dto.setPrice(50.0);
+		dto.setImage(new MockMultipartFile("image", "item.jpeg", "image/jpeg", new byte[] {1}));
+		return foodItemService.createFoodItem(dto);
+	}
+
+	private static OrderItemDto byId(FoodItem item, int quantity) {
+		OrderItemDto dto = new OrderItemDto(item.getName(), 0.0, quantity);
+		dto.setFoodItemId(item.getId());
+		return dto;
+	}
+
+	private static CreateOrderRequest request(String orderType, OrderItemDto... items) {
+		CreateOrderRequest request = new CreateOrderRequest();
+		request.setCustomerName("Kitchen");
+		request.setPaymentMethod("cash");
+		request.setOrderType(orderType);
+		request.setOrderItems(List.of(items));
+		return request;
+	}
+
+}
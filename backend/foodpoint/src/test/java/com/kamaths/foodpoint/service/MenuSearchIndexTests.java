@@ -0,0 +1,80 @@
+package com.kamaths.foodpoint.service;
+
+import com.kamaths.foodpoint.entity.FoodItem;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MenuSearchIndexTests {
+
+	private final List<FoodItem> menu = List.of(
+			item(1, "Masala Dosa", "South Indian"),
+			item(2, "Plain Dosai", "South Indian"),
+			item(3, "Idly Vada", "South Indian"),
+			item(4, "Medu Wada", "Snacks"),
+			item(5, "Chicken Biryani", "Rice"),
+			item(6, "Sambhar Rice", "Rice"),
+			item(7, "Filter Coffee", "Beverages"),
+			item(8, "Paneer Tikka", "Tandoor"));
+
+	private final MenuSearchIndex index = new MenuSearchIndex(menu);
+
+	@Test
+	void spellingVariantsMeet() {
+		assertThat(MenuSearchIndex.fold("dosa")).isEqualTo(MenuSearchIndex.fold("dosai"));
+		assertThat(MenuSearchIndex.fold("idli")).isEqualTo(MenuSearchIndex.fold("idly"));
+		assertThat(MenuSearchIndex.fold("vada")).isEqualTo(MenuSearchIndex.fold("wada"));
+		assertThat(MenuSearchIndex.fold("biriyani")).isEqualTo(MenuSearchIndex.fold("biryani"));
+		assertThat(MenuSearchIndex.fold("sambar")).isEqualTo(MenuSearchIndex.fold("sambhar"));
+		assertThat(MenuSearchIndex.fold("panir")).isEqualTo(MenuSearchIndex.fold("paneer"));
+
+		assertThat(names("dosai")).containsExactlyInAnyOrder("Masala Dosa", "Plain Dosai");
+		assertThat(names("vada")).containsExactlyInAnyOrder("Idly Vada", "Medu Wada");
+		assertThat(names("idli")).containsExactly("Idly Vada");
+	}
+
+	@Test
+	void matchesPrefixesTyposAndCategories() {
+		assertThat(names("masala d")).containsExactly("Masala Dosa");
+		assertThat(names("biri")).containsExactly("Chicken Biryani");
+		assertThat(names("cofee")).containsExactly("Filter Coffee");
+		assertThat(names("chiken biryani")).containsExactly("Chicken Biryani");
+		// name matches rank above category matches
+		assertThat(names("rice")).containsExactly("Sambhar Rice", "Chicken Biryani");
+		assertThat(names("tandoor")).containsExactly("Paneer Tikka");
+		assertThat(names("xyz")).isEmpty();
+		assertThat(names("  ")).isEmpty();
+	}
+
+	@Test
+	void equalMatchesAreRankedBySales() {
+		Map<Long, Long> sold = Map.of(2L, 40L, 1L, 5L);
+		int[] hits = index.search("dosa", 10, item -> sold.getOrDefault(item.getId(), 0L));
+		assertThat(Arrays.stream(hits).mapToObj(i -> menu.get(i).getName()))
+				.containsExactly("Plain Dosai", "Masala Dosa");
+
+		assertThat(index.search("south", 1, item -> 0L)).hasSize(1);
+	}
+
+	private List<String> names(String query) {
+		List<String> names = new ArrayList<>();
+		for (int hit : index.search(query, 10, item -> 0L)) {
+			names.add(menu.get(hit).getName());
+		}
+		return names;
+	}
+
+	private static FoodItem item(long id, String name, String category) {
+		FoodItem item = new FoodItem();
+		item.setId(id);
+		item.setName(name);
+		item.setCategory(category);
+		return item;
+	}
+
+}
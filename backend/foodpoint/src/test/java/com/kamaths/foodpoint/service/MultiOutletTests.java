@@ -0,0 +1,223 @@
+package com.kamaths.foodpoint.service;
+
+import com.kamaths.foodpoint.dto.CreateOrderRequest;
+import com.kamaths.foodpoint.dto.FoodItemRequestDto;
+import com.kamaths.foodpoint.dto.ItemSales;
+import com.kamaths.foodpoint.dto.KitchenStation;
+import com.kamaths.foodpoint.dto.KitchenTicket;
+import com.kamaths.foodpoint.dto.OrderItemDto;
+import com.kamaths.foodpoint.dto.OutletSalesReport;
+import com.kamaths.foodpoint.dto.SalesReport;
+import com.kamaths.foodpoint.entity.FoodItem;
+import com.kamaths.foodpoint.entity.Order;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// The test properties configure app.outlets=main,airport
+@SpringBootTest
+class MultiOutletTests {
+
+	private static final String MAIN = "main";
+	private static final String AIRPORT = "airport";
+
+	@Autowired
+	private Outlets outlets;
+
+	@Autowired
+	private FoodItemService foodItemService;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private SalesService salesService;
+
+	@Autowired
+	private SalesAnalyticsService analyticsService;
+
+	@Autowired
+	private SaleBatchWriter saleBatchWriter;
+
+	@Autowired
+	private KitchenQueue kitchenQueue;
+
+	@Test
+	void outletsResolveToConfiguredCodes() {
+		assertThat(outlets.getAll()).containsExactly(MAIN, AIRPORT);
+		assertThat(outlets.resolve(null)).isEqualTo(MAIN);
+		assertThat(outlets.resolve(" Airport ")).isEqualTo(AIRPORT);
+		assertThatThrownBy(() -> outlets.resolve("mall")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void eachOutletPricesFromItsOwnMenu() throws Exception {
+		String name = "Outlet Dosa " + UUID.randomUUID();
+		FoodItem mainDosa = menuItem(name, 60.0, MAIN);
+		FoodItem airportDosa = menuItem(name, 90.0, AIRPORT);
+
+		assertThat(foodItemService.getMenuCatalog(MAIN).findById(airportDosa.getId())).isNull();
+		assertThat(foodItemService.getMenuCatalog(AIRPORT).findById(airportDosa.getId())).isNotNull();
+		assertThat(foodItemService.getMenuCatalog(AIRPORT).findById(mainDosa.getId())).isNull();
+
+		Order atMain = orderService.createOrder(request(name), MAIN);
+		Order atAirport = orderService.createOrder(request(name), AIRPORT);
+
+		assertThat(atMain.getOutlet()).isEqualTo(MAIN);
+		assertThat(atMain.getTotalAmountPaise()).isEqualTo(6_000);
+		assertThat(atAirport.getOutlet()).isEqualTo(AIRPORT);
+		assertThat(atAirport.getTotalAmountPaise()).isEqualTo(9_000);
+		assertThat(orderService.getPendingOrders(AIRPORT)).extracting(Order::getId)
+				.contains(atAirport.getId())
+				.doesNotContain(atMain.getId());
+		assertThat(orderService.getPendingOrders()).extracting(Order::getId)
+				.contains(atMain.getId())
+				.doesNotContain(atAirport.getId());
+	}
+
+	@Test
+	void idempotencyKeysAreScopedToTheirOutlet() throws Exception {
+		FoodItem mainIdli = menuItem("Outlet Idli " + UUID.randomUUID(), 30.0, MAIN);
+		FoodItem airportIdli = menuItem(mainIdli.getName(), 45.0, AIRPORT);
+		String key = "till-1-" + UUID.randomUUID();
+
+		Order atMain = orderService.createOrder(keyed(key, mainIdli), MAIN);
+		Order atAirport = orderService.createOrder(keyed(key, airportIdli), AIRPORT);
+		Order replayed = orderService.createOrder(keyed(key, airportIdli), AIRPORT);
+
+		// The same key from another outlet's till is another order, not a replay
+		assertThat(atAirport.getId()).isNotEqualTo(atMain.getId());
+		assertThat(atAirport.getOutlet()).isEqualTo(AIRPORT);
+		assertThat(atAirport.getTotalAmountPaise()).isEqualTo(4_500);
+		assertThat(replayed.getId()).isEqualTo(atAirport.getId());
+
+		orderService.markPaymentDone(atMain.getId(), null, MAIN);
+		orderService.markPaymentDone(atAirport.getId(), null, AIRPORT);
+		saleBatchWriter.flush();
+	}
+
+	@Test
+	void menuItemsAreOnlyDeletedByTheirOwnOutlet() throws Exception {
+		FoodItem airportVada = menuItem("Outlet Vada " + UUID.randomUUID(), 40.0, AIRPORT);
+		assertThat(foodItemService.getMenuCatalog(AIRPORT).findById(airportVada.getId())).isNotNull();
+
+		assertThat(foodItemService.deleteFoodItem(airportVada.getId(), MAIN)).isFalse();
+		assertThat(foodItemService.getMenuCatalog(AIRPORT).findById(airportVada.getId())).isNotNull();
+
+		assertThat(foodItemService.deleteFoodItem(airportVada.getId(), AIRPORT)).isTrue();
+		assertThat(foodItemService.getMenuCatalog(AIRPORT).findById(airportVada.getId())).isNull();
+	}
+
+	@Test
+	void kitchenBoardsAreSeparate() throws Exception {
+		String category = "Outlet Grill " + UUID.randomUUID();
+		FoodItem kebab = menuItem(category + " Kebab", 120.0, category, AIRPORT);
+		OrderItemDto line = new OrderItemDto(kebab.getName(), 0.0, 1);
+		line.setFoodItemId(kebab.getId());
+		CreateOrderRequest request = request("Kebab");
+		request.setOrderItems(List.of(line));
+		Order order = orderService.createOrder(request, AIRPORT);
+
+		assertThat(ticketsAt(AIRPORT, category)).extracting(KitchenTicket::getOrderId).containsExactly(order.getId());
+		assertThat(ticketsAt(MAIN, category)).isEmpty();
+
+		// Another outlet's screen can't touch the ticket
+		assertThatThrownBy(() -> kitchenQueue.start(order.getId(), category, MAIN)).isInstanceOf(RuntimeException.class);
+		assertThatThrownBy(() -> kitchenQueue.markReady(order.getId(), category, MAIN)).isInstanceOf(RuntimeException.class);
+		assertThatThrownBy(() -> kitchenQueue.bump(order.getId(), category, MAIN)).isInstanceOf(RuntimeException.class);
+		assertThat(ticketsAt(AIRPORT, category)).singleElement()
+				.satisfies(ticket -> assertThat(ticket.getStatus()).isEqualTo(KitchenTicket.QUEUED));
+
+		assertThat(kitchenQueue.start(order.getId(), category, AIRPORT).getStatus()).isEqualTo(KitchenTicket.PREPARING);
+		kitchenQueue.bump(order.getId(), category, AIRPORT);
+		assertThat(ticketsAt(AIRPORT, category)).isEmpty();
+	}
+
+	@Test
+	void salesRollUpPerOutletAndTogether() throws Exception {
+		String category = "Outlet Sales " + UUID.randomUUID();
+		FoodItem mainThali = menuItem(category + " Thali", 150.0, category, MAIN);
+		FoodItem airportThali = menuItem(category + " Thali", 200.0, category, AIRPORT);
+		LocalDate today = LocalDate.now();
+		double mainBefore = salesService.getTodaySales(MAIN);
+		double airportBefore = salesService.getTodaySales(AIRPORT);
+
+		pay(mainThali, 1, MAIN);
+		pay(airportThali, 2, AIRPORT);
+		saleBatchWriter.flush();
+
+		assertThat(salesService.getTodaySales(MAIN)).isEqualTo(mainBefore + 150.0);
+		assertThat(salesService.getTodaySales(AIRPORT)).isEqualTo(airportBefore + 400.0);
+		assertThat(salesService.getRecentSales(10, AIRPORT)).allMatch(sale -> AIRPORT.equals(sale.getOutlet()));
+
+		List<ItemSales> airportItems = analyticsService.getBestSellers(today, today, "revenue", 100, AIRPORT).stream()
+				.filter(item -> category.equals(item.getCategory()))
+				.toList();
+		assertThat(airportItems).singleElement()
+				.satisfies(item -> assertThat(item.getRevenuePaise()).isEqualTo(40_000));
+
+		OutletSalesReport report = salesService.getOutletReport(today, today, "day");
+		assertThat(report.getOutlets()).containsOnlyKeys(MAIN, AIRPORT);
+		SalesReport main = report.getOutlets().get(MAIN);
+		SalesReport airport = report.getOutlets().get(AIRPORT);
+		assertThat(main.getAmountPaise()).isEqualTo(salesService.getReport(today, today, "day", MAIN).getAmountPaise());
+		assertThat(airport.getAmountPaise()).isEqualTo(Math.round(salesService.getTodaySales(AIRPORT) * 100));
+		assertThat(report.getCombined().getAmountPaise()).isEqualTo(main.getAmountPaise() + airport.getAmountPaise());
+		assertThat(report.getCombined().getSaleCount()).isEqualTo(main.getSaleCount() + airport.getSaleCount());
+		assertThat(salesService.checkConsistency().get("consistent")).isEqualTo(true);
+	}
+
+	private List<KitchenTicket> ticketsAt(String outlet, String station) {
+		return kitchenQueue.getSnapshot(outlet).getStations().stream()
+				.filter(board -> board.getName().equals(station))
+				.map(KitchenStation::getTickets)
+				.flatMap(List::stream)
+				.toList();
+	}
+
+	private FoodItem menuItem(String name, double price, String outlet) throws Exception {
+		return menuItem(name, price, "Outlet Tests", outlet);
+	}
+
+	private FoodItem menuItem(String name, double price, String category, String outlet) throws Exception {
+		FoodItemRequestDto dto = new FoodItemRequestDto();
+		dto.setName(name);
+		dto.setCategory(category);
+		dto.setPrice(price);
+		return foodItemService.createFoodItem(dto, outlet);
+	}
+
+	private void pay(FoodItem menuItem, int quantity, String outlet) {
+		OrderItemDto line = new OrderItemDto(menuItem.getName(), 0.0, quantity);
+		line.setFoodItemId(menuItem.getId());
+		CreateOrderRequest request = request("Outlet sale");
+		request.setOrderItems(List.of(line));
+		Order order = orderService.createOrder(request, outlet);
+		orderService.markPaymentDone(order.getId(), null, outlet);
+	}
+
+	private static CreateOrderRequest keyed(String key, FoodItem menuItem) {
+		OrderItemDto line = new OrderItemDto(menuItem.getName(), 0.0, 1);
+		line.setFoodItemId(menuItem.getId());
+		CreateOrderRequest request = request("Keyed");
+		request.setIdempotencyKey(key);
+		request.setOrderItems(List.of(line));
+		return request;
+	}
+
+	private static CreateOrderRequest request(String itemName) {
+		CreateOrderRequest request = new CreateOrderRequest();
+		request.setCustomerName("Outlet " + itemName);
+		request.setPaymentMethod("cash");
+		request.setOrderItems(List.of(new OrderItemDto(itemName, 1.0, 1)));
+		return request;
+	}
+
+}
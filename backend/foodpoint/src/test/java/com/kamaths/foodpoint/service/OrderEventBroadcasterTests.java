@@ -0,0 +1,158 @@
+package com.kamaths.foodpoint.service;
+
+import com.kamaths.foodpoint.entity.Order;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderEventBroadcasterTests {
+
+	private final OrderEventBroadcaster broadcaster = new OrderEventBroadcaster(JsonMapper.builder().build());
+
+	@AfterEach
+	void tearDown() {
+		broadcaster.shutdown();
+	}
+
+	@Test
+	void eventsReachSubscribersOfTheirOutlet() throws Exception {
+		RecordingEmitter main = new RecordingEmitter();
+		RecordingEmitter airport = new RecordingEmitter();
+		broadcaster.subscribe(null, "main", main);
+		broadcaster.subscribe(null, "airport", airport);
+
+		broadcaster.orderCreated(order(1L, "main"));
+		broadcaster.orderPaid(order(1L, "main"));
+		broadcaster.orderDeleted(2L, "airport");
+
+		await(() -> main.events.size() == 2 && airport.events.size() == 1);
+		assertThat(main.events.get(0)).contains("event:created", "\"orderId\":1");
+		assertThat(main.events.get(1)).contains("event:paid");
+		assertThat(airport.events.get(0)).contains("event:deleted", "\"orderId\":2");
+	}
+
+	@Test
+	void reconnectsResumeAfterTheirLastEventId() throws Exception {
+		for (long id = 1; id <= 3; id++) {
+			broadcaster.orderCreated(order(id, "main"));
+		}
+
+		RecordingEmitter resumed = new RecordingEmitter();
+		broadcaster.subscribe(1L, "main", resumed);
+		broadcaster.orderUpdated(order(3L, "main"));
+
+		await(() -> resumed.events.size() == 3);
+		assertThat(resumed.events).extracting(RecordingEmitter::idOf).containsExactly("2", "3", "4");
+	}
+
+	@Test
+	void resumingPastTheHistoryAsksForAReload() throws Exception {
+		for (long id = 1; id <= OrderEventBroadcaster.HISTORY_SIZE + 2; id++) {
+			broadcaster.orderCreated(order(id, "main"));
+		}
+
+		RecordingEmitter stale = new RecordingEmitter();
+		broadcaster.subscribe(1L, "main", stale);
+		RecordingEmitter fromEarlierRun = new RecordingEmitter();
+		broadcaster.subscribe(5_000L, "main", fromEarlierRun);
+
+		await(() -> stale.events.size() == 1 && fromEarlierRun.events.size() == 1);
+		assertThat(stale.events.get(0)).contains("event:reset");
+		assertThat(fromEarlierRun.events.get(0)).contains("event:reset");
+	}
+
+	@Test
+	void slowSubscribersAreDroppedWithoutHoldingUpTheRest() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		RecordingEmitter slow = new RecordingEmitter() {
+			@Override
+			public void send(SseEventBuilder builder) throws IOException {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				super.send(builder);
+			}
+		};
+		RecordingEmitter fast = new RecordingEmitter();
+		broadcaster.subscribe(null, "main", slow);
+		broadcaster.subscribe(null, "main", fast);
+
+		// one event stuck in send, then a queue's worth, then the one that doesn't fit
+		int events = OrderEventBroadcaster.SUBSCRIBER_QUEUE_SIZE + 2;
+		for (long id = 1; id <= events; id++) {
+			broadcaster.orderCreated(order(id, "main"));
+		}
+		release.countDown();
+
+		assertThat(broadcaster.getSubscriberCount()).isEqualTo(1);
+		await(() -> fast.events.size() == events);
+		assertThat(slow.events.size()).isLessThan(events);
+	}
+
+	@Test
+	void failedSubscribersAreDropped() throws Exception {
+		SseEmitter broken = new SseEmitter() {
+			@Override
+			public void send(SseEventBuilder builder) throws IOException {
+				throw new IOException("Broken pipe");
+			}
+		};
+		broadcaster.subscribe(null, "main", broken);
+		assertThat(broadcaster.getSubscriberCount()).isEqualTo(1);
+
+		broadcaster.orderCreated(order(1L, "main"));
+
+		await(() -> broadcaster.getSubscriberCount() == 0);
+	}
+
+	private static Order order(Long id, String outlet) {
+		Order order = new Order();
+		order.setId(id);
+		order.setOutlet(outlet);
+		order.setCustomerName("Stream " + id);
+		order.setStatus("pending");
+		order.setOrderItems(List.of());
+		return order;
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (!condition.getAsBoolean()) {
+			assertThat(System.currentTimeMillis()).as("timed out waiting").isLessThan(deadline);
+			Thread.sleep(5);
+		}
+	}
+
+	// Keeps each sent event as its SSE text instead of writing it to a response
+	private static class RecordingEmitter extends SseEmitter {
+		final List<String> events = new CopyOnWriteArrayList<>();
+
+		@Override
+		public void send(SseEventBuilder builder) throws IOException {
+			StringBuilder text = new StringBuilder();
+			for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+				text.append(part.getData());
+			}
+			if (!text.toString().startsWith(":")) { // heartbeat comments
+				events.add(text.toString());
+			}
+		}
+
+		static String idOf(String event) {
+			return event.substring(event.indexOf("id:") + 3, event.indexOf('\n', event.indexOf("id:")));
+		}
+	}
+
+}
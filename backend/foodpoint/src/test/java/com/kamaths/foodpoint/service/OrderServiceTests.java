@@ -0,0 +1,243 @@
+package com.kamaths.foodpoint.service;
+
+import com.kamaths.foodpoint.dto.CreateOrderRequest;
+import com.kamaths.foodpoint.dto.FoodItemRequestDto;
+import com.kamaths.foodpoint.dto.OrderItemDto;
+import com.kamaths.foodpoint.dto.OrderLineChange;
+import com.kamaths.foodpoint.dto.OrderPatchRequest;
+import com.kamaths.foodpoint.entity.FoodItem;
+import com.kamaths.foodpoint.entity.Order;
+import com.kamaths.foodpoint.entity.OrderItem;
+import com.kamaths.foodpoint.repository.OrderRepository;
+import com.kamaths.foodpoint.repository.SalesRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+class OrderServiceTests {
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private FoodItemService foodItemService;
+
+	@Autowired
+	private SalesService salesService;
+
+	@Autowired
+	private SaleBatchWriter saleBatchWriter;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private SalesRepository salesRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		for (int i = 0; i < 20; i++) {
+			orderService.createOrder(request("Table " + i,
+					new OrderItemDto("Dosa", 60.0, 2),
+					new OrderItemDto("Coffee", 25.0, 1)));
+		}
+	}
+
+	@Test
+	void pendingOrdersLoadWithTheirItemsInOneStatement() {
+		statistics.clear();
+
+		List<Order> pending = orderService.getPendingOrders();
+		int items = pending.stream().mapToInt(order -> order.getOrderItems().size()).sum();
+
+		assertThat(pending).hasSizeGreaterThanOrEqualTo(20);
+		assertThat(items).isEqualTo(pending.size() * 2);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void orderPageLoadsItemsInBatches() {
+		Integer items = transactionTemplate.execute(status -> {
+			statistics.clear();
+			return orderService.getOrdersPage(null, 20).getItems().stream()
+					.mapToInt(order -> order.getOrderItems().size())
+					.sum();
+		});
+
+		assertThat(items).isEqualTo(40);
+		// one query for the page, one batched IN (...) query for its items
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	void menuItemsArePricedFromTheCatalogNotTheClient() throws Exception {
+		FoodItemRequestDto dto = new FoodItemRequestDto();
+		dto.setName("Idli Vada");
+		dto.setCategory("Breakfast");
+		dto.setPrice(45.0);
+		dto.setImage(new MockMultipartFile("image", "idli.jpeg", "image/jpeg", new byte[] {1}));
+		FoodItem idli = foodItemService.createFoodItem(dto);
+
+		OrderItemDto byId = new OrderItemDto("anything", 0.01, 2);
+		byId.setFoodItemId(idli.getId());
+		OrderItemDto byName = new OrderItemDto("idli vada", 1.0, 1);
+		OrderItemDto manual = new OrderItemDto("Extra chutney", 5.0, 1);
+
+		Order order = orderService.createOrder(request("Counter", byId, byName, manual));
+
+		assertThat(order.getOrderItems()).extracting(item -> item.getPricePaise())
+				.containsExactly(4500L, 4500L, 500L);
+		assertThat(order.getOrderItems().get(0).getFoodItemId()).isEqualTo(idli.getId());
+		assertThat(order.getTotalAmountPaise()).isEqualTo(3 * 4500L + 500L);
+	}
+
+	@Test
+	void editsKeepThePriceOfLinesAlreadyOnTheOrder() throws Exception {
+		FoodItemRequestDto dto = new FoodItemRequestDto();
+		dto.setName("Seasonal Payasam");
+		dto.setCategory("Desserts");
+		dto.setPrice(70.0);
+		FoodItem payasam = foodItemService.createFoodItem(dto);
+		OrderItemDto line = new OrderItemDto("Seasonal Payasam", 0.0, 1);
+		line.setFoodItemId(payasam.getId());
+		Order order = orderService.createOrder(request("Seasonal", line, new OrderItemDto("Extra ghee", 10.0, 1)));
+
+		foodItemService.deleteFoodItem(payasam.getId());
+		line.setQuantity(2);
+		Order updated = orderService.updateOrder(order.getId(), request("Seasonal", line,
+				new OrderItemDto("Extra ghee", 10.0, 1), new OrderItemDto("Extra ghee", 12.0, 1)));
+
+		assertThat(updated.getOrderItems()).extracting(OrderItem::getFoodItemId, OrderItem::getPricePaise, OrderItem::getQuantity)
+				.containsExactly(tuple(payasam.getId(), 7000L, 2), tuple(null, 1000L, 1), tuple(null, 1200L, 1));
+		assertThat(updated.getTotalAmountPaise()).isEqualTo(2 * 7000L + 1000L + 1200L);
+		orderService.deleteOrder(order.getId());
+	}
+
+	@Test
+	void paymentsAreRecordedAsLinkedSalesInBatches() throws Exception {
+		List<Order> pending = orderService.getPendingOrders();
+		long before = Math.round(salesService.getTotalSales() * 100);
+		long expected = pending.stream().mapToLong(Order::getTotalAmountPaise).sum();
+
+		pending.forEach(order -> orderService.markPaymentDone(order.getId()));
+		saleBatchWriter.flush();
+
+		for (Order order : pending) {
+			assertThat(salesRepository.countByOrderId(order.getId())).isEqualTo(1);
+			assertThat(orderRepository.findById(order.getId()).orElseThrow().isSaleRecorded()).isTrue();
+		}
+		assertThat(Math.round(salesService.getTotalSales() * 100)).isEqualTo(before + expected);
+		assertThat(salesService.checkConsistency().get("consistent")).isEqualTo(true);
+	}
+
+	@Test
+	void aSaleThatKeepsFailingIsParkedWhileTheRestAreRecorded() throws Exception {
+		Order first = orderService.createOrder(request("Good 1", new OrderItemDto("Dosa", 60.0, 1)));
+		Order second = orderService.createOrder(request("Good 2", new OrderItemDto("Dosa", 60.0, 1)));
+		Order bad = orderService.createOrder(request("Bad", new OrderItemDto("Dosa", 60.0, 1)));
+		// a line whose revenue overflows makes every write of this sale fail
+		Order poisoned = new Order();
+		poisoned.setId(bad.getId());
+		poisoned.setTotalAmountPaise(6000);
+		poisoned.setOrderItems(List.of(new OrderItem("Dosa", Long.MAX_VALUE / 2, 4)));
+
+		saleBatchWriter.recordAfterCommit(poisoned);
+		orderService.markPaymentDone(first.getId());
+		orderService.markPaymentDone(second.getId());
+		saleBatchWriter.flush();
+
+		assertThat(salesRepository.countByOrderId(first.getId())).isEqualTo(1);
+		assertThat(salesRepository.countByOrderId(second.getId())).isEqualTo(1);
+		assertThat(salesRepository.countByOrderId(bad.getId())).isZero();
+		assertThat(saleBatchWriter.getParkedOrderIds()).contains(bad.getId());
+		assertThat(salesService.checkConsistency().get("consistent")).isEqualTo(true);
+		orderService.deleteOrder(bad.getId());
+	}
+
+	@Test
+	void rolledBackPaymentsAreNotAnnounced() throws Exception {
+		Order order = orderService.getPendingOrders().get(0);
+		Counter paid = meterRegistry.get("foodpoint.orders.paid").counter();
+		double before = paid.count();
+
+		transactionTemplate.executeWithoutResult(status -> {
+			orderService.markPaymentDone(order.getId());
+			status.setRollbackOnly();
+		});
+
+		assertThat(paid.count()).isEqualTo(before);
+		assertThat(orderRepository.findById(order.getId()).orElseThrow().getStatus()).isEqualTo("pending");
+
+		orderService.markPaymentDone(order.getId());
+		saleBatchWriter.flush();
+
+		assertThat(paid.count()).isEqualTo(before + 1);
+	}
+
+	@Test
+	void patchingOneLineWritesOneRow() {
+		OrderItemDto[] lines = new OrderItemDto[10];
+		for (int i = 0; i < lines.length; i++) {
+			lines[i] = new OrderItemDto("Line " + i, 10.0, 1);
+		}
+		Order order = orderService.createOrder(request("Patch", lines));
+
+		OrderPatchRequest patch = new OrderPatchRequest();
+		patch.setChange(List.of(new OrderLineChange(3, 4)));
+		statistics.clear();
+		Order patched = orderService.patchOrder(order.getId(), patch);
+
+		assertThat(statistics.getCollectionRecreateCount()).isZero();
+		assertThat(statistics.getCollectionUpdateCount()).isEqualTo(1);
+		// load, one order_items row, the order's total and version
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+		assertThat(patched.getTotalAmountPaise()).isEqualTo(13 * 1000L);
+
+		patch = new OrderPatchRequest();
+		patch.setRemove(List.of(9));
+		patch.setAdd(List.of(new OrderItemDto("Extra", 5.0, 2), new OrderItemDto("Extra 2", 5.0, 1)));
+		orderService.patchOrder(order.getId(), patch);
+
+		Order reloaded = orderRepository.findWithItemsById(order.getId()).orElseThrow();
+		assertThat(reloaded.getOrderItems()).extracting(OrderItem::getItemName)
+				.containsExactly("Line 0", "Line 1", "Line 2", "Line 3", "Line 4", "Line 5", "Line 6", "Line 7", "Line 8",
+						"Extra", "Extra 2");
+		assertThat(reloaded.getOrderItems().get(3).getQuantity()).isEqualTo(4);
+		assertThat(reloaded.getTotalAmountPaise()).isEqualTo(12 * 1000L + 3 * 500L);
+	}
+
+	static CreateOrderRequest request(String customer, OrderItemDto... items) {
+		CreateOrderRequest request = new CreateOrderRequest();
+		request.setCustomerName(customer);
+		request.setPaymentMethod("cash");
+		request.setOrderItems(List.of(items));
+		return request;
+	}
+
+}
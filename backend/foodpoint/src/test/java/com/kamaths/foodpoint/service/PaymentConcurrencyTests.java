@@ -0,0 +1,140 @@
+package com.kamaths.foodpoint.service;
+
+import com.kamaths.foodpoint.dto.CreateOrderRequest;
+import com.kamaths.foodpoint.dto.OrderItemDto;
+import com.kamaths.foodpoint.entity.Order;
+import com.kamaths.foodpoint.repository.OrderRepository;
+import com.kamaths.foodpoint.repository.SalesRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class PaymentConcurrencyTests {
+
+	private static final int ORDERS = 40;
+	private static final int CALLS_PER_ORDER = 10;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private SalesService salesService;
+
+	@Autowired
+	private SaleBatchWriter saleBatchWriter;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private SalesRepository salesRepository;
+
+	@Test
+	void concurrentPaymentCallsRecordExactlyOneSalePerOrder() throws Exception {
+		saleBatchWriter.flush();
+		List<Order> orders = new ArrayList<>();
+		for (int i = 0; i < ORDERS; i++) {
+			orders.add(orderService.createOrder(OrderServiceTests.request("Till race " + i,
+					new OrderItemDto("Thali", 120.0, 1))));
+		}
+		long before = Math.round(salesService.getTotalSales() * 100);
+
+		// Every call waits at the gate, then all of them hit markPaymentDone at once
+		CountDownLatch gate = new CountDownLatch(1);
+		List<Future<Order>> calls = new ArrayList<>();
+		try (ExecutorService tills = Executors.newFixedThreadPool(32)) {
+			for (int call = 0; call < CALLS_PER_ORDER; call++) {
+				for (Order order : orders) {
+					calls.add(tills.submit(() -> {
+						gate.await();
+						return orderService.markPaymentDone(order.getId());
+					}));
+				}
+			}
+			gate.countDown();
+			for (Future<Order> call : calls) {
+				assertThat(call.get().getStatus()).isEqualTo("paid");
+			}
+		}
+		saleBatchWriter.flush();
+
+		for (Order order : orders) {
+			assertThat(salesRepository.countByOrderId(order.getId())).isEqualTo(1);
+		}
+		assertThat(Math.round(salesService.getTotalSales() * 100)).isEqualTo(before + ORDERS * 12000L);
+		assertThat(salesService.checkConsistency().get("consistent")).isEqualTo(true);
+	}
+
+	@Test
+	void concurrentCreatesWithOneKeyMakeOneOrder() throws Exception {
+		CreateOrderRequest request = OrderServiceTests.request("Double tap", new OrderItemDto("Idli", 40.0, 2));
+		request.setIdempotencyKey("till-3:" + System.nanoTime());
+
+		CountDownLatch gate = new CountDownLatch(1);
+		List<Future<Order>> calls = new ArrayList<>();
+		try (ExecutorService tills = Executors.newFixedThreadPool(8)) {
+			for (int call = 0; call < 8; call++) {
+				calls.add(tills.submit(() -> {
+					gate.await();
+					return orderService.createOrder(request);
+				}));
+			}
+			gate.countDown();
+			Long orderId = calls.get(0).get().getId();
+			for (Future<Order> call : calls) {
+				assertThat(call.get().getId()).isEqualTo(orderId);
+			}
+			orderService.markPaymentDone(orderId);
+		}
+		saleBatchWriter.flush();
+	}
+
+	@Test
+	void aDifferentIdempotencyKeyCannotPayTwice() throws Exception {
+		Order order = orderService.createOrder(OrderServiceTests.request("Two tills",
+				new OrderItemDto("Vada", 30.0, 2)));
+
+		orderService.markPaymentDone(order.getId(), "till-1:abc");
+		Order replay = orderService.markPaymentDone(order.getId(), "till-1:abc");
+
+		assertThat(replay.getStatus()).isEqualTo("paid");
+		assertThatThrownBy(() -> orderService.markPaymentDone(order.getId(), "till-2:xyz"))
+				.isInstanceOf(IllegalStateException.class);
+		saleBatchWriter.flush();
+		assertThat(salesRepository.countByOrderId(order.getId())).isEqualTo(1);
+	}
+
+	@Test
+	void staleOrPaidOrdersCannotBeEdited() {
+		Order order = orderService.createOrder(OrderServiceTests.request("Edit race",
+				new OrderItemDto("Tea", 15.0, 1)));
+		CreateOrderRequest edit = OrderServiceTests.request("Edit race", new OrderItemDto("Tea", 15.0, 3));
+
+		edit.setVersion(order.getVersion());
+		Order edited = orderService.updateOrder(order.getId(), edit);
+		assertThat(edited.getVersion()).isGreaterThan(order.getVersion());
+
+		// second till still holds the old version
+		assertThatThrownBy(() -> orderService.updateOrder(order.getId(), edit))
+				.isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+		orderService.markPaymentDone(order.getId());
+		edit.setVersion(null);
+		assertThatThrownBy(() -> orderService.updateOrder(order.getId(), edit))
+				.isInstanceOf(IllegalStateException.class);
+		assertThat(orderRepository.findWithItemsById(order.getId()).orElseThrow().getTotalAmountPaise()).isEqualTo(4500L);
+	}
+
+}
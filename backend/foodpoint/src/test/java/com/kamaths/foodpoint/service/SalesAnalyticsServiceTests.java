@@ -0,0 +1,123 @@
+package com.kamaths.foodpoint.service;
+
+import com.kamaths.foodpoint.dto.BasketStats;
+import com.kamaths.foodpoint.dto.CategorySales;
+import com.kamaths.foodpoint.dto.FoodItemRequestDto;
+import com.kamaths.foodpoint.dto.HeatmapCell;
+import com.kamaths.foodpoint.dto.ItemSales;
+import com.kamaths.foodpoint.dto.OrderItemDto;
+import com.kamaths.foodpoint.entity.FoodItem;
+import com.kamaths.foodpoint.entity.Order;
+import com.kamaths.foodpoint.repository.HourlySalesFactRepository;
+import com.kamaths.foodpoint.repository.ItemSalesFactRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static com.kamaths.foodpoint.service.OrderServiceTests.request;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class SalesAnalyticsServiceTests {
+
+	@Autowired
+	private SalesAnalyticsService analyticsService;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private FoodItemService foodItemService;
+
+	@Autowired
+	private SaleBatchWriter saleBatchWriter;
+
+	@Autowired
+	private ItemSalesFactRepository itemFacts;
+
+	@Autowired
+	private HourlySalesFactRepository hourlyFacts;
+
+	@Test
+	void paidOrdersFeedItemCategoryHourAndBasketFacts() throws Exception {
+		String category = "Analytics " + UUID.randomUUID();
+		FoodItem dosa = menuItem("Ghee Dosa", category, 80.0);
+		FoodItem lassi = menuItem("Sweet Lassi", category, 50.0);
+		LocalDate today = LocalDate.now();
+		BasketStats before = analyticsService.getBasketStats(today, today);
+
+		pay(item(dosa, 2), item(lassi, 1));
+		pay(item(dosa, 1), new OrderItemDto("Extra sambar", 10.0, 3));
+		saleBatchWriter.flush();
+
+		List<ItemSales> ours = analyticsService.getBestSellers(today, today, "quantity", 100).stream()
+				.filter(item -> category.equals(item.getCategory()))
+				.toList();
+		assertThat(ours).extracting(ItemSales::getItemName).containsExactly("Ghee Dosa", "Sweet Lassi");
+		assertThat(ours.get(0).getQuantity()).isEqualTo(3);
+		assertThat(ours.get(0).getRevenuePaise()).isEqualTo(24_000);
+
+		CategorySales breakdown = analyticsService.getCategoryBreakdown(today, today).stream()
+				.filter(c -> category.equals(c.getCategory()))
+				.findFirst().orElseThrow();
+		assertThat(breakdown.getQuantity()).isEqualTo(4);
+		assertThat(breakdown.getRevenuePaise()).isEqualTo(29_000);
+
+		BasketStats after = analyticsService.getBasketStats(today, today);
+		assertThat(after.getOrders() - before.getOrders()).isEqualTo(2);
+		assertThat(after.getItems() - before.getItems()).isEqualTo(7);
+		assertThat(after.getRevenuePaise() - before.getRevenuePaise()).isEqualTo(32_000);
+
+		List<HeatmapCell> heatmap = analyticsService.getHourlyHeatmap(today, today);
+		assertThat(heatmap).hasSize(7 * 24);
+		HeatmapCell now = heatmap.get((today.getDayOfWeek().getValue() - 1) * 24 + LocalDateTime.now().getHour());
+		assertThat(now.getOrders()).isGreaterThanOrEqualTo(2);
+	}
+
+	@Test
+	void backfillRebuildsTheSameFactsFromSalesHistory() throws Exception {
+		String category = "Backfill " + UUID.randomUUID();
+		FoodItem vada = menuItem("Medu Vada", category, 40.0);
+		pay(item(vada, 4));
+		saleBatchWriter.flush();
+		LocalDate today = LocalDate.now();
+		List<ItemSales> recorded = analyticsService.getBestSellers(today, today, "revenue", 100);
+		BasketStats basket = analyticsService.getBasketStats(today, today);
+
+		itemFacts.deleteAllInBatch();
+		hourlyFacts.deleteAllInBatch();
+		analyticsService.backfill();
+
+		assertThat(analyticsService.getBestSellers(today, today, "revenue", 100))
+				.usingRecursiveFieldByFieldElementComparator()
+				.containsExactlyInAnyOrderElementsOf(recorded);
+		assertThat(analyticsService.getBasketStats(today, today))
+				.usingRecursiveComparison()
+				.isEqualTo(basket);
+	}
+
+	private FoodItem menuItem(String name, String category, double price) throws Exception {
+		FoodItemRequestDto dto = new FoodItemRequestDto();
+		dto.setName(name);
+		dto.setCategory(category);
+		dto.setPrice(price);
+		return foodItemService.createFoodItem(dto);
+	}
+
+	private static OrderItemDto item(FoodItem menuItem, int quantity) {
+		OrderItemDto dto = new OrderItemDto(menuItem.getName(), 0.0, quantity);
+		dto.setFoodItemId(menuItem.getId());
+		return dto;
+	}
+
+	private void pay(OrderItemDto... items) {
+		Order order = orderService.createOrder(request("Analytics", items));
+		orderService.markPaymentDone(order.getId());
+	}
+
+}
@@ -0,0 +1,122 @@
+package com.kamaths.foodpoint.service;
+
+import com.kamaths.foodpoint.dto.CursorPage;
+import com.kamaths.foodpoint.dto.SalesBucket;
+import com.kamaths.foodpoint.dto.SalesReport;
+import com.kamaths.foodpoint.entity.DailySalesRollupId;
+import com.kamaths.foodpoint.entity.Order;
+import com.kamaths.foodpoint.entity.Sale;
+import com.kamaths.foodpoint.repository.DailySalesRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class SalesServiceTests {
+
+	@Autowired
+	private SalesService salesService;
+
+	@Autowired
+	private DailySalesRollupRepository rollupRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void runningTotalsMatchDatabaseAfterConcurrentSales() throws Exception {
+		double before = salesService.getTotalSales();
+
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		for (int i = 0; i < 200; i++) {
+			pool.submit(() -> salesService.addSale(1250));
+		}
+		pool.shutdown();
+		assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+		assertThat(salesService.getTotalSales()).isEqualTo(before + 2500.0);
+		Map<String, Object> report = salesService.checkConsistency();
+		assertThat(report.get("consistent")).isEqualTo(true);
+	}
+
+	@Test
+	void reloadRebuildsTotalsFromDatabase() {
+		salesService.addSale(4000);
+		double today = salesService.getTodaySales();
+
+		salesService.reloadTotals();
+
+		assertThat(salesService.getTodaySales()).isEqualTo(today);
+		assertThat(salesService.checkConsistency().get("consistent")).isEqualTo(true);
+	}
+
+	@Test
+	void rollupFollowsSalesAndReconcileRepairsDrift() {
+		LocalDate today = LocalDate.now();
+		salesService.addSale(4000);
+		long rolledUp = rollupRepository.findById(new DailySalesRollupId(Order.DEFAULT_OUTLET, today)).orElseThrow().getAmountPaise();
+		assertThat(rolledUp).isEqualTo(Math.round(salesService.getTodaySales() * 100));
+
+		jdbcTemplate.update("UPDATE daily_sales_rollup SET amount_paise = amount_paise + 999 WHERE outlet = ? AND sales_date = ?",
+				Order.DEFAULT_OUTLET, today);
+
+		assertThat(salesService.reconcileRollup(today, today)).isEqualTo(1);
+		assertThat(rollupRepository.findById(new DailySalesRollupId(Order.DEFAULT_OUTLET, today)).orElseThrow().getAmountPaise()).isEqualTo(rolledUp);
+		assertThat(salesService.reconcileRollup(today, today)).isZero();
+		assertThat(salesService.checkConsistency().get("consistent")).isEqualTo(true);
+	}
+
+	@Test
+	void reportsReadEveryBucketFromTheRollup() {
+		LocalDate today = LocalDate.now();
+		salesService.addSale(2500);
+
+		SalesReport daily = salesService.getReport(today.minusDays(9), today, "day");
+		assertThat(daily.getBuckets()).hasSize(10);
+		assertThat(daily.getBuckets().get(9).getStart()).isEqualTo(today);
+		assertThat(daily.getAmountPaise()).isEqualTo(Math.round(salesService.getTodaySales() * 100));
+
+		SalesReport monthly = salesService.getReport(today.minusMonths(2), today, "month");
+		assertThat(monthly.getBuckets()).hasSize(3);
+		assertThat(monthly.getBuckets().get(2).getAmountPaise())
+				.isEqualTo(Math.round(salesService.getMonthlySales() * 100));
+
+		List<SalesBucket> trend = salesService.getWeeklySalesTrend();
+		assertThat(trend).hasSize(7);
+		assertThat(trend.get(0).getStart()).isEqualTo(today);
+	}
+
+	@Test
+	void keysetPagesCoverEverySaleExactlyOnce() {
+		for (int i = 0; i < 25; i++) {
+			salesService.addSale(100 + i);
+		}
+		Set<Long> seen = new HashSet<>();
+		int rows = 0;
+		String cursor = null;
+		do {
+			CursorPage<Sale> page = salesService.getSalesPage(cursor, 7);
+			assertThat(page.getItems()).hasSizeLessThanOrEqualTo(7);
+			page.getItems().forEach(sale -> seen.add(sale.getId()));
+			rows += page.getItems().size();
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+
+		assertThat(rows).isEqualTo(seen.size());
+		assertThat(seen).hasSizeGreaterThanOrEqualTo(25);
+		assertThat(salesService.getRecentSales(5)).hasSize(5);
+	}
+
+}
@@ -55,6 +55,7 @@ export default function AddOrders() {
       const newId = Math.max(...orderItems.map(item => item.id), 0) + 1
       setOrderItems([...orderItems, { 
         id: newId, 
+        foodItemId: menuItem.id,
         itemName: menuItem.name, 
         price: menuItem.price.toString(), 
         quantity: 1 
@@ -84,6 +85,7 @@ export default function AddOrders() {
         notes,
         totalAmount,
         orderItems: orderItems.map(item => ({
+          foodItemId: item.foodItemId,
           itemName: item.itemName,
           price: parseFloat(item.price),
           quantity: parseInt(item.quantity)
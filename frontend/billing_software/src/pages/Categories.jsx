@@ -306,7 +306,13 @@ export default function Categories() {
                       {item.imageUrl ? (
                         <>
                           <img 
-                            src={`http://localhost:8080${item.imageUrl}`}
+                            src={`http://localhost:8080${item.thumbnailUrl || item.imageUrl}`}
+                            srcSet={item.thumbnailUrl && item.mediumUrl
+                              ? `http://localhost:8080${item.thumbnailUrl} 320w, http://localhost:8080${item.mediumUrl} 960w`
+                              : undefined}
+                            sizes="(max-width: 600px) 100vw, 320px"
+                            loading="lazy"
+                            decoding="async"
                             alt={item.name}
                             style={{
                               width: '100%', 
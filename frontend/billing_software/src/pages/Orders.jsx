@@ -16,6 +16,26 @@ export default function Orders() {
     fetchMenuItems()
   }, [])
 
+  // Live order feed - apply deltas instead of re-fetching every pending order
+  useEffect(() => {
+    const source = new EventSource('http://localhost:8080/api/orders/stream')
+    const upsert = (event) => {
+      const { order } = JSON.parse(event.data)
+      setOrders(prev => [order, ...prev.filter(o => o.id !== order.id)]
+        .sort((a, b) => new Date(b.createdAt) - new Date(a.createdAt)))
+    }
+    const remove = (event) => {
+      const { orderId } = JSON.parse(event.data)
+      setOrders(prev => prev.filter(o => o.id !== orderId))
+    }
+    source.addEventListener('created', upsert)
+    source.addEventListener('updated', upsert)
+    source.addEventListener('paid', remove)
+    source.addEventListener('deleted', remove)
+    source.addEventListener('reset', () => fetchOrders())
+    return () => source.close()
+  }, [])
+
   const fetchOrders = async () => {
     try {
       const response = await axios.get('http://localhost:8080/api/orders/pending')
@@ -69,6 +89,7 @@ export default function Orders() {
   const addMenuItemToOrder = (menuItem) => {
     const newItem = {
       tempId: Date.now() + Math.random(),
+      foodItemId: menuItem.id,
       itemName: menuItem.name,
       price: menuItem.price,
       quantity: 1
@@ -114,6 +135,7 @@ export default function Orders() {
         notes: editingOrder.notes || '',
         totalAmount,
         orderItems: orderItems.map(item => ({
+          foodItemId: item.foodItemId,
           itemName: item.itemName || 'Custom item',
           price: parseFloat(item.price) || 0,
           quantity: parseInt(item.quantity) || 1